@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import space.lingu.light.sql.DialectProvider;
+import space.lingu.light.sql.H2DialectProvider;
+import space.lingu.light.sql.SQLiteDialectProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Embedded databases the benchmarks run against.
+ *
+ * @author RollW
+ */
+public enum Backend {
+    /**
+     * In-memory H2 in MySQL mode, as {@link H2DialectProvider}
+     * generates MySQL flavored sql.
+     */
+    H2("org.h2.Driver", H2DialectProvider.class) {
+        @Override
+        public String createUrl() {
+            return "jdbc:h2:mem:light_bench_" + System.nanoTime() +
+                    ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        }
+    },
+    /**
+     * H2 in a temporary file, in MySQL mode.
+     */
+    H2_FILE("org.h2.Driver", H2DialectProvider.class) {
+        @Override
+        public String createUrl() {
+            File file = createTempFile(".mv.db");
+            String path = file.getAbsolutePath();
+            return "jdbc:h2:file:" + path.substring(0, path.length() - ".mv.db".length()) +
+                    ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        }
+    },
+    /**
+     * SQLite in a temporary file in WAL mode, waiting on locks
+     * held by other connections instead of failing at once.
+     */
+    SQLITE("org.sqlite.JDBC", SQLiteDialectProvider.class) {
+        @Override
+        public String createUrl() {
+            return "jdbc:sqlite:" + createTempFile(".db").getAbsolutePath() +
+                    "?journal_mode=WAL&busy_timeout=10000";
+        }
+    };
+
+    private final String jdbcName;
+    private final Class<? extends DialectProvider> dialectProvider;
+
+    Backend(String jdbcName, Class<? extends DialectProvider> dialectProvider) {
+        this.jdbcName = jdbcName;
+        this.dialectProvider = dialectProvider;
+    }
+
+    /**
+     * Url of a new, empty database.
+     */
+    public abstract String createUrl();
+
+    private static File createTempFile(String suffix) {
+        try {
+            File file = File.createTempFile("light_bench", suffix);
+            file.deleteOnExit();
+            // the driver creates the database if the file does not exist
+            if (!file.delete()) {
+                throw new IOException("Cannot delete " + file);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getJdbcName() {
+        return jdbcName;
+    }
+
+    public Class<? extends DialectProvider> getDialectProvider() {
+        return dialectProvider;
+    }
+}
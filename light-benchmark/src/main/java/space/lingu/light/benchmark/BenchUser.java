@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import space.lingu.light.DataColumn;
+import space.lingu.light.DataTable;
+import space.lingu.light.PrimaryKey;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity of the benchmarks. The enum and date columns go through
+ * {@code EnumColumnTypeBinder} and {@code DateTypeBinder}.
+ *
+ * @author RollW
+ */
+@DataTable(name = "bench_user")
+public class BenchUser {
+    @PrimaryKey(autoGenerate = true)
+    @DataColumn(name = "id")
+    private Long id;
+
+    @DataColumn(name = "name")
+    private String name;
+
+    @DataColumn(name = "age")
+    private int age;
+
+    @DataColumn(name = "status")
+    private UserStatus status;
+
+    @DataColumn(name = "create_time")
+    private LocalDateTime createTime;
+
+    public BenchUser() {
+    }
+
+    public BenchUser(Long id, String name, int age,
+                     UserStatus status, LocalDateTime createTime) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.status = status;
+        this.createTime = createTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public UserStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(UserStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(LocalDateTime createTime) {
+        this.createTime = createTime;
+    }
+}
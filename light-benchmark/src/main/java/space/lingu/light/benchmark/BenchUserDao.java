@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import space.lingu.light.Dao;
+import space.lingu.light.Delete;
+import space.lingu.light.Insert;
+import space.lingu.light.Query;
+import space.lingu.light.Update;
+
+import java.util.List;
+
+/**
+ * @author RollW
+ */
+@Dao
+public interface BenchUserDao {
+    @Insert
+    void insert(BenchUser user);
+
+    @Insert
+    void insert(List<BenchUser> users);
+
+    @Insert
+    long[] insertAndReturnIds(List<BenchUser> users);
+
+    @Update
+    int update(BenchUser user);
+
+    @Update
+    int update(List<BenchUser> users);
+
+    @Delete
+    int delete(List<BenchUser> users);
+
+    @Query("SELECT * FROM bench_user WHERE id = {id}")
+    BenchUser get(long id);
+
+    @Query("SELECT * FROM bench_user WHERE id <= {maxId}")
+    List<BenchUser> getList(long maxId);
+
+    @Query("SELECT * FROM bench_user WHERE id <= {maxId}")
+    BenchUser[] getArray(long maxId);
+
+    @Query("SELECT * FROM bench_user WHERE id >= {start} AND id < {end}")
+    List<BenchUser> scan(long start, long end);
+}
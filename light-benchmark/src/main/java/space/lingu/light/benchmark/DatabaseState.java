@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import space.lingu.light.DatasourceConfig;
+import space.lingu.light.Light;
+import space.lingu.light.connect.LightConnectionPool;
+import space.lingu.light.connect.PoolOptions;
+import space.lingu.light.log.LightEmptyLogger;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Light database and a raw JDBC connection to the same
+ * embedded database, for the raw JDBC baselines.
+ *
+ * @author RollW
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+    static final String INSERT_SQL =
+            "INSERT INTO bench_user (id, name, age, status, create_time) VALUES (?, ?, ?, ?, ?)";
+    static final String UPDATE_SQL =
+            "UPDATE bench_user SET id = ?, name = ?, age = ?, status = ?, create_time = ? WHERE id = ?";
+    static final String QUERY_BY_ID_SQL =
+            "SELECT * FROM bench_user WHERE id = ?";
+    static final String QUERY_RANGE_SQL =
+            "SELECT * FROM bench_user WHERE id <= ?";
+
+    private static final LocalDateTime CREATE_TIME =
+            LocalDateTime.of(2022, 10, 1, 8, 30);
+
+    @Param({"H2", "SQLITE"})
+    public Backend backend;
+
+    BenchDatabase database;
+    BenchUserDao dao;
+    /**
+     * Connection of the raw JDBC baselines, held for the whole trial.
+     */
+    Connection connection;
+    private LightConnectionPool connectionPool;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        String url = backend.createUrl();
+        DatasourceConfig config = new DatasourceConfig(url,
+                backend.getJdbcName(), null, null);
+        connectionPool = new LightConnectionPool(PoolOptions.builder()
+                .setMaxPoolSize(4)
+                .build());
+        database = Light.databaseBuilder(BenchDatabase.class, backend.getDialectProvider())
+                .datasource(config)
+                .setConnectionPool(connectionPool)
+                .setLogger(LightEmptyLogger.getInstance())
+                .build();
+        dao = database.getBenchUserDao();
+        connection = DriverManager.getConnection(url);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        connectionPool.close();
+    }
+
+    /**
+     * Delete all rows.
+     */
+    void clear() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM bench_user");
+        }
+    }
+
+    /**
+     * Insert rows and return them with their ids.
+     */
+    List<BenchUser> seed(int rows) throws SQLException {
+        clear();
+        dao.insert(newUsers(rows));
+        return jdbcQuery(Long.MAX_VALUE);
+    }
+
+    static List<BenchUser> newUsers(int rows) {
+        List<BenchUser> users = new ArrayList<>(rows);
+        UserStatus[] statuses = UserStatus.values();
+        for (int i = 0; i < rows; i++) {
+            users.add(new BenchUser(null, "user" + i, 20 + i % 50,
+                    statuses[i % statuses.length], CREATE_TIME.plusMinutes(i)));
+        }
+        return users;
+    }
+
+    /**
+     * Bind the columns in the order of {@link #INSERT_SQL}.
+     */
+    static void bind(PreparedStatement statement, BenchUser user) throws SQLException {
+        if (user.getId() == null) {
+            statement.setNull(1, java.sql.Types.BIGINT);
+        } else {
+            statement.setLong(1, user.getId());
+        }
+        statement.setString(2, user.getName());
+        statement.setInt(3, user.getAge());
+        statement.setString(4, user.getStatus().name());
+        statement.setTimestamp(5, Timestamp.valueOf(user.getCreateTime()));
+    }
+
+    static BenchUser map(ResultSet resultSet) throws SQLException {
+        Timestamp createTime = resultSet.getTimestamp("create_time");
+        return new BenchUser(
+                resultSet.getLong("id"),
+                resultSet.getString("name"),
+                resultSet.getInt("age"),
+                UserStatus.valueOf(resultSet.getString("status")),
+                createTime == null ? null : createTime.toLocalDateTime()
+        );
+    }
+
+    List<BenchUser> jdbcQuery(long maxId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(QUERY_RANGE_SQL)) {
+            statement.setLong(1, maxId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<BenchUser> users = new ArrayList<>();
+                while (resultSet.next()) {
+                    users.add(map(resultSet));
+                }
+                return users;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import space.lingu.light.bulk.BulkLoader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts through {@code InsertHandler}: single rows, batches and
+ * batches returning generated ids, each with a raw JDBC baseline,
+ * and batches through {@link BulkLoader}.
+ *
+ * @author RollW
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    @Param({"100", "1000"})
+    public int rows;
+
+    private BenchUser user;
+    private List<BenchUser> users;
+    private BulkLoader<BenchUser> bulkLoader;
+
+    @Setup(Level.Trial)
+    public void setup(DatabaseState state) {
+        user = DatabaseState.newUsers(1).get(0);
+        users = DatabaseState.newUsers(rows);
+        bulkLoader = BulkLoader.create(state.database, BenchUser.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear(DatabaseState state) throws SQLException {
+        state.clear();
+    }
+
+    @Benchmark
+    public void lightInsertSingle(DatabaseState state) {
+        state.dao.insert(user);
+    }
+
+    @Benchmark
+    public void jdbcInsertSingle(DatabaseState state) throws SQLException {
+        try (PreparedStatement statement =
+                     state.connection.prepareStatement(DatabaseState.INSERT_SQL)) {
+            DatabaseState.bind(statement, user);
+            statement.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    public void lightInsertBatch(DatabaseState state) {
+        state.dao.insert(users);
+    }
+
+    @Benchmark
+    public long lightBulkLoad() {
+        return bulkLoader.load(users);
+    }
+
+    @Benchmark
+    public int[] jdbcInsertBatch(DatabaseState state) throws SQLException {
+        Connection connection = state.connection;
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement =
+                     connection.prepareStatement(DatabaseState.INSERT_SQL)) {
+            for (BenchUser u : users) {
+                DatabaseState.bind(statement, u);
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            connection.commit();
+            return counts;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Benchmark
+    public long[] lightInsertAndReturnIds(DatabaseState state) {
+        return state.dao.insertAndReturnIds(users);
+    }
+
+    @Benchmark
+    public long[] jdbcInsertAndReturnIds(DatabaseState state) throws SQLException {
+        Connection connection = state.connection;
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(
+                DatabaseState.INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            long[] ids = new long[users.size()];
+            int i = 0;
+            for (BenchUser u : users) {
+                DatabaseState.bind(statement, u);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        ids[i] = keys.getLong(1);
+                    }
+                }
+                i++;
+            }
+            connection.commit();
+            return ids;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
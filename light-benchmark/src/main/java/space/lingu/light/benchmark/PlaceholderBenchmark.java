@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import space.lingu.light.LightDatabase;
+import space.lingu.light.handler.SQLHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expanding the parameters of a query template to placeholders by
+ * {@code SQLHandler.replaceWithPlaceholders}, against building the
+ * same sql by hand.
+ *
+ * @author RollW
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderBenchmark {
+    private static final String SQL_HEAD = "SELECT * FROM bench_user WHERE name = ";
+    private static final String SQL_MIDDLE = " AND id IN (";
+    private static final String SQL_TAIL = ")";
+
+    /**
+     * Size of the collection parameter.
+     */
+    @Param({"1", "10", "100"})
+    public int size;
+
+    private ExposedSQLHandler handler;
+    private int[] args;
+
+    @Setup(Level.Trial)
+    public void setup(DatabaseState state) {
+        handler = new ExposedSQLHandler(state.database,
+                SQL_HEAD + "{name}" + SQL_MIDDLE + "{ids}" + SQL_TAIL);
+        args = new int[]{1, size};
+    }
+
+    @Benchmark
+    public String lightReplaceWithPlaceholders() {
+        return handler.replace(args);
+    }
+
+    @Benchmark
+    public String manualPlaceholders() {
+        StringBuilder builder = new StringBuilder(SQL_HEAD.length() +
+                SQL_MIDDLE.length() + SQL_TAIL.length() + 3 * size + 1);
+        builder.append(SQL_HEAD).append('?').append(SQL_MIDDLE);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('?');
+        }
+        return builder.append(SQL_TAIL).toString();
+    }
+
+    private static final class ExposedSQLHandler extends SQLHandler {
+        ExposedSQLHandler(LightDatabase database, String sql) {
+            super(database, sql);
+        }
+
+        String replace(int[] args) {
+            return replaceWithPlaceholders(args);
+        }
+    }
+}
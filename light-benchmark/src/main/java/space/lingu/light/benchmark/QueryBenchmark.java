@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries through the generated DAO returning a list, an array and a
+ * single entity, with raw JDBC baselines. Each row maps an enum and a
+ * date column, so the results include the cost of
+ * {@code EnumColumnTypeBinder} and {@code DateTypeBinder}.
+ *
+ * @author RollW
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+    @Param({"10", "1000"})
+    public int rows;
+
+    private long firstId;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setup(DatabaseState state) throws SQLException {
+        List<BenchUser> users = state.seed(rows);
+        firstId = users.get(0).getId();
+        maxId = users.get(users.size() - 1).getId();
+    }
+
+    @Benchmark
+    public List<BenchUser> lightQueryList(DatabaseState state) {
+        return state.dao.getList(maxId);
+    }
+
+    @Benchmark
+    public BenchUser[] lightQueryArray(DatabaseState state) {
+        return state.dao.getArray(maxId);
+    }
+
+    @Benchmark
+    public List<BenchUser> jdbcQueryList(DatabaseState state) throws SQLException {
+        return state.jdbcQuery(maxId);
+    }
+
+    @Benchmark
+    public BenchUser[] jdbcQueryArray(DatabaseState state) throws SQLException {
+        return state.jdbcQuery(maxId).toArray(new BenchUser[0]);
+    }
+
+    @Benchmark
+    public BenchUser lightQuerySingle(DatabaseState state) {
+        return state.dao.get(firstId);
+    }
+
+    @Benchmark
+    public BenchUser jdbcQuerySingle(DatabaseState state) throws SQLException {
+        try (PreparedStatement statement =
+                     state.connection.prepareStatement(DatabaseState.QUERY_BY_ID_SQL)) {
+            statement.setLong(1, firstId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                        ? DatabaseState.map(resultSet)
+                        : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-row updates through {@code DeleteUpdateHandler.handleMultiple}
+ * with a raw JDBC baseline. Rows are updated in place, so the table
+ * stays the same size across iterations.
+ *
+ * @author RollW
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateBenchmark {
+    @Param({"100", "1000"})
+    public int rows;
+
+    private List<BenchUser> users;
+
+    @Setup(Level.Trial)
+    public void setup(DatabaseState state) throws SQLException {
+        users = state.seed(rows);
+    }
+
+    @Benchmark
+    public int lightUpdate(DatabaseState state) {
+        return state.dao.update(users);
+    }
+
+    @Benchmark
+    public int[] jdbcUpdate(DatabaseState state) throws SQLException {
+        Connection connection = state.connection;
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement =
+                     connection.prepareStatement(DatabaseState.UPDATE_SQL)) {
+            for (BenchUser user : users) {
+                DatabaseState.bind(statement, user);
+                statement.setLong(6, user.getId());
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            connection.commit();
+            return counts;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
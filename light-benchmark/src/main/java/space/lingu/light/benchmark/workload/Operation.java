@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark.workload;
+
+/**
+ * Operations of the workload.
+ *
+ * @author RollW
+ */
+public enum Operation {
+    /**
+     * Read one record by id.
+     */
+    READ,
+    /**
+     * Update one record by id.
+     */
+    UPDATE,
+    /**
+     * Insert a new record.
+     */
+    INSERT,
+    /**
+     * Read a range of records by id.
+     */
+    SCAN
+}
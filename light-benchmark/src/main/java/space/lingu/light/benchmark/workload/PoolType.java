@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark.workload;
+
+import space.lingu.light.connect.ConnectionPool;
+import space.lingu.light.connect.HikariConnectionPool;
+import space.lingu.light.connect.LightConnectionPool;
+import space.lingu.light.connect.PoolOptions;
+import space.lingu.light.connect.simple.DisposableConnectionPool;
+
+/**
+ * Connection pools compared by the workload.
+ *
+ * @author RollW
+ */
+public enum PoolType {
+    /**
+     * Opens a new connection for every checkout.
+     */
+    DISPOSABLE {
+        @Override
+        public ConnectionPool create(int maxPoolSize) {
+            return new DisposableConnectionPool();
+        }
+    },
+    LIGHT {
+        @Override
+        public ConnectionPool create(int maxPoolSize) {
+            return new LightConnectionPool(PoolOptions.builder()
+                    .setMaxPoolSize(maxPoolSize)
+                    .build());
+        }
+    },
+    HIKARI {
+        @Override
+        public ConnectionPool create(int maxPoolSize) {
+            return new HikariConnectionPool(config ->
+                    config.setMaximumPoolSize(maxPoolSize));
+        }
+    };
+
+    /**
+     * Create a pool holding at most {@code maxPoolSize} connections,
+     * ignored by pools without a limit.
+     */
+    public abstract ConnectionPool create(int maxPoolSize);
+}
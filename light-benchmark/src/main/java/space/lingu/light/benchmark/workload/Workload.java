@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark.workload;
+
+import space.lingu.light.DatasourceConfig;
+import space.lingu.light.Light;
+import space.lingu.light.benchmark.BenchDatabase;
+import space.lingu.light.benchmark.BenchUser;
+import space.lingu.light.benchmark.BenchUserDao;
+import space.lingu.light.benchmark.UserStatus;
+import space.lingu.light.connect.ConnectionPool;
+import space.lingu.light.log.LightEmptyLogger;
+import space.lingu.light.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the operation mix of {@link WorkloadOptions} on a new
+ * database with the given pool and number of threads.
+ *
+ * @author RollW
+ */
+final class Workload {
+    private static final int LOAD_CHUNK = 1000;
+    private static final LocalDateTime CREATE_TIME =
+            LocalDateTime.of(2022, 10, 1, 8, 30);
+
+    private final WorkloadOptions options;
+    private final PoolType poolType;
+    private final int threads;
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private BenchUserDao dao;
+    private long[] ids;
+
+    Workload(WorkloadOptions options, PoolType poolType, int threads) {
+        this.options = options;
+        this.poolType = poolType;
+        this.threads = threads;
+
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : options.getMix().entrySet()) {
+            if (entry.getValue() <= 0) {
+                continue;
+            }
+            total += entry.getValue();
+            weighted.add(entry.getKey());
+            weights.add(total);
+        }
+        this.operations = weighted.toArray(new Operation[0]);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+        this.totalWeight = total;
+    }
+
+    WorkloadResult run() throws InterruptedException, IOException {
+        ConnectionPool pool = poolType.create(options.getPoolSize());
+        try {
+            DatasourceConfig config = new DatasourceConfig(
+                    options.getBackend().createUrl(),
+                    options.getBackend().getJdbcName(),
+                    null, null);
+            BenchDatabase database = Light.databaseBuilder(BenchDatabase.class,
+                            options.getBackend().getDialectProvider())
+                    .datasource(config)
+                    .setConnectionPool(pool)
+                    .setLogger(LightEmptyLogger.getInstance())
+                    .build();
+            dao = database.getBenchUserDao();
+            load();
+            if (options.getWarmupSeconds() > 0) {
+                runFor(options.getWarmupSeconds());
+            }
+            return runFor(options.getDurationSeconds());
+        } finally {
+            pool.close();
+        }
+    }
+
+    private void load() {
+        ids = new long[options.getRecords()];
+        int loaded = 0;
+        while (loaded < ids.length) {
+            int size = Math.min(LOAD_CHUNK, ids.length - loaded);
+            List<BenchUser> users = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                users.add(newUser(null, loaded + i));
+            }
+            long[] chunkIds = dao.insertAndReturnIds(users);
+            System.arraycopy(chunkIds, 0, ids, loaded, size);
+            loaded += size;
+        }
+    }
+
+    private WorkloadResult runFor(int seconds) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        final long[] deadline = new long[1];
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    work(deadline[0], stats);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "light-workload-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        deadline[0] = begin + TimeUnit.SECONDS.toNanos(seconds);
+        // the latch publishes the deadline to the workers
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        return new WorkloadResult(poolType, threads, elapsed, stats);
+    }
+
+    private void work(long deadline, Map<Operation, OperationStats> stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = nextOperation(random);
+            OperationStats operationStats = stats.get(operation);
+            long start = System.nanoTime();
+            try {
+                execute(operation, random);
+                operationStats.latency.record(System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                operationStats.failures.increment();
+            }
+        }
+    }
+
+    private void execute(Operation operation, ThreadLocalRandom random) {
+        switch (operation) {
+            case READ:
+                dao.get(nextId(random));
+                return;
+            case UPDATE:
+                dao.update(newUser(nextId(random), random.nextInt()));
+                return;
+            case INSERT:
+                dao.insert(newUser(null, random.nextInt()));
+                return;
+            case SCAN:
+                long start = nextId(random);
+                dao.scan(start, start + options.getScanLength());
+                return;
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    private Operation nextOperation(ThreadLocalRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private long nextId(ThreadLocalRandom random) {
+        if (options.isHotspot() && random.nextInt(10) < 8) {
+            return ids[random.nextInt(Math.max(1, ids.length / 5))];
+        }
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static BenchUser newUser(Long id, int seed) {
+        UserStatus[] statuses = UserStatus.values();
+        int positive = seed & Integer.MAX_VALUE;
+        return new BenchUser(id, "user" + positive, 20 + positive % 50,
+                statuses[positive % statuses.length],
+                CREATE_TIME.plusMinutes(positive % 100000));
+    }
+
+    static final class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark.workload;
+
+import space.lingu.light.benchmark.Backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Options of the workload, parsed from arguments in form of
+ * {@code --name=value}:
+ * <ul>
+ *     <li>{@code backend}: one of {@link Backend}, defaults to {@code H2_FILE}.</li>
+ *     <li>{@code pools}: comma separated {@link PoolType}s, defaults to all.</li>
+ *     <li>{@code threads}: comma separated thread counts, defaults to {@code 1,2,4,8}.</li>
+ *     <li>{@code poolSize}: max connections of the pools, defaults to the max thread count.</li>
+ *     <li>{@code records}: records loaded before running, defaults to {@code 10000}.</li>
+ *     <li>{@code warmup}: seconds of warmup, defaults to {@code 5}.</li>
+ *     <li>{@code duration}: seconds of measurement, defaults to {@code 10}.</li>
+ *     <li>{@code mix}: weights of {@link Operation}s, defaults to
+ *     {@code read:50,update:40,insert:5,scan:5}.</li>
+ *     <li>{@code scanLength}: records of each scan, defaults to {@code 20}.</li>
+ *     <li>{@code distribution}: {@code uniform}, or {@code hotspot} sending 80%
+ *     of reads, updates and scans to 20% of the records. Defaults to {@code uniform}.</li>
+ * </ul>
+ *
+ * @author RollW
+ */
+public final class WorkloadOptions {
+    private Backend backend = Backend.H2_FILE;
+    private List<PoolType> pools = Arrays.asList(PoolType.values());
+    private int[] threads = {1, 2, 4, 8};
+    private int poolSize = -1;
+    private int records = 10000;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 10;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    private int scanLength = 20;
+    private boolean hotspot = false;
+
+    private WorkloadOptions() {
+        mix.put(Operation.READ, 50);
+        mix.put(Operation.UPDATE, 40);
+        mix.put(Operation.INSERT, 5);
+        mix.put(Operation.SCAN, 5);
+    }
+
+    public static WorkloadOptions parse(String[] args) {
+        WorkloadOptions options = new WorkloadOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Illegal argument: " + arg +
+                        ", expected --name=value.");
+            }
+            int split = arg.indexOf('=');
+            options.set(arg.substring(2, split), arg.substring(split + 1));
+        }
+        options.check();
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "backend":
+                backend = Backend.valueOf(value.toUpperCase(Locale.ROOT));
+                return;
+            case "pools":
+                List<PoolType> poolTypes = new ArrayList<>();
+                for (String pool : value.split(",")) {
+                    poolTypes.add(PoolType.valueOf(pool.trim().toUpperCase(Locale.ROOT)));
+                }
+                pools = poolTypes;
+                return;
+            case "threads":
+                threads = Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+                return;
+            case "poolSize":
+                poolSize = Integer.parseInt(value);
+                return;
+            case "records":
+                records = Integer.parseInt(value);
+                return;
+            case "warmup":
+                warmupSeconds = Integer.parseInt(value);
+                return;
+            case "duration":
+                durationSeconds = Integer.parseInt(value);
+                return;
+            case "mix":
+                mix.clear();
+                for (String weight : value.split(",")) {
+                    String[] pair = weight.split(":");
+                    if (pair.length != 2) {
+                        throw new IllegalArgumentException("Illegal mix: " + weight +
+                                ", expected operation:weight.");
+                    }
+                    mix.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)),
+                            Integer.parseInt(pair[1].trim()));
+                }
+                return;
+            case "scanLength":
+                scanLength = Integer.parseInt(value);
+                return;
+            case "distribution":
+                if (!value.equals("uniform") && !value.equals("hotspot")) {
+                    throw new IllegalArgumentException("Unknown distribution: " + value);
+                }
+                hotspot = value.equals("hotspot");
+                return;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+
+    private void check() {
+        if (threads.length == 0 || Arrays.stream(threads).anyMatch(t -> t <= 0)) {
+            throw new IllegalArgumentException("Thread counts must be positive.");
+        }
+        if (records <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || scanLength <= 0) {
+            throw new IllegalArgumentException("Records, duration and scan length must be positive.");
+        }
+        if (mix.values().stream().anyMatch(w -> w < 0) ||
+                mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Weights of mix must not be negative, " +
+                    "and at least one must be positive.");
+        }
+        if (poolSize <= 0) {
+            poolSize = Arrays.stream(threads).max().getAsInt();
+        }
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public List<PoolType> getPools() {
+        return Collections.unmodifiableList(pools);
+    }
+
+    public int[] getThreads() {
+        return threads.clone();
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getRecords() {
+        return records;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return Collections.unmodifiableMap(mix);
+    }
+
+    public int getScanLength() {
+        return scanLength;
+    }
+
+    public boolean isHotspot() {
+        return hotspot;
+    }
+
+    @Override
+    public String toString() {
+        return "backend=" + backend +
+                ", pools=" + pools +
+                ", threads=" + Arrays.toString(threads) +
+                ", poolSize=" + poolSize +
+                ", records=" + records +
+                ", warmup=" + warmupSeconds + "s" +
+                ", duration=" + durationSeconds + "s" +
+                ", mix=" + mix +
+                ", scanLength=" + scanLength +
+                ", distribution=" + (hotspot ? "hotspot" : "uniform");
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark.workload;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latencies of a workload run.
+ *
+ * @author RollW
+ */
+final class WorkloadResult {
+    private final PoolType poolType;
+    private final int threads;
+    private final long elapsedNanos;
+    private final Map<Operation, Workload.OperationStats> stats;
+
+    WorkloadResult(PoolType poolType, int threads, long elapsedNanos,
+                   Map<Operation, Workload.OperationStats> stats) {
+        this.poolType = poolType;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.stats = stats;
+    }
+
+    static String header() {
+        return String.format("%-10s %7s %-7s %10s %12s %9s %9s %9s %9s %9s %9s",
+                "pool", "threads", "op", "count", "ops/s", "mean(us)",
+                "p50(us)", "p95(us)", "p99(us)", "max(us)", "failures");
+    }
+
+    /**
+     * One line of each operation, and a total line.
+     */
+    String format() {
+        StringBuilder builder = new StringBuilder();
+        long total = 0;
+        long failures = 0;
+        for (Map.Entry<Operation, Workload.OperationStats> entry : stats.entrySet()) {
+            Workload.OperationStats operationStats = entry.getValue();
+            long count = operationStats.latency.getCount();
+            total += count;
+            failures += operationStats.failures.sum();
+            builder.append(String.format("%-10s %7d %-7s %10d %12.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9d%n",
+                    poolType, threads, entry.getKey(), count, throughput(count),
+                    micros((long) operationStats.latency.getMean()),
+                    micros(operationStats.latency.getValueAtPercentile(50)),
+                    micros(operationStats.latency.getValueAtPercentile(95)),
+                    micros(operationStats.latency.getValueAtPercentile(99)),
+                    micros(operationStats.latency.getMax()),
+                    operationStats.failures.sum()));
+        }
+        builder.append(String.format("%-10s %7d %-7s %10d %12.1f %59d",
+                poolType, threads, "TOTAL", total, throughput(total), failures));
+        return builder.toString();
+    }
+
+    private double throughput(long count) {
+        return count / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.benchmark.workload;
+
+/**
+ * Entry of the concurrent workload. Runs the operation mix for every
+ * pool and thread count given, each on a new database, and prints
+ * throughput and latency percentiles of each operation.
+ * <p>
+ * For example, to compare the pools on SQLite with a read-heavy mix:
+ * <pre>{@code
+ * java -cp benchmarks.jar space.lingu.light.benchmark.workload.WorkloadRunner \
+ *     --backend=SQLITE --threads=1,4,16 --mix=read:95,update:5
+ * }</pre>
+ *
+ * @author RollW
+ * @see WorkloadOptions
+ */
+public final class WorkloadRunner {
+    public static void main(String[] args) throws Exception {
+        WorkloadOptions options = WorkloadOptions.parse(args);
+        System.out.println("Workload: " + options);
+        System.out.println(WorkloadResult.header());
+        for (PoolType poolType : options.getPools()) {
+            for (int threads : options.getThreads()) {
+                WorkloadResult result = new Workload(options, poolType, threads).run();
+                System.out.println(result.format());
+            }
+        }
+    }
+
+    private WorkloadRunner() {
+    }
+}
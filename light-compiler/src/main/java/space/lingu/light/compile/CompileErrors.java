@@ -113,6 +113,10 @@ public final class CompileErrors {
         return String.format(FIELD_CANNOT_FOUND, field, "primary key");
     }
 
+    public static String cannotFoundShardKeyField(String field) {
+        return String.format(FIELD_CANNOT_FOUND, field, "shard key");
+    }
+
     private static final String TABLE_COLUMN_NAME_DUPLICATED = "Column name '%s' are duplicated.";
 
     public static String duplicatedTableColumnName(String columnName) {
@@ -217,6 +221,20 @@ public final class CompileErrors {
             "Delete method return type invalid, " +
                     "please check the return type and parameter.";
 
+    private static final String PARTIAL_UPDATE_NOT_TRACKED =
+            "Partial update requires the entity %s to implement ChangeTracking.";
+
+    public static String partialUpdateNotTracked(String typeName) {
+        return String.format(PARTIAL_UPDATE_NOT_TRACKED, typeName);
+    }
+
+    private static final String PARTIAL_UPDATE_TOO_MANY_COLUMNS =
+            "Partial update supports at most 64 columns, but the entity %s has %d.";
+
+    public static String partialUpdateTooManyColumns(String typeName, int columns) {
+        return String.format(PARTIAL_UPDATE_TOO_MANY_COLUMNS, typeName, columns);
+    }
+
 
     public static final String QUERY_SQL_EMPTY = "Query method value cannot be empty, must be a sql expression.";
 
@@ -228,6 +246,32 @@ public final class CompileErrors {
                     "If you want to return an entity consisting of some columns, " +
                     "follow the instructions.";
 
+    public static final String SLICE_PAGE_REQUEST_REQUIRED =
+            "A query method returning Slice must have exactly one PageRequest parameter.";
+
+    public static final String PAGE_REQUEST_WITHOUT_SLICE =
+            "A PageRequest parameter is only allowed in a query method returning Slice.";
+
+    public static final String KEYSET_COLUMNS_NOT_FOUND =
+            "Cannot find the sort columns of the Slice, annotate the method with " +
+                    "@Keyset or return a data table with a primary key.";
+
+    private static final String KEYSET_COLUMN_NULLABLE =
+            "Sort column '%s' of the keyset is nullable, a NULL sort key cannot be " +
+                    "sought past. Declare it with @DataColumn(nullable = false).";
+
+    public static String keysetColumnNullable(String column) {
+        return String.format(KEYSET_COLUMN_NULLABLE, column);
+    }
+
+    private static final String KEYSET_COLUMN_NOT_SELECTED =
+            "Sort column '%s' of the keyset is not in the select list, " +
+                    "it is read from the last row of each page.";
+
+    public static String keysetColumnNotSelected(String column) {
+        return String.format(KEYSET_COLUMN_NOT_SELECTED, column);
+    }
+
     public static final String PARAM_NON_COMPLIANCE =
             "Query/Insert method parameters cannot start with underscore (_).";
 
@@ -241,6 +285,10 @@ public final class CompileErrors {
     public static final String TRANSACTION_METHOD_ABSTRACT =
             "The transaction method cannot be abstract.";
 
+    public static final String FUTURE_RAW_TYPE =
+            "CompletableFuture return type must declare its value type, " +
+                    "use CompletableFuture<Void> for no result.";
+
     public static final String DATA_CONVERTER_TOO_MUCH_PARAMS =
             "A DataConverter method can only have one parameter.";
 
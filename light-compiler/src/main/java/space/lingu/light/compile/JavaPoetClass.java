@@ -18,12 +18,21 @@ package space.lingu.light.compile;
 
 import com.squareup.javapoet.ClassName;
 import space.lingu.light.Configurations;
+import space.lingu.light.Cursor;
 import space.lingu.light.Light;
 import space.lingu.light.LightDatabase;
 import space.lingu.light.ManagedConnection;
 import space.lingu.light.OnConflictStrategy;
+import space.lingu.light.Order;
+import space.lingu.light.QueryOptions;
+import space.lingu.light.RouteTarget;
+import space.lingu.light.Slice;
 import space.lingu.light.handler.DeleteUpdateHandler;
 import space.lingu.light.handler.InsertHandler;
+import space.lingu.light.handler.KeysetSQLHandler;
+import space.lingu.light.handler.MultiRowInsertHandler;
+import space.lingu.light.handler.PartialUpdateHandler;
+import space.lingu.light.handler.ResultSetPublisher;
 import space.lingu.light.handler.SQLHandler;
 import space.lingu.light.struct.StructUtil;
 import space.lingu.light.util.DateTimeUtils;
@@ -45,10 +54,29 @@ public final class JavaPoetClass {
     public static final ClassName MANAGED_CONNECTION = ClassName.get(ManagedConnection.class);
 
     public static final ClassName INSERT_HANDLER = ClassName.get(InsertHandler.class);
+    public static final ClassName MULTI_ROW_INSERT_HANDLER = ClassName.get(MultiRowInsertHandler.class);
     public static final ClassName DELETE_UPDATE_HANDLER = ClassName.get(DeleteUpdateHandler.class);
+    public static final ClassName PARTIAL_UPDATE_HANDLER = ClassName.get(PartialUpdateHandler.class);
     public static final ClassName SQL_HANDLER = ClassName.get(SQLHandler.class);
+    public static final ClassName KEYSET_SQL_HANDLER = ClassName.get(KeysetSQLHandler.class);
+    public static final ClassName SLICE = ClassName.get(Slice.class);
+    public static final ClassName CURSOR = ClassName.get(Cursor.class);
+    public static final ClassName RESULT_SET_PUBLISHER = ClassName.get(ResultSetPublisher.class);
+    public static final ClassName RESULT_SET_SUBSCRIPTION =
+            ClassName.get(ResultSetPublisher.Subscription.class);
+    /**
+     * {@code java.util.concurrent.Flow} is not available in Java 8,
+     * refers to it by name.
+     */
+    public static final ClassName FLOW_PUBLISHER =
+            ClassName.get("java.util.concurrent", "Flow", "Publisher");
+    public static final ClassName FLOW_SUBSCRIPTION =
+            ClassName.get("java.util.concurrent", "Flow", "Subscription");
+    public static final ClassName QUERY_OPTIONS = ClassName.get(QueryOptions.class);
 
     public static final ClassName ON_CONFLICT_STRATEGY = ClassName.get(OnConflictStrategy.class);
+    public static final ClassName ROUTE_TARGET = ClassName.get(RouteTarget.class);
+    public static final ClassName ORDER = ClassName.get(Order.class);
 
     public static final ClassName CONFIGURATIONS = ClassName.get(Configurations.class);
     public static final ClassName CONFIGURATION = ClassName.get(Configurations.Configuration.class);
@@ -47,6 +47,54 @@ public final class MethodNames {
      */
     public static final String sRegisterAllTables = "registerAllTables";
 
+    /**
+     * {@link LightDatabase#registerStatement(String, String, String)}
+     */
+    public static final String sRegisterStatement = "registerStatement";
+
+    /**
+     * {@link LightDatabase#registerAllStatements()}
+     */
+    public static final String sRegisterAllStatements = "registerAllStatements";
+
+    /**
+     * {@link LightDatabase#supplyAsync(java.util.function.Supplier)}
+     */
+    public static final String sSupplyAsync = "supplyAsync";
+
+    /**
+     * {@link LightDatabase#runAsync(Runnable)}
+     */
+    public static final String sRunAsync = "runAsync";
+
+    /**
+     * {@link space.lingu.light.handler.Handler#getQuery()}
+     */
+    public static final String sGetQuery = "getQuery";
+
+    /**
+     * {@link SQLHandler#getStatementSql()}
+     */
+    public static final String sGetStatementSql = "getStatementSql";
+
+    /**
+     * {@link space.lingu.light.handler.KeysetSQLHandler#getSeekStatementSql()}
+     */
+    public static final String sGetSeekStatementSql = "getSeekStatementSql";
+
+    /**
+     * <ul>
+     *     <li>{@link space.lingu.light.handler.Handler#setTag(String)}</li>
+     *     <li>{@link SQLHandler#setTag(String)}</li>
+     * </ul>
+     */
+    public static final String sSetTag = "setTag";
+
+    /**
+     * {@link SQLHandler#setRouteTarget(space.lingu.light.RouteTarget)}
+     */
+    public static final String sSetRouteTarget = "setRouteTarget";
+
     /**
      * <ul>
      *     <li>{@link ResultSetUtils#getColumnIndex(ResultSet, String)}</li>
@@ -56,6 +104,11 @@ public final class MethodNames {
      */
     public static final String sGetColumnIndex = "getColumnIndex";
 
+    /**
+     * {@link SQLHandler#getColumnIndexes(ResultSet, String...)}
+     */
+    public static final String sGetColumnIndexes = "getColumnIndexes";
+
     /**
      * {@link ResultSetUtils#getColumnIndexSwallow(ResultSet, String, SQLEscaper)}
      * <p>
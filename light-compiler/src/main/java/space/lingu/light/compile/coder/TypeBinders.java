@@ -22,14 +22,18 @@ import space.lingu.light.compile.LightCompileException;
 import space.lingu.light.compile.coder.custom.binder.ArrayQueryParameterBinder;
 import space.lingu.light.compile.coder.custom.binder.BasicQueryParameterBinder;
 import space.lingu.light.compile.coder.custom.binder.CollectionQueryParameterBinder;
+import space.lingu.light.compile.coder.custom.binder.CursorQueryResultBinder;
 import space.lingu.light.compile.coder.custom.binder.InstantQueryResultBinder;
 import space.lingu.light.compile.coder.custom.binder.QueryParameterBinder;
 import space.lingu.light.compile.coder.custom.binder.QueryResultBinder;
 import space.lingu.light.compile.coder.custom.result.ArrayQueryResultConverter;
+import space.lingu.light.compile.coder.custom.result.CursorQueryResultConverter;
 import space.lingu.light.compile.coder.custom.result.ListQueryResultConverter;
+import space.lingu.light.compile.coder.custom.result.PrimitiveListQueryResultConverter;
 import space.lingu.light.compile.coder.custom.result.QueryResultConverter;
 import space.lingu.light.compile.coder.custom.result.RawQueryResultConverter;
 import space.lingu.light.compile.coder.custom.result.SingleEntityQueryResultConverter;
+import space.lingu.light.compile.coder.custom.result.SliceQueryResultConverter;
 import space.lingu.light.compile.coder.custom.row.PojoRowConverter;
 import space.lingu.light.compile.coder.custom.row.RowConverter;
 import space.lingu.light.compile.coder.custom.row.SingleColumnRowConverter;
@@ -316,6 +320,10 @@ public class TypeBinders {
 
 
     public QueryResultBinder findQueryResultBinder(TypeCompileType typeCompileType) {
+        QueryResultConverter cursorConverter = tryFindCursorResultConverter(typeCompileType);
+        if (cursorConverter != null) {
+            return new CursorQueryResultBinder(cursorConverter);
+        }
         QueryResultConverter resultConverter = findQueryResultConverter(typeCompileType);
         if (resultConverter == null) {
             return null;
@@ -338,6 +346,18 @@ public class TypeBinders {
             return new ArrayQueryResultConverter(arrayConverter);
         }
 
+        QueryResultConverter primitiveListConverter =
+                tryFindPrimitiveListResultConverter(typeCompileType);
+        if (primitiveListConverter != null) {
+            return primitiveListConverter;
+        }
+
+        QueryResultConverter sliceConverter =
+                tryFindSliceResultConverter(typeCompileType);
+        if (sliceConverter != null) {
+            return sliceConverter;
+        }
+
         boolean isIterable = TypeUtils.isIterable(env, typeMirror);
         if (isIterable) {
             RowConverter converter = tryFindRowConverterIterator(typeCompileType);
@@ -378,13 +398,102 @@ public class TypeBinders {
         return findRowConverter(arrayElementType, preprocess);
     }
 
+    private QueryResultConverter tryFindCursorResultConverter(TypeCompileType typeCompileType) {
+        TypeElement element = typeCompileType.getElement();
+        if (element == null) {
+            return null;
+        }
+        TypeKind primitiveKind = ReturnTypes.getPrimitiveStreamKind(element);
+        if (primitiveKind != null) {
+            RowConverter converter = findPrimitiveRowConverter(primitiveKind);
+            if (converter == null) {
+                return null;
+            }
+            return new CursorQueryResultConverter(converter,
+                    primitiveStreamType(primitiveKind));
+        }
+        if (!ReturnTypes.isLegalStreamingReturnType(element)) {
+            return null;
+        }
+        CursorQueryResultConverter.Type type;
+        if (ReturnTypes.isStream(element)) {
+            type = CursorQueryResultConverter.Type.STREAM;
+        } else if (ReturnTypes.isIterator(element)) {
+            type = CursorQueryResultConverter.Type.ITERATOR;
+        } else if (ReturnTypes.isFlowPublisher(element)) {
+            type = CursorQueryResultConverter.Type.PUBLISHER;
+        } else {
+            type = CursorQueryResultConverter.Type.CURSOR;
+        }
+        RowConverter converter = findGenericRowConverter(typeCompileType);
+        if (converter == null) {
+            return null;
+        }
+        return new CursorQueryResultConverter(converter, type);
+    }
+
+    private static CursorQueryResultConverter.Type primitiveStreamType(TypeKind kind) {
+        switch (kind) {
+            case LONG:
+                return CursorQueryResultConverter.Type.LONG_STREAM;
+            case INT:
+                return CursorQueryResultConverter.Type.INT_STREAM;
+            case DOUBLE:
+            default:
+                return CursorQueryResultConverter.Type.DOUBLE_STREAM;
+        }
+    }
+
+    private QueryResultConverter tryFindPrimitiveListResultConverter(
+            TypeCompileType typeCompileType) {
+        TypeElement element = typeCompileType.getElement();
+        if (element == null) {
+            return null;
+        }
+        TypeKind primitiveKind = ReturnTypes.getPrimitiveListKind(element);
+        if (primitiveKind == null) {
+            return null;
+        }
+        RowConverter converter = findPrimitiveRowConverter(primitiveKind);
+        if (converter == null) {
+            return null;
+        }
+        return new PrimitiveListQueryResultConverter(typeCompileType, converter);
+    }
+
+    private QueryResultConverter tryFindSliceResultConverter(
+            TypeCompileType typeCompileType) {
+        TypeElement element = typeCompileType.getElement();
+        if (element == null || !ReturnTypes.isSlice(element)) {
+            return null;
+        }
+        RowConverter converter = findGenericRowConverter(typeCompileType);
+        if (converter == null) {
+            return null;
+        }
+        return new SliceQueryResultConverter(converter.getOutType(), converter);
+    }
+
+    private RowConverter findPrimitiveRowConverter(TypeKind kind) {
+        TypeCompileType elementType = env.getTypeCompileType(kind);
+        SQLDataType sqlDataType = SQLDataTypeUtils.recognizeSQLDataType(
+                null,
+                elementType
+        );
+        return findRowConverter(elementType, sqlDataType);
+    }
+
     private RowConverter tryFindRowConverterIterator(TypeCompileType typeCompileType) {
         TypeElement element = typeCompileType.getElement();
-        TypeMirror typeMirror = typeCompileType.getTypeMirror();
 
         if (!ReturnTypes.isLegalCollectionReturnType(element)) {
             throw new LightCompileException(CompileErrors.QUERY_UNKNOWN_RETURN_TYPE);
         }
+        return findGenericRowConverter(typeCompileType);
+    }
+
+    private RowConverter findGenericRowConverter(TypeCompileType typeCompileType) {
+        TypeMirror typeMirror = typeCompileType.getTypeMirror();
         List<? extends TypeMirror> genericTypes = TypeUtils.getGenericTypes(typeMirror);
         if (genericTypes == null || genericTypes.isEmpty()) {
             throw new LightCompileException(CompileErrors.NOT_BOUND_GENERIC_TYPES);
@@ -17,10 +17,15 @@
 package space.lingu.light.compile.coder.annotated.binder;
 
 import com.squareup.javapoet.ClassName;
+import space.lingu.light.compile.JavaPoetClass;
 import space.lingu.light.compile.coder.GenerateCodeBlock;
 import space.lingu.light.compile.coder.annotated.translator.TransactionMethodTranslator;
+import space.lingu.light.compile.javac.ElementUtils;
 import space.lingu.light.compile.javac.TypeUtils;
+import space.lingu.light.compile.processor.ReturnTypes;
+import space.lingu.light.compile.writer.DaoWriter;
 
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import java.util.List;
 
@@ -43,12 +48,48 @@ public class DirectTransactionMethodBinder extends TransactionMethodBinder {
             resultVar = null;
         }
 
-        block.builder().beginControlFlow("try");
+        final String connVar = block.getTempVar("_conn");
+        final String successVar = block.getTempVar("_success");
+        final String errorVar = block.getTempVar("_error");
+        final String caughtVar = block.getTempVar("_e");
+        final String endErrorVar = block.getTempVar("_endError");
+        block.builder()
+                .addStatement("final $T $L = $N.beginTransactionScope()",
+                        JavaPoetClass.MANAGED_CONNECTION, connVar,
+                        DaoWriter.DATABASE_FIELD)
+                .addStatement("boolean $L = false", successVar)
+                .addStatement("$T $L = null", Throwable.class, errorVar)
+                .beginControlFlow("try");
         translator.createMethodBody(returnType, params, dao, daoImpl, resultVar, block);
+        if (returnsValue && isFuture(returnType)) {
+            // ends the scope when the future completes, rolls back if it fails
+            block.builder().addStatement("$N.join()", resultVar);
+        }
+        block.builder().addStatement("$L = true", successVar);
         if (returnsValue) {
             block.builder().addStatement("return $N", resultVar);
         }
-        block.builder().nextControlFlow("finally")
+        // keeps the exception of the method, failures ending
+        // the scope are added to it as suppressed
+        block.builder()
+                .nextControlFlow("catch ($T $L)", Throwable.class, caughtVar)
+                .addStatement("$L = $L", errorVar, caughtVar)
+                .addStatement("throw $L", caughtVar)
+                .nextControlFlow("finally")
+                .beginControlFlow("try")
+                .addStatement("$N.endTransactionScope($L, $L)",
+                        DaoWriter.DATABASE_FIELD, connVar, successVar)
+                .nextControlFlow("catch ($T $L)", RuntimeException.class, endErrorVar)
+                .beginControlFlow("if ($L == null)", errorVar)
+                .addStatement("throw $L", endErrorVar)
+                .endControlFlow()
+                .addStatement("$L.addSuppressed($L)", errorVar, endErrorVar)
+                .endControlFlow()
                 .endControlFlow();
     }
+
+    private static boolean isFuture(TypeMirror returnType) {
+        TypeElement element = ElementUtils.asTypeElement(returnType);
+        return element != null && ReturnTypes.isCompletableFuture(element);
+    }
 }
@@ -45,7 +45,17 @@ public class InsertMethodTranslator {
     public static InsertMethodTranslator create(ExecutableElement methodElement,
                                                 ProcessEnv env,
                                                 List<Parameter> params) {
-        TypeMirror returnType = methodElement.getReturnType();
+        return create(methodElement, methodElement.getReturnType(), env, params);
+    }
+
+    /**
+     * @param returnType the return type of the method body, differs from
+     *                   the method's if it returns {@code CompletableFuture}.
+     */
+    public static InsertMethodTranslator create(ExecutableElement methodElement,
+                                                TypeMirror returnType,
+                                                ProcessEnv env,
+                                                List<Parameter> params) {
         InsertType insertType = getInsertType(
                 env,
                 (TypeElement) env.getTypeUtils().asElement(returnType),
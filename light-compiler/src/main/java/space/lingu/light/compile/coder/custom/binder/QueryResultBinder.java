@@ -22,6 +22,7 @@ import space.lingu.light.compile.coder.custom.QueryContext;
 import space.lingu.light.compile.coder.custom.result.QueryResultConverter;
 
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * @author RollW
@@ -33,6 +34,21 @@ public abstract class QueryResultBinder {
         this.converter = converter;
     }
 
+    public QueryResultConverter getConverter() {
+        return converter;
+    }
+
+
+    /**
+     * Set labels of the result columns if known at compile time.
+     *
+     * @param resultColumns labels, or {@code null} if unknown.
+     */
+    public void setResultColumns(List<String> resultColumns) {
+        if (converter != null) {
+            converter.setResultColumns(resultColumns);
+        }
+    }
 
     public abstract void writeBlock(String handlerName,
                                     String connVarName,
@@ -38,4 +38,10 @@ public abstract class AbstractQueryResultConverter implements QueryResultConvert
     }
 
     public abstract void convert(QueryContext queryContext, GenerateCodeBlock block);
+
+    @Override
+    public void setResultColumns(List<String> resultColumns) {
+        rowConverters.forEach(converter ->
+                converter.setResultColumns(resultColumns));
+    }
 }
@@ -27,6 +27,7 @@ import space.lingu.light.compile.javac.TypeUtils;
 
 import javax.lang.model.type.TypeMirror;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * @author RollW
@@ -48,6 +49,11 @@ public class ArrayQueryResultConverter extends AbstractQueryResultConverter {
         converter.onResultSetReady(queryContext, block);
 
         TypeName containerType = TypeName.get(type);
+        if (containerType.isPrimitive()) {
+            convertPrimitive(queryContext, containerType, block);
+            converter.onResultSetFinish(block);
+            return;
+        }
 
         TypeName arrayType = ArrayTypeName.of(containerType);
         final String tempContainerName = block.getTempVar("_arrayType");
@@ -85,35 +91,42 @@ public class ArrayQueryResultConverter extends AbstractQueryResultConverter {
         block.builder()
                 .addStatement("$L.add($L)", tempArrayListName, tempVar)
                 .endControlFlow();
-        if (containerType.isPrimitive()) {
-            // needs to convert if primitive
-            joinsArray(queryContext.getOutVarName(), tempArrayListName,
-                    arrayType, containerType, block
-            );
-        } else {
-            block.builder().addStatement("final $T $L = $L.toArray($L)",
-                    arrayType, queryContext.getOutVarName(), tempArrayListName, tempContainerName);
-        }
+        block.builder().addStatement("final $T $L = $L.toArray($L)",
+                arrayType, queryContext.getOutVarName(), tempArrayListName, tempContainerName);
         converter.onResultSetFinish(block);
     }
 
-    private void joinsArray(String outVarName,
-                            String arrayListName,
-                            TypeName arrayType,
-                            TypeName arrayContainerType,
-                            GenerateCodeBlock block) {
-        String listSizeVarName = block.getTempVar("_listSize");
-        String tempIndexVarName = block.getTempVar("_index");
+    /**
+     * Reads into a growable primitive buffer and trims it at the end,
+     * so no element is boxed.
+     */
+    private void convertPrimitive(QueryContext queryContext,
+                                  TypeName containerType,
+                                  GenerateCodeBlock block) {
+        final TypeName arrayType = ArrayTypeName.of(containerType);
+        final String bufferVar = block.getTempVar("_buffer");
+        final String sizeVar = block.getTempVar("_size");
+        final String itemVar = block.getTempVar("_item");
         block.builder()
-                .addStatement("final int $L = $L.size()",
-                        listSizeVarName, arrayListName)
-                .addStatement("final $T $L = new $T[$L]",
-                        arrayType, outVarName, arrayContainerType, listSizeVarName)
-                .beginControlFlow("for (int $L = 0; $L < $L; $L++)",
-                        tempIndexVarName, tempIndexVarName, listSizeVarName, tempIndexVarName)
-                .addStatement("$L[$L] = $L.get($L)",
-                        outVarName, tempIndexVarName, arrayListName, tempIndexVarName)
-                .endControlFlow();
+                .addStatement("$T $L = new $T[$L]",
+                        arrayType, bufferVar, containerType, INITIAL_CAPACITY)
+                .addStatement("int $L = 0", sizeVar)
+                .beginControlFlow("while ($L.next())", queryContext.getResultSetVarName())
+                .addStatement("final $T $L", containerType, itemVar);
+        QueryContext scopedContext = queryContext.fork(itemVar);
+        converter.convert(scopedContext, block);
+        block.builder()
+                .beginControlFlow("if ($L == $L.length)", sizeVar, bufferVar)
+                .addStatement("$L = $T.copyOf($L, $L << 1)",
+                        bufferVar, Arrays.class, bufferVar, sizeVar)
+                .endControlFlow()
+                .addStatement("$L[$L++] = $L", bufferVar, sizeVar, itemVar)
+                .endControlFlow()
+                .addStatement("final $T $L = $L == $L.length ? $L : $T.copyOf($L, $L)",
+                        arrayType, queryContext.getOutVarName(),
+                        sizeVar, bufferVar, bufferVar,
+                        Arrays.class, bufferVar, sizeVar);
     }
 
+    private static final int INITIAL_CAPACITY = 16;
 }
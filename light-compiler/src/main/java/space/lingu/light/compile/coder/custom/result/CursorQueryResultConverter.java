@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.compile.coder.custom.result;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import space.lingu.light.compile.JavaPoetClass;
+import space.lingu.light.compile.coder.GenerateCodeBlock;
+import space.lingu.light.compile.coder.custom.QueryContext;
+import space.lingu.light.compile.coder.custom.row.RowConverter;
+
+import javax.lang.model.element.Modifier;
+import java.util.Iterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Returns a lazily mapped {@code Stream}, {@code Iterator},
+ * {@code Cursor} or {@code Flow.Publisher} over the result set.
+ * Primitive streams ({@code LongStream}, {@code IntStream},
+ * {@code DoubleStream}) are mapped without boxing.
+ *
+ * @author RollW
+ */
+public class CursorQueryResultConverter extends AbstractQueryResultConverter {
+    private final RowConverter converter;
+    private final Type type;
+
+    public CursorQueryResultConverter(RowConverter converter, Type type) {
+        super(converter);
+        this.converter = converter;
+        this.type = type;
+    }
+
+    @Override
+    public void convert(QueryContext queryContext, GenerateCodeBlock block) {
+        final TypeName itemType = converter.getOutType().toTypeName();
+        final String setVar = block.getTempVar("_resultSet");
+        final String itemVar = block.getTempVar("_item");
+        GenerateCodeBlock mapperBlock = block.fork();
+        QueryContext rowContext = queryContext.fork(itemVar, setVar);
+        converter.onResultSetReady(rowContext, mapperBlock);
+        mapperBlock.builder().addStatement("final $T $L", itemType, itemVar);
+        converter.convert(rowContext, mapperBlock);
+        converter.onResultSetFinish(mapperBlock);
+        mapperBlock.builder().addStatement("return $L", itemVar);
+
+        final boolean publisher = type == Type.PUBLISHER;
+        final String openVar = publisher
+                ? block.getTempVar("_publisher")
+                : queryContext.getOutVarName();
+        block.builder()
+                .add("final $T $L = $N.$L($L, $L, ($L) -> {\n$>",
+                        type.returnType(itemType),
+                        openVar,
+                        queryContext.getHandlerVarName(),
+                        type.openMethod,
+                        queryContext.getConnVarName(),
+                        queryContext.getStmtVarName(),
+                        setVar)
+                .add(mapperBlock.generate())
+                .add("$<})$L;\n", type.suffix);
+        if (publisher) {
+            writeFlowPublisher(queryContext.getOutVarName(), openVar,
+                    itemType, block);
+        }
+    }
+
+    /**
+     * Adapts the {@code ResultSetPublisher} to a {@code Flow.Publisher}.
+     */
+    private void writeFlowPublisher(String outVar, String publisherVar,
+                                    TypeName itemType,
+                                    GenerateCodeBlock block) {
+        final String subscriberVar = block.getTempVar("_subscriber");
+        final String subscriptionVar = block.getTempVar("_subscription");
+        TypeSpec flowSubscription = TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(JavaPoetClass.FLOW_SUBSCRIPTION)
+                .addMethod(MethodSpec.methodBuilder("request")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(TypeName.LONG, "n")
+                        .addStatement("$L.request(n)", subscriptionVar)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("cancel")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("$L.cancel()", subscriptionVar)
+                        .build())
+                .build();
+        block.builder()
+                .add("final $T $L = ($L) -> $L.subscribe(\n$>$>",
+                        ParameterizedTypeName.get(JavaPoetClass.FLOW_PUBLISHER, itemType),
+                        outVar, subscriberVar, publisherVar)
+                .add("($L) -> $L.onSubscribe($L),\n",
+                        subscriptionVar, subscriberVar, flowSubscription)
+                .add("$L::onNext, $L::onError, $L::onComplete);\n$<$<",
+                        subscriberVar, subscriberVar, subscriberVar);
+    }
+
+    public enum Type {
+        STREAM("openCursor", ".stream()"),
+        ITERATOR("openCursor", ""),
+        CURSOR("openCursor", ""),
+        PUBLISHER("openPublisher", ""),
+        LONG_STREAM("openLongStream", ""),
+        INT_STREAM("openIntStream", ""),
+        DOUBLE_STREAM("openDoubleStream", "");
+
+        private final String openMethod;
+        private final String suffix;
+
+        Type(String openMethod, String suffix) {
+            this.openMethod = openMethod;
+            this.suffix = suffix;
+        }
+
+        private TypeName returnType(TypeName itemType) {
+            switch (this) {
+                case STREAM:
+                    return ParameterizedTypeName.get(ClassName.get(Stream.class), itemType);
+                case ITERATOR:
+                    return ParameterizedTypeName.get(ClassName.get(Iterator.class), itemType);
+                case PUBLISHER:
+                    return ParameterizedTypeName.get(JavaPoetClass.RESULT_SET_PUBLISHER, itemType);
+                case LONG_STREAM:
+                    return ClassName.get(LongStream.class);
+                case INT_STREAM:
+                    return ClassName.get(IntStream.class);
+                case DOUBLE_STREAM:
+                    return ClassName.get(DoubleStream.class);
+                case CURSOR:
+                default:
+                    return ParameterizedTypeName.get(JavaPoetClass.CURSOR, itemType);
+            }
+        }
+    }
+}
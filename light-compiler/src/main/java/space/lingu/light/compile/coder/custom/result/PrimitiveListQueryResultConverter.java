@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.compile.coder.custom.result;
+
+import com.squareup.javapoet.TypeName;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.compile.coder.GenerateCodeBlock;
+import space.lingu.light.compile.coder.custom.QueryContext;
+import space.lingu.light.compile.coder.custom.row.RowConverter;
+import space.lingu.light.compile.javac.TypeCompileType;
+
+import java.sql.SQLException;
+
+/**
+ * Returns a {@code LongList}, {@code IntList} or {@code DoubleList},
+ * reading each row into a primitive value without boxing.
+ *
+ * @author RollW
+ */
+public class PrimitiveListQueryResultConverter extends AbstractQueryResultConverter {
+    private final TypeCompileType listType;
+    private final RowConverter converter;
+
+    /**
+     * @param listType  the primitive list type
+     * @param converter converter of the primitive element
+     */
+    public PrimitiveListQueryResultConverter(TypeCompileType listType,
+                                             RowConverter converter) {
+        super(converter);
+        this.listType = listType;
+        this.converter = converter;
+    }
+
+    @Override
+    public void convert(QueryContext queryContext, GenerateCodeBlock block) {
+        converter.onResultSetReady(queryContext, block);
+
+        TypeName listTypeName = listType.toTypeName();
+        final String tempVar = block.getTempVar("_item");
+        block.builder().addStatement("final $T $L = new $T()", listTypeName,
+                        queryContext.getOutVarName(), listTypeName)
+                .beginControlFlow("try")
+                .beginControlFlow("while ($L.next())", queryContext.getResultSetVarName())
+                .addStatement("final $T $L", converter.getOutType().toTypeName(), tempVar);
+
+        QueryContext scopeContext = queryContext.fork(tempVar);
+
+        converter.convert(scopeContext, block);
+        block.builder().addStatement("$L.add($L)", queryContext.getOutVarName(), tempVar)
+                .endControlFlow()
+                .nextControlFlow("catch ($T e)", SQLException.class)
+                .addStatement("throw new $T(e)", LightRuntimeException.class)
+                .endControlFlow();
+        converter.onResultSetFinish(block);
+    }
+}
@@ -3,9 +3,18 @@ package space.lingu.light.compile.coder.custom.result;
 import space.lingu.light.compile.coder.GenerateCodeBlock;
 import space.lingu.light.compile.coder.custom.QueryContext;
 
+import java.util.List;
+
 /**
  * @author RollW
  */
 public interface QueryResultConverter {
     void convert(QueryContext queryContext, GenerateCodeBlock block);
+
+    /**
+     * Set labels of the result columns if known at compile time.
+     *
+     * @param resultColumns labels, or {@code null} if unknown.
+     */
+    void setResultColumns(List<String> resultColumns);
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.compile.coder.custom.result;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.compile.JavaPoetClass;
+import space.lingu.light.compile.coder.GenerateCodeBlock;
+import space.lingu.light.compile.coder.custom.QueryContext;
+import space.lingu.light.compile.coder.custom.row.RowConverter;
+import space.lingu.light.compile.javac.TypeCompileType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts rows of a keyset page into a {@link space.lingu.light.Slice},
+ * reading the sort key of the last row if the page is full.
+ *
+ * @author RollW
+ */
+public class SliceQueryResultConverter extends AbstractQueryResultConverter {
+    private final TypeCompileType type;
+    private final RowConverter converter;
+    private String pageParameterName;
+
+    public SliceQueryResultConverter(TypeCompileType type, RowConverter converter) {
+        super(converter);
+        this.converter = converter;
+        this.type = type;
+    }
+
+    public RowConverter getRowConverter() {
+        return converter;
+    }
+
+    /**
+     * Set the name of the {@link space.lingu.light.PageRequest}
+     * parameter of the method.
+     */
+    public void setPageParameterName(String pageParameterName) {
+        this.pageParameterName = pageParameterName;
+    }
+
+    @Override
+    public void convert(QueryContext queryContext, GenerateCodeBlock block) {
+        converter.onResultSetReady(queryContext, block);
+
+        TypeName listType = ParameterizedTypeName
+                .get(ClassName.get(List.class), type.toTypeName());
+        TypeName arrayListType = ParameterizedTypeName
+                .get(ClassName.get(ArrayList.class), type.toTypeName());
+        TypeName sliceType = ParameterizedTypeName
+                .get(JavaPoetClass.SLICE, type.toTypeName());
+        final String listVar = block.getTempVar("_list");
+        final String keysVar = block.getTempVar("_lastKeys");
+        final String tempVar = block.getTempVar("_item");
+        final String resultSetVar = queryContext.getResultSetVarName();
+        final String handlerVar = queryContext.getHandlerVarName();
+
+        block.builder().addStatement("final $T $L = new $T()", listType,
+                        listVar, arrayListType)
+                .addStatement("$T $L = null", ArrayTypeName.of(TypeName.OBJECT), keysVar)
+                .beginControlFlow("try")
+                .beginControlFlow("while ($L.next())", resultSetVar)
+                .addStatement("final $T $L", type.toTypeName(), tempVar);
+
+        QueryContext scopeContext = queryContext.fork(tempVar);
+
+        converter.convert(scopeContext, block);
+        block.builder().addStatement("$L.add($L)", listVar, tempVar)
+                .beginControlFlow("if ($L.size() == $N.getSize())",
+                        listVar, pageParameterName)
+                .addStatement("$L = $N.readKeys($L)", keysVar, handlerVar, resultSetVar)
+                .endControlFlow()
+                .endControlFlow()
+                .nextControlFlow("catch ($T e)", SQLException.class)
+                .addStatement("throw new $T(e)", LightRuntimeException.class)
+                .endControlFlow()
+                .addStatement("final $T $L = $N.createSlice($L, $L, $N)",
+                        sliceType, queryContext.getOutVarName(), handlerVar,
+                        listVar, keysVar, pageParameterName);
+    }
+}
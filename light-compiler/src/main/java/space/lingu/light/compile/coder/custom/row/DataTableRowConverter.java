@@ -16,18 +16,28 @@
 
 package space.lingu.light.compile.coder.custom.row;
 
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import space.lingu.light.compile.MethodNames;
 import space.lingu.light.compile.coder.GenerateCodeBlock;
 import space.lingu.light.compile.coder.custom.QueryContext;
 import space.lingu.light.compile.struct.DataTable;
+import space.lingu.light.compile.struct.Field;
 import space.lingu.light.compile.writer.DataTableResultSetConverterWriter;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * @author RollW
  */
 public class DataTableRowConverter extends RowConverter {
     private final DataTable dataTable;
     private MethodSpec methodSpec;
+    private String indexesVar;
 
     protected DataTableRowConverter(DataTable dataTable) {
         super(dataTable.getTypeCompileType());
@@ -38,15 +48,38 @@ public class DataTableRowConverter extends RowConverter {
     public void onResultSetReady(QueryContext queryContext,
                                  GenerateCodeBlock block) {
         methodSpec = block.writer.getOrCreateMethod(
-                new DataTableResultSetConverterWriter(queryContext, dataTable)
+                new DataTableResultSetConverterWriter(dataTable)
         );
+        List<String> columnNames = dataTable.getFields().getFields()
+                .stream()
+                .map(Field::getColumnName)
+                .collect(Collectors.toList());
+        indexesVar = block.getTempVar("_columnIndexes");
+        final int[] staticIndexes = findStaticColumnIndexes(columnNames);
+        if (staticIndexes != null) {
+            block.builder().addStatement("final $T $L = {$L}",
+                    ArrayTypeName.of(TypeName.INT), indexesVar,
+                    Arrays.stream(staticIndexes)
+                            .mapToObj(String::valueOf)
+                            .collect(Collectors.joining(", ")));
+            return;
+        }
+        block.builder().addStatement("final $T $L = $L.$L($L, $L)",
+                ArrayTypeName.of(TypeName.INT), indexesVar,
+                queryContext.getHandlerVarName(),
+                MethodNames.sGetColumnIndexes,
+                queryContext.getResultSetVarName(),
+                CodeBlock.join(columnNames.stream()
+                        .map(name -> CodeBlock.of("$S", name))
+                        .collect(Collectors.toList()), ", "));
     }
 
     @Override
     public void convert(QueryContext queryContext, GenerateCodeBlock block) {
-        block.builder().addStatement("$L = $N($L)",
+        block.builder().addStatement("$L = $N($L, $L)",
                 queryContext.getOutVarName(), methodSpec,
-                queryContext.getResultSetVarName()
+                queryContext.getResultSetVarName(),
+                indexesVar
         );
     }
 
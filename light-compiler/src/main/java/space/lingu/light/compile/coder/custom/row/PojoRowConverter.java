@@ -16,6 +16,8 @@
 
 package space.lingu.light.compile.coder.custom.row;
 
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.TypeName;
 import space.lingu.light.compile.MethodNames;
 import space.lingu.light.compile.coder.GenerateCodeBlock;
@@ -28,6 +30,7 @@ import space.lingu.light.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author RollW
@@ -46,15 +49,36 @@ public class PojoRowConverter extends RowConverter {
     @Override
     public void onResultSetReady(QueryContext queryContext,
                                  GenerateCodeBlock block) {
-        usedFields.forEach(field -> {
+        fieldWithNumberList.clear();
+        List<String> columnNames = usedFields.stream()
+                .map(Field::getColumnName)
+                .collect(Collectors.toList());
+        final int[] staticIndexes = findStaticColumnIndexes(columnNames);
+        String indexesVar = null;
+        if (staticIndexes == null) {
+            indexesVar = block.getTempVar("_columnIndexes");
+            block.builder().addStatement("final $T $L = $L.$L($L, $L)",
+                    ArrayTypeName.of(TypeName.INT), indexesVar,
+                    queryContext.getHandlerVarName(),
+                    MethodNames.sGetColumnIndexes,
+                    queryContext.getResultSetVarName(),
+                    CodeBlock.join(columnNames.stream()
+                            .map(name -> CodeBlock.of("$S", name))
+                            .collect(Collectors.toList()), ", "));
+        }
+        for (int i = 0; i < usedFields.size(); i++) {
+            Field field = usedFields.get(i);
             final String numberVar = block.getTempVar("_resultSetIndexOf" +
                     StringUtils.firstUpperCase(field.getName()));
-            block.builder().addStatement("final $T $L = $L.$L($L, $S)",
-                    TypeName.INT, numberVar, queryContext.getHandlerVarName(),
-                    MethodNames.sGetColumnIndex,
-                    queryContext.getResultSetVarName(), field.getColumnName());
+            if (staticIndexes != null) {
+                block.builder().addStatement("final $T $L = $L",
+                        TypeName.INT, numberVar, staticIndexes[i]);
+            } else {
+                block.builder().addStatement("final $T $L = $L[$L]",
+                        TypeName.INT, numberVar, indexesVar, i);
+            }
             fieldWithNumberList.add(new FieldReadWriteWriter.FieldWithNumber(field, numberVar));
-        });
+        }
     }
 
     @Override
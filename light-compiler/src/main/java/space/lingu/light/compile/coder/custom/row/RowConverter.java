@@ -19,6 +19,9 @@ package space.lingu.light.compile.coder.custom.row;
 import space.lingu.light.compile.coder.GenerateCodeBlock;
 import space.lingu.light.compile.coder.custom.QueryContext;
 import space.lingu.light.compile.javac.TypeCompileType;
+import space.lingu.light.compile.parser.SelectColumnParser;
+
+import java.util.List;
 
 /**
  * @author RollW
@@ -26,10 +29,53 @@ import space.lingu.light.compile.javac.TypeCompileType;
 public abstract class RowConverter {
     protected final TypeCompileType outType;
 
+    /**
+     * Labels of the result columns if known at compile time,
+     * {@code null} otherwise.
+     *
+     * @see SelectColumnParser
+     */
+    protected List<String> resultColumns;
+
     protected RowConverter(TypeCompileType outType) {
         this.outType = outType;
     }
 
+    public void setResultColumns(List<String> resultColumns) {
+        this.resultColumns = resultColumns;
+    }
+
+    /**
+     * Find indexes of the columns in the result columns.
+     *
+     * @param columnNames names of the columns
+     * @return 1-based indexes, -1 if not in the result, or
+     * {@code null} if cannot be decided at compile time.
+     */
+    protected int[] findStaticColumnIndexes(List<String> columnNames) {
+        if (resultColumns == null) {
+            return null;
+        }
+        final boolean allLabeled = !resultColumns.contains(null);
+        int[] indexes = new int[columnNames.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = indexOfResultColumn(columnNames.get(i));
+            if (indexes[i] < 0 && !allLabeled) {
+                return null;
+            }
+        }
+        return indexes;
+    }
+
+    private int indexOfResultColumn(String columnName) {
+        for (int i = 0; i < resultColumns.size(); i++) {
+            if (columnName.equalsIgnoreCase(resultColumns.get(i))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
     public abstract void onResultSetReady(QueryContext queryContext,
                                           GenerateCodeBlock block);
 
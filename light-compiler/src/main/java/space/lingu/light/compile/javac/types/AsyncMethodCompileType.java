@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.compile.javac.types;
+
+import space.lingu.light.compile.javac.MethodCompileType;
+import space.lingu.light.compile.javac.TypeCompileType;
+import space.lingu.light.compile.javac.VariableCompileType;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Name;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A method returning {@code CompletableFuture<T>}, seen as a method
+ * returning {@code T} (or {@code void} for {@code Void}) so that the
+ * method body can be generated as usual and then run on the executor.
+ *
+ * @author RollW
+ */
+public class AsyncMethodCompileType implements MethodCompileType {
+    private final MethodCompileType delegate;
+    private final TypeCompileType valueType;
+
+    public AsyncMethodCompileType(MethodCompileType delegate,
+                                  TypeCompileType valueType) {
+        this.delegate = delegate;
+        this.valueType = valueType;
+    }
+
+    /**
+     * @return the original method, returning {@code CompletableFuture}
+     */
+    public MethodCompileType getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ExecutableType getTypeMirror() {
+        return delegate.getTypeMirror();
+    }
+
+    @Override
+    public ExecutableElement getElement() {
+        return delegate.getElement();
+    }
+
+    @Override
+    public DeclaredType getDeclaringType() {
+        return delegate.getDeclaringType();
+    }
+
+    @Override
+    public String getSignature() {
+        return delegate.getSignature();
+    }
+
+    @Override
+    public TypeCompileType getDeclaringIn() {
+        return delegate.getDeclaringIn();
+    }
+
+    /**
+     * @return the value type of the future
+     */
+    @Override
+    public TypeCompileType getReturnType() {
+        return valueType;
+    }
+
+    @Override
+    public List<VariableCompileType> getParameters() {
+        return delegate.getParameters();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Name getSimpleName() {
+        return delegate.getSimpleName();
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> annotationType) {
+        return delegate.getAnnotation(annotationType);
+    }
+
+    @Override
+    public <A extends Annotation> A[] getAnnotationsByType(Class<A> annotationType) {
+        return delegate.getAnnotationsByType(annotationType);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AsyncMethodCompileType)) return false;
+        AsyncMethodCompileType that = (AsyncMethodCompileType) o;
+        return Objects.equals(delegate, that.delegate) &&
+                Objects.equals(valueType, that.valueType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(delegate, valueType);
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncMethodCompileType{" +
+                "delegate=" + delegate +
+                ", valueType=" + valueType +
+                '}';
+    }
+}
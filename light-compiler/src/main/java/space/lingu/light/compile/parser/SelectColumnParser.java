@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.compile.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses the column labels of a {@code SELECT} list, so that result
+ * columns can be read by position when the list is statically known.
+ *
+ * @author RollW
+ */
+public final class SelectColumnParser {
+    private final String sql;
+    private int pos;
+
+    private SelectColumnParser(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Parse the labels of the select list.
+     * <p>
+     * A label is {@code null} if the item is an expression without
+     * an alias, its label is decided by the database.
+     *
+     * @param sql the sql
+     * @return labels in order, or {@code null} if the select list
+     * cannot be known at compile time, e.g. it has {@code *} or
+     * expandable parameters.
+     */
+    public static List<String> parse(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        return new SelectColumnParser(sql).parse();
+    }
+
+    private List<String> parse() {
+        if (!"SELECT".equals(nextWord())) {
+            return null;
+        }
+        int start = pos;
+        String word = nextWord();
+        if ("TOP".equals(word)) {
+            return null;
+        }
+        if (!"DISTINCT".equals(word) && !"ALL".equals(word)) {
+            pos = start;
+        }
+        List<String> items = splitItems();
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+        List<String> labels = new ArrayList<>(items.size());
+        for (String item : items) {
+            if (item.isEmpty() || item.equals("*") || item.endsWith(".*")) {
+                return null;
+            }
+            labels.add(labelOf(item));
+        }
+        return Collections.unmodifiableList(labels);
+    }
+
+    /**
+     * Split the select list by top level commas, until {@code FROM}.
+     */
+    private List<String> splitItems() {
+        List<String> items = new ArrayList<>();
+        int depth = 0;
+        int itemStart = pos;
+        while (pos < sql.length()) {
+            char c = sql.charAt(pos);
+            if (c == '{') {
+                // parameters may expand to several values
+                return null;
+            }
+            if (isQuote(c)) {
+                if (!skipQuoted()) {
+                    return null;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && c == ',') {
+                items.add(sql.substring(itemStart, pos).trim());
+                itemStart = pos + 1;
+            } else if (depth == 0 && isWordStart(pos) &&
+                    sql.regionMatches(true, pos, "FROM", 0, 4) &&
+                    isWordEnd(pos + 4)) {
+                break;
+            }
+            pos++;
+        }
+        items.add(sql.substring(itemStart, pos).trim());
+        return items;
+    }
+
+    private static String labelOf(String item) {
+        List<String> tokens = tokens(item);
+        if (tokens == null || tokens.isEmpty()) {
+            return null;
+        }
+        if (tokens.size() == 1) {
+            return identifierOf(tokens.get(0), true);
+        }
+        String last = tokens.get(tokens.size() - 1);
+        if (tokens.size() >= 3 && "AS".equalsIgnoreCase(tokens.get(tokens.size() - 2))) {
+            return identifierOf(last, false);
+        }
+        if (tokens.size() == 2 && !"NOT".equalsIgnoreCase(tokens.get(0))) {
+            // implicit alias: "expr alias"
+            return identifierOf(last, false);
+        }
+        return null;
+    }
+
+    /**
+     * Split an item by top level whitespace.
+     */
+    private static List<String> tokens(String item) {
+        List<String> tokens = new ArrayList<>();
+        int depth = 0;
+        int start = -1;
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            if (start < 0 && !Character.isWhitespace(c)) {
+                start = i;
+            }
+            if (isQuote(c)) {
+                int end = item.indexOf(closeQuoteOf(c), i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                i = end;
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && Character.isWhitespace(c) && start >= 0) {
+                tokens.add(item.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(item.substring(start));
+        }
+        return tokens;
+    }
+
+    /**
+     * @param qualified allows {@code table.column}
+     * @return the unquoted identifier, or null if the token is not one.
+     */
+    private static String identifierOf(String token, boolean qualified) {
+        String name = token;
+        if (qualified) {
+            int dot = lastDotOutsideQuotes(token);
+            if (dot >= 0) {
+                name = token.substring(dot + 1);
+            }
+        }
+        if (name.isEmpty()) {
+            return null;
+        }
+        char first = name.charAt(0);
+        if (isQuote(first)) {
+            if (name.length() < 2 ||
+                    name.charAt(name.length() - 1) != closeQuoteOf(first) ||
+                    first == '\'') {
+                return null;
+            }
+            return name.substring(1, name.length() - 1);
+        }
+        if (!Character.isJavaIdentifierStart(first)) {
+            return null;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return null;
+            }
+        }
+        return name;
+    }
+
+    private static int lastDotOutsideQuotes(String token) {
+        int dot = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (isQuote(c)) {
+                int end = token.indexOf(closeQuoteOf(c), i + 1);
+                if (end < 0) {
+                    return -1;
+                }
+                i = end;
+                continue;
+            }
+            if (c == '.') {
+                dot = i;
+            }
+        }
+        return dot;
+    }
+
+    private String nextWord() {
+        while (pos < sql.length() && Character.isWhitespace(sql.charAt(pos))) {
+            pos++;
+        }
+        int start = pos;
+        while (pos < sql.length() && Character.isLetter(sql.charAt(pos))) {
+            pos++;
+        }
+        return sql.substring(start, pos).toUpperCase(Locale.ROOT);
+    }
+
+    private boolean skipQuoted() {
+        char close = closeQuoteOf(sql.charAt(pos));
+        int end = sql.indexOf(close, pos + 1);
+        if (end < 0) {
+            return false;
+        }
+        pos = end + 1;
+        return true;
+    }
+
+    private boolean isWordStart(int index) {
+        return index == 0 || !Character.isJavaIdentifierPart(sql.charAt(index - 1));
+    }
+
+    private boolean isWordEnd(int index) {
+        return index >= sql.length() || !Character.isJavaIdentifierPart(sql.charAt(index));
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '\'' || c == '"' || c == '`' || c == '[';
+    }
+
+    private static char closeQuoteOf(char c) {
+        return c == '[' ? ']' : c;
+    }
+}
@@ -30,6 +30,7 @@ import space.lingu.light.compile.javac.MethodCompileType;
 import space.lingu.light.compile.javac.ProcessEnv;
 import space.lingu.light.compile.javac.TypeCompileType;
 import space.lingu.light.compile.javac.TypeUtils;
+import space.lingu.light.compile.javac.types.AsyncMethodCompileType;
 import space.lingu.light.compile.javac.types.JavacMethodCompileType;
 import space.lingu.light.compile.struct.Dao;
 import space.lingu.light.compile.struct.DeleteMethod;
@@ -127,13 +128,13 @@ public class DaoProcessor implements Processor<Dao> {
         checkMethodsAnnotation(allMethods, methods, isInterface);
 
         methods.get(Query.class).forEach(method ->
-                addNonNull(queryMethods, processQueryMethod(method)));
+                addNonNull(queryMethods, processQueryMethod(asyncIfFuture(method))));
         methods.get(Delete.class).forEach(method ->
-                addNonNull(deleteMethods, processDeleteMethod(method)));
+                addNonNull(deleteMethods, processDeleteMethod(asyncIfFuture(method))));
         methods.get(Update.class).forEach(method ->
-                addNonNull(updateMethods, processUpdateMethod(method)));
+                addNonNull(updateMethods, processUpdateMethod(asyncIfFuture(method))));
         methods.get(Insert.class).forEach(method ->
-                addNonNull(insertMethods, processInsertMethod(method)));
+                addNonNull(insertMethods, processInsertMethod(asyncIfFuture(method))));
 
         checkTransactionMethods(allMethods, transactionMethods, isInterface);
 
@@ -224,6 +225,30 @@ public class DaoProcessor implements Processor<Dao> {
         }
     }
 
+    /**
+     * Methods returning {@code CompletableFuture<T>} are processed
+     * as methods returning {@code T}.
+     */
+    private MethodCompileType asyncIfFuture(MethodCompileType method) {
+        TypeElement returnElement = method.getReturnType().getElement();
+        if (returnElement == null || !ReturnTypes.isCompletableFuture(returnElement)) {
+            return method;
+        }
+        List<? extends TypeMirror> genericTypes =
+                TypeUtils.getGenericTypes(method.getReturnType().getTypeMirror());
+        if (genericTypes == null || genericTypes.size() != 1) {
+            env.getLog().error(CompileErrors.FUTURE_RAW_TYPE, method);
+            return method;
+        }
+        TypeMirror valueType = genericTypes.get(0);
+        TypeElement valueElement = ElementUtils.asTypeElement(valueType);
+        if (valueElement != null && ElementUtils.isTypeOf(Void.class, valueElement)) {
+            valueType = env.getTypeUtils().getNoType(TypeKind.VOID);
+        }
+        return new AsyncMethodCompileType(method,
+                env.getTypeCompileType(valueType));
+    }
+
     private static <T> void addNonNull(List<T> list, T t) {
         if (t != null) {
             list.add(t);
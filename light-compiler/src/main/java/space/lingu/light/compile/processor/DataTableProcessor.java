@@ -60,6 +60,7 @@ public class DataTableProcessor implements Processor<DataTable> {
         Field.Fields fields = pojo.getFields();
 
         checkColumnName(fields);
+        checkShardKey(fields);
 
         env.getLog().error(
                 pojo.getFields().isEmpty(),
@@ -89,6 +90,18 @@ public class DataTableProcessor implements Processor<DataTable> {
         );
     }
 
+    private void checkShardKey(Field.Fields fields) {
+        String shardKey = anno.shardKey();
+        if (shardKey.isEmpty()) {
+            return;
+        }
+        env.getLog().error(
+                fields.findFieldByColumnName(shardKey) == null,
+                CompileErrors.cannotFoundShardKeyField(shardKey),
+                typeCompileType
+        );
+    }
+
     @SuppressWarnings({"deprecation"})
     private String getTableName(space.lingu.light.DataTable annotation) {
         String name = annotation.name();
@@ -75,6 +75,7 @@ public class InsertMethodProcessor implements Processor<InsertMethod> {
         InsertMethodBinder binder = new DirectInsertMethodBinder(
                 InsertMethodTranslator.create(
                         methodCompileType.getElement(),
+                        returnType.getTypeMirror(),
                         env,
                         pair.second)
         );
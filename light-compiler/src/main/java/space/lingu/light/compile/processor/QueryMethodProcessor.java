@@ -16,21 +16,40 @@
 
 package space.lingu.light.compile.processor;
 
+import space.lingu.light.Keyset;
+import space.lingu.light.Order;
+import space.lingu.light.PageRequest;
+import space.lingu.light.PrimaryKey;
 import space.lingu.light.Query;
+import space.lingu.light.Route;
+import space.lingu.light.RouteTarget;
 import space.lingu.light.Transaction;
 import space.lingu.light.compile.CompileErrors;
 import space.lingu.light.compile.LightCompileException;
 import space.lingu.light.compile.coder.custom.binder.QueryResultBinder;
+import space.lingu.light.compile.coder.custom.result.SliceQueryResultConverter;
+import space.lingu.light.compile.coder.custom.row.PojoRowConverter;
+import space.lingu.light.compile.javac.ElementUtils;
 import space.lingu.light.compile.javac.MethodCompileType;
 import space.lingu.light.compile.javac.ProcessEnv;
 import space.lingu.light.compile.javac.TypeCompileType;
+import space.lingu.light.compile.javac.TypeUtils;
 import space.lingu.light.compile.javac.VariableCompileType;
+import space.lingu.light.compile.parser.SelectColumnParser;
+import space.lingu.light.compile.struct.DataTable;
 import space.lingu.light.compile.struct.ExpressionBind;
+import space.lingu.light.compile.struct.Field;
+import space.lingu.light.compile.struct.KeysetPagination;
+import space.lingu.light.compile.struct.Nullability;
+import space.lingu.light.compile.struct.Pojo;
 import space.lingu.light.compile.struct.QueryMethod;
 import space.lingu.light.compile.struct.QueryParameter;
 import space.lingu.light.compile.struct.SQLCustomParameter;
+import space.lingu.light.handler.KeysetSQLHandler;
 
+import javax.lang.model.type.TypeMirror;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -77,6 +96,8 @@ public class QueryMethodProcessor implements Processor<QueryMethod> {
         final String sql = queryAnno.value();
 
         boolean transaction = methodCompileType.getAnnotation(Transaction.class) != null;
+        Route route = methodCompileType.getAnnotation(Route.class);
+        List<String> resultColumns = SelectColumnParser.parse(sql);
         QueryResultBinder binder = null;
         try {
             binder = mEnv.getBinders().findQueryResultBinder(
@@ -92,14 +113,157 @@ public class QueryMethodProcessor implements Processor<QueryMethod> {
                     CompileErrors.QUERY_UNKNOWN_RETURN_TYPE,
                     methodCompileType
             );
+        } else {
+            binder.setResultColumns(resultColumns);
         }
         Processor<List<ExpressionBind>>
                 processor = new SQLBindProcessor(methodCompileType, sql, mEnv);
         List<ExpressionBind> binds = processor.process();
+        KeysetPagination keysetPagination =
+                processKeysetPagination(sql, resultColumns, queryParameters, binder);
         return new QueryMethod(methodCompileType,
                 sql, binder,
                 queryParameters,  binds,
-                transaction);
+                transaction,
+                queryAnno.fetchSize(),
+                queryAnno.maxRows(),
+                queryAnno.queryTimeout(),
+                route == null ? RouteTarget.AUTO : route.value(),
+                keysetPagination);
+    }
+
+    private KeysetPagination processKeysetPagination(String sql,
+                                                     List<String> resultColumns,
+                                                     List<SQLCustomParameter> parameters,
+                                                     QueryResultBinder binder) {
+        List<SQLCustomParameter> pageParameters = new ArrayList<>();
+        parameters.forEach(parameter -> {
+            if (ElementUtils.isTypeOf(PageRequest.class,
+                    parameter.getCompileType().getType().getElement())) {
+                pageParameters.add(parameter);
+            }
+        });
+        TypeCompileType returnType = methodCompileType.getReturnType();
+        if (!ReturnTypes.isSlice(returnType.getElement())) {
+            if (!pageParameters.isEmpty()) {
+                mEnv.getLog().error(
+                        CompileErrors.PAGE_REQUEST_WITHOUT_SLICE,
+                        methodCompileType
+                );
+            }
+            return null;
+        }
+        if (pageParameters.size() != 1) {
+            mEnv.getLog().error(
+                    CompileErrors.SLICE_PAGE_REQUEST_REQUIRED,
+                    methodCompileType
+            );
+            return null;
+        }
+        String queryError = KeysetSQLHandler.checkQuery(sql);
+        if (queryError != null) {
+            mEnv.getLog().error(queryError, methodCompileType);
+        }
+        Keyset keyset = methodCompileType.getAnnotation(Keyset.class);
+        Pojo pojo = findSlicePojo(returnType, binder);
+        Field.Fields primaryKeyFields = pojo == null
+                ? new Field.Fields()
+                : findPrimaryKeyFields(pojo);
+        List<String> keyColumns = new ArrayList<>();
+        if (keyset == null || keyset.value().length == 0) {
+            primaryKeyFields.getFields().forEach(field ->
+                    keyColumns.add(field.getColumnName()));
+        } else {
+            keyColumns.addAll(Arrays.asList(keyset.value()));
+        }
+        if (keyColumns.isEmpty()) {
+            mEnv.getLog().error(
+                    CompileErrors.KEYSET_COLUMNS_NOT_FOUND,
+                    methodCompileType
+            );
+        }
+        checkKeyColumns(keyColumns, resultColumns, pojo, primaryKeyFields);
+        SQLCustomParameter pageParameter = pageParameters.get(0);
+        if (binder != null &&
+                binder.getConverter() instanceof SliceQueryResultConverter) {
+            ((SliceQueryResultConverter) binder.getConverter())
+                    .setPageParameterName(pageParameter.getName());
+        }
+        return new KeysetPagination(pageParameter, keyColumns,
+                keyset == null ? Order.ASC : keyset.order());
+    }
+
+    /**
+     * Find the pojo of the slice elements, or {@code null} if the
+     * rows are read as single columns.
+     */
+    private Pojo findSlicePojo(TypeCompileType sliceType,
+                               QueryResultBinder binder) {
+        if (binder == null ||
+                !(binder.getConverter() instanceof SliceQueryResultConverter)) {
+            return null;
+        }
+        SliceQueryResultConverter converter =
+                (SliceQueryResultConverter) binder.getConverter();
+        if (!(converter.getRowConverter() instanceof PojoRowConverter)) {
+            return null;
+        }
+        List<? extends TypeMirror> genericTypes =
+                TypeUtils.getGenericTypes(sliceType.getTypeMirror());
+        if (genericTypes == null || genericTypes.isEmpty()) {
+            return null;
+        }
+        TypeCompileType elementType = mEnv.getTypeCompileType(
+                TypeUtils.getExtendBoundOrSelf(genericTypes.get(0)));
+        if (elementType.getAnnotation(space.lingu.light.DataTable.class) != null) {
+            return new DataTableProcessor(elementType, mEnv).process();
+        }
+        return new PojoProcessor(elementType, mEnv).process();
+    }
+
+    private Field.Fields findPrimaryKeyFields(Pojo pojo) {
+        if (pojo instanceof DataTable) {
+            return ((DataTable) pojo).getPrimaryKey().getFields();
+        }
+        List<Field> fields = new ArrayList<>();
+        pojo.getFields().getFields().forEach(field -> {
+            if (field.getVariableCompileType()
+                    .getAnnotation(PrimaryKey.class) != null) {
+                fields.add(field);
+            }
+        });
+        return new Field.Fields(fields);
+    }
+
+    /**
+     * The sort key is read by label from the last row of each page and
+     * compared by the seek predicate, so every column must be selected
+     * and must not be {@code NULL}.
+     */
+    private void checkKeyColumns(List<String> keyColumns,
+                                 List<String> resultColumns,
+                                 Pojo pojo,
+                                 Field.Fields primaryKeyFields) {
+        for (String keyColumn : keyColumns) {
+            String label = keyColumn.substring(keyColumn.lastIndexOf('.') + 1);
+            if (resultColumns != null && resultColumns.stream()
+                    .noneMatch(label::equalsIgnoreCase)) {
+                mEnv.getLog().error(
+                        CompileErrors.keysetColumnNotSelected(keyColumn),
+                        methodCompileType
+                );
+            }
+            Field field = pojo == null ? null : pojo.findFieldByColumnName(label);
+            if (field == null || primaryKeyFields.hasField(field)) {
+                continue;
+            }
+            if (field.getNullability() == Nullability.NULLABLE) {
+                mEnv.getLog().error(
+                        CompileErrors.keysetColumnNullable(keyColumn),
+                        methodCompileType
+                );
+            }
+        }
     }
 
     private void checkUnboundType(List<SQLCustomParameter> parameters) {
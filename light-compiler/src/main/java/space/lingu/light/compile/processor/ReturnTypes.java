@@ -16,9 +16,21 @@
 
 package space.lingu.light.compile.processor;
 
+import space.lingu.light.Cursor;
+import space.lingu.light.Slice;
 import space.lingu.light.compile.javac.ElementUtils;
+import space.lingu.light.util.DoubleList;
+import space.lingu.light.util.IntList;
+import space.lingu.light.util.LongList;
 
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * @author RollW
@@ -35,6 +47,80 @@ public final class ReturnTypes {
         return ElementUtils.isIterable(typeElement);
     }
 
+    // Stream, Iterator, Cursor, Flow.Publisher
+    public static boolean isLegalStreamingReturnType(TypeElement typeElement) {
+        return isStream(typeElement) || isIterator(typeElement) ||
+                isCursor(typeElement) || isFlowPublisher(typeElement);
+    }
+
+    /**
+     * {@code java.util.concurrent.Flow.Publisher}, compared by name
+     * since it is not available in Java 8.
+     */
+    public static boolean isFlowPublisher(TypeElement typeElement) {
+        return typeElement.getQualifiedName()
+                .contentEquals(FLOW_PUBLISHER_NAME);
+    }
+
+    private static final String FLOW_PUBLISHER_NAME =
+            "java.util.concurrent.Flow.Publisher";
+
+    public static boolean isCompletableFuture(TypeElement typeElement) {
+        return ElementUtils.isTypeOf(CompletableFuture.class, typeElement);
+    }
+
+    public static boolean isStream(TypeElement typeElement) {
+        return ElementUtils.isTypeOf(Stream.class, typeElement);
+    }
+
+    public static boolean isIterator(TypeElement typeElement) {
+        return ElementUtils.isTypeOf(Iterator.class, typeElement);
+    }
+
+    public static boolean isCursor(TypeElement typeElement) {
+        return ElementUtils.isTypeOf(Cursor.class, typeElement);
+    }
+
+    public static boolean isSlice(TypeElement typeElement) {
+        return ElementUtils.isTypeOf(Slice.class, typeElement);
+    }
+
+    /**
+     * LongStream, IntStream, DoubleStream
+     *
+     * @return kind of the element, or null if not a primitive stream.
+     */
+    public static TypeKind getPrimitiveStreamKind(TypeElement typeElement) {
+        if (ElementUtils.isTypeOf(LongStream.class, typeElement)) {
+            return TypeKind.LONG;
+        }
+        if (ElementUtils.isTypeOf(IntStream.class, typeElement)) {
+            return TypeKind.INT;
+        }
+        if (ElementUtils.isTypeOf(DoubleStream.class, typeElement)) {
+            return TypeKind.DOUBLE;
+        }
+        return null;
+    }
+
+    /**
+     * LongList, IntList, DoubleList
+     *
+     * @return kind of the element, or null if not a primitive list.
+     */
+    public static TypeKind getPrimitiveListKind(TypeElement typeElement) {
+        if (ElementUtils.isTypeOf(LongList.class, typeElement)) {
+            return TypeKind.LONG;
+        }
+        if (ElementUtils.isTypeOf(IntList.class, typeElement)) {
+            return TypeKind.INT;
+        }
+        if (ElementUtils.isTypeOf(DoubleList.class, typeElement)) {
+            return TypeKind.DOUBLE;
+        }
+        return null;
+    }
+
     private ReturnTypes() {
     }
 }
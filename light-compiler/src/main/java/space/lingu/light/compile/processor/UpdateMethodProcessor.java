@@ -16,6 +16,7 @@
 
 package space.lingu.light.compile.processor;
 
+import space.lingu.light.ChangeTracking;
 import space.lingu.light.Update;
 import space.lingu.light.compile.CompileErrors;
 import space.lingu.light.compile.coder.annotated.binder.AutoDeleteUpdateMethodBinder;
@@ -24,11 +25,13 @@ import space.lingu.light.compile.coder.annotated.translator.AutoDeleteUpdateMeth
 import space.lingu.light.compile.javac.MethodCompileType;
 import space.lingu.light.compile.javac.ProcessEnv;
 import space.lingu.light.compile.javac.TypeCompileType;
+import space.lingu.light.compile.javac.TypeUtils;
 import space.lingu.light.compile.struct.ParamEntity;
 import space.lingu.light.compile.struct.Parameter;
 import space.lingu.light.compile.struct.UpdateMethod;
 import space.lingu.light.util.Pair;
 
+import javax.lang.model.type.TypeMirror;
 import java.util.List;
 import java.util.Map;
 
@@ -78,8 +81,37 @@ public class UpdateMethodProcessor implements Processor<UpdateMethod> {
         AutoDeleteUpdateMethodBinder binder =
                 new DirectAutoDeleteUpdateMethodBinder(translator);
 
+        if (updateAnno.partial()) {
+            checkPartialEntities(pair.first);
+        }
+
         return new UpdateMethod(methodCompileType, pair.first,
                 pair.second, binder,
-                updateAnno.onConflict());
+                updateAnno.onConflict(),
+                updateAnno.partial());
+    }
+
+    private void checkPartialEntities(Map<String, ParamEntity> entities) {
+        TypeMirror changeTracking = env.getElementUtils()
+                .getTypeElement(ChangeTracking.class.getCanonicalName())
+                .asType();
+        entities.values().forEach(entity -> {
+            TypeCompileType pojoType = entity.getPojo().getTypeCompileType();
+            if (!TypeUtils.isAssignedFrom(env.getTypeUtils(),
+                    pojoType.getTypeMirror(), changeTracking)) {
+                env.getLog().error(
+                        CompileErrors.partialUpdateNotTracked(pojoType.getName()),
+                        methodCompileType
+                );
+            }
+            int columns = entity.getPojo().getFields().getFields().size();
+            if (columns > Long.SIZE) {
+                env.getLog().error(
+                        CompileErrors.partialUpdateTooManyColumns(
+                                pojoType.getName(), columns),
+                        methodCompileType
+                );
+            }
+        });
     }
 }
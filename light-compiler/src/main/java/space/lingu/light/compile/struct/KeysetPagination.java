@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.compile.struct;
+
+import space.lingu.light.Order;
+
+import java.util.List;
+
+/**
+ * Keyset pagination of a query method returning
+ * {@link space.lingu.light.Slice}.
+ *
+ * @author RollW
+ */
+public class KeysetPagination {
+    private final SQLCustomParameter pageParameter;
+    private final List<String> keyColumns;
+    private final Order order;
+
+    public KeysetPagination(SQLCustomParameter pageParameter,
+                            List<String> keyColumns,
+                            Order order) {
+        this.pageParameter = pageParameter;
+        this.keyColumns = keyColumns;
+        this.order = order;
+    }
+
+    public SQLCustomParameter getPageParameter() {
+        return pageParameter;
+    }
+
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+}
@@ -16,6 +16,7 @@
 
 package space.lingu.light.compile.struct;
 
+import space.lingu.light.RouteTarget;
 import space.lingu.light.compile.coder.custom.binder.QueryResultBinder;
 import space.lingu.light.compile.javac.MethodCompileType;
 import space.lingu.light.compile.javac.TypeCompileType;
@@ -34,18 +35,31 @@ public class QueryMethod implements SQLCustomMethod {
     private final List<SQLCustomParameter> parameters;
     private final List<ExpressionBind> expressionBinds;
     private final boolean transaction;
+    private final int fetchSize;
+    private final int maxRows;
+    private final int queryTimeout;
+    private final RouteTarget routeTarget;
+    private final KeysetPagination keysetPagination;
 
     public QueryMethod(MethodCompileType methodCompileType, String sql,
                        QueryResultBinder resultBinder,
                        List<SQLCustomParameter> parameters,
                        List<ExpressionBind> expressionBinds,
-                       boolean transaction) {
+                       boolean transaction,
+                       int fetchSize, int maxRows, int queryTimeout,
+                       RouteTarget routeTarget,
+                       KeysetPagination keysetPagination) {
         this.methodCompileType = methodCompileType;
         this.sql = sql;
         this.resultBinder = resultBinder;
         this.parameters = parameters;
         this.expressionBinds = expressionBinds;
         this.transaction = transaction;
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.queryTimeout = queryTimeout;
+        this.routeTarget = routeTarget;
+        this.keysetPagination = keysetPagination;
     }
 
     @Override
@@ -82,4 +96,29 @@ public class QueryMethod implements SQLCustomMethod {
     public boolean isTransaction() {
         return transaction;
     }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public int getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public RouteTarget getRouteTarget() {
+        return routeTarget;
+    }
+
+    /**
+     * Get the keyset pagination of the method.
+     *
+     * @return null if the method does not return a {@code Slice}.
+     */
+    public KeysetPagination getKeysetPagination() {
+        return keysetPagination;
+    }
 }
@@ -33,17 +33,29 @@ public class UpdateMethod implements AnnotatedMethod<Parameter> {
     private final List<Parameter> parameters;
     private final AutoDeleteUpdateMethodBinder binder;
     private final OnConflictStrategy onConflict;
+    private final boolean partial;
 
     public UpdateMethod(MethodCompileType methodCompileType,
                         Map<String, ParamEntity> entities,
                         List<Parameter> parameters,
                         AutoDeleteUpdateMethodBinder binder,
                         OnConflictStrategy onConflict) {
+        this(methodCompileType, entities, parameters, binder,
+                onConflict, false);
+    }
+
+    public UpdateMethod(MethodCompileType methodCompileType,
+                        Map<String, ParamEntity> entities,
+                        List<Parameter> parameters,
+                        AutoDeleteUpdateMethodBinder binder,
+                        OnConflictStrategy onConflict,
+                        boolean partial) {
         this.methodCompileType = methodCompileType;
         this.entities = entities;
         this.parameters = parameters;
         this.binder = binder;
         this.onConflict = onConflict;
+        this.partial = partial;
     }
 
     @Override
@@ -74,4 +86,11 @@ public class UpdateMethod implements AnnotatedMethod<Parameter> {
     public OnConflictStrategy getOnConflict() {
         return onConflict;
     }
+
+    /**
+     * Only writes the changed columns.
+     */
+    public boolean isPartial() {
+        return partial;
+    }
 }
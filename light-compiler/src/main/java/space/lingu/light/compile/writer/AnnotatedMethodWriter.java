@@ -68,4 +68,56 @@ public class AnnotatedMethodWriter {
         bindMethodBuilder.addCode(bindBlock.builder().build());
         return bindMethodBuilder.build();
     }
+
+    /**
+     * Create a bind method with an extra {@code offset} parameter,
+     * which is added to each parameter index.
+     */
+    public MethodSpec createOffsetBindMethod(ClassWriter writer, List<Field> fields) {
+        GenerateCodeBlock bindBlock = new GenerateCodeBlock(writer);
+        MethodSpec.Builder bindMethodBuilder = MethodSpec.methodBuilder("bind")
+                .addModifiers(Modifier.PROTECTED, Modifier.FINAL)
+                .addAnnotation(Override.class)
+                .returns(TypeName.VOID)
+                .addParameter(ParameterSpec
+                        .builder(JavaPoetClass.JdbcNames.PREPARED_STMT, "stmt")
+                        .build())
+                .addParameter(ParameterSpec
+                        .builder(pojo.getTypeName(), "value")
+                        .build())
+                .addParameter(ParameterSpec
+                        .builder(TypeName.INT, "offset")
+                        .build());
+
+        List<FieldReadWriteWriter.FieldWithNumber> fieldWithNumberList = new ArrayList<>();
+        IntStream.range(0, fields.size()).forEach(value -> {
+            Field field = fields.get(value);
+            fieldWithNumberList.add(new FieldReadWriteWriter.FieldWithNumber(
+                    field,
+                    "offset + " + (value + 1))
+            );
+        });
+        FieldReadWriteWriter.bindToStatement("value", "stmt", fieldWithNumberList, bindBlock);
+        bindMethodBuilder.addCode(bindBlock.builder().build());
+        return bindMethodBuilder.build();
+    }
+
+    /**
+     * Create a bind method delegating to the offset bind method
+     * with offset {@code 0}.
+     */
+    public MethodSpec createDelegateBindMethod() {
+        return MethodSpec.methodBuilder("bind")
+                .addModifiers(Modifier.PROTECTED, Modifier.FINAL)
+                .addAnnotation(Override.class)
+                .returns(TypeName.VOID)
+                .addParameter(ParameterSpec
+                        .builder(JavaPoetClass.JdbcNames.PREPARED_STMT, "stmt")
+                        .build())
+                .addParameter(ParameterSpec
+                        .builder(pojo.getTypeName(), "value")
+                        .build())
+                .addStatement("bind(stmt, value, 0)")
+                .build();
+    }
 }
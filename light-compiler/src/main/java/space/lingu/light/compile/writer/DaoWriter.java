@@ -20,6 +20,8 @@ import com.squareup.javapoet.*;
 import space.lingu.light.Configurations;
 import space.lingu.light.DaoConnectionGetter;
 import space.lingu.light.OnConflictStrategy;
+import space.lingu.light.QueryOptions;
+import space.lingu.light.RouteTarget;
 import space.lingu.light.compile.CompileErrors;
 import space.lingu.light.compile.JavaPoetClass;
 import space.lingu.light.compile.MethodNames;
@@ -28,6 +30,8 @@ import space.lingu.light.compile.javac.ElementUtils;
 import space.lingu.light.compile.javac.MethodCompileType;
 import space.lingu.light.compile.javac.ProcessEnv;
 import space.lingu.light.compile.javac.TypeUtils;
+import space.lingu.light.compile.javac.types.AsyncMethodCompileType;
+import space.lingu.light.compile.processor.ReturnTypes;
 import space.lingu.light.compile.struct.*;
 import space.lingu.light.handler.SQLExpressionParser;
 import space.lingu.light.util.Pair;
@@ -37,6 +41,7 @@ import javax.lang.model.element.*;
 import javax.lang.model.type.TypeMirror;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * Write to {@code Dao_Impl.java} file.
@@ -224,6 +229,34 @@ public class DaoWriter extends ClassWriter {
         sqlMethodPairs.forEach(pair -> {
             String sql = processSqlIfCapsMode(
                     pair.sqlCustomMethod.getSql(), capsMode);
+            KeysetPagination keysetPagination = getKeysetPagination(pair.sqlCustomMethod);
+            if (keysetPagination != null) {
+                builder.addStatement("this.$N = new $T($L, $S, $L, $L, $T.$L)",
+                        pair.fieldSpec,
+                        JavaPoetClass.KEYSET_SQL_HANDLER,
+                        DATABASE_FIELD.name,
+                        sql,
+                        createQueryOptions(pair.sqlCustomMethod),
+                        createKeyColumns(keysetPagination),
+                        JavaPoetClass.ORDER,
+                        keysetPagination.getOrder().name()
+                );
+                return;
+            }
+            if (hasQueryOptions(pair.sqlCustomMethod)) {
+                QueryMethod queryMethod = (QueryMethod) pair.sqlCustomMethod;
+                builder.addStatement("this.$N = new $T($L, $S, new $T($L, $L, $L))",
+                        pair.fieldSpec,
+                        JavaPoetClass.SQL_HANDLER,
+                        DATABASE_FIELD.name,
+                        sql,
+                        JavaPoetClass.QUERY_OPTIONS,
+                        queryMethod.getFetchSize(),
+                        queryMethod.getMaxRows(),
+                        queryMethod.getQueryTimeout()
+                );
+                return;
+            }
             builder.addStatement("this.$N = new $T($L, $S)",
                     pair.fieldSpec,
                     JavaPoetClass.SQL_HANDLER,
@@ -231,9 +264,147 @@ public class DaoWriter extends ClassWriter {
                     sql
             );
         });
+        writeRegisterStatements(builder, autoMethodPairs, sqlMethodPairs);
         return builder.build();
     }
 
+    private void writeRegisterStatements(MethodSpec.Builder builder,
+                                         List<AutoMethodPair> autoMethodPairs,
+                                         List<SQLMethodPair> sqlMethodPairs) {
+        final String daoName = dao.getTypeCompileType().getQualifiedName().toString();
+        autoMethodPairs.forEach(autoMethodPair ->
+                autoMethodPair.fields.values().forEach(specPair ->
+                        builder.addStatement("this.$N.$L($S, $S, this.$N.$L())",
+                                DATABASE_FIELD,
+                                MethodNames.sRegisterStatement,
+                                daoName,
+                                signatureOf(autoMethodPair.methodImpl),
+                                specPair.first,
+                                MethodNames.sGetQuery)));
+        sqlMethodPairs.forEach(pair -> {
+            String signature = signatureOf(pair.methodSpec);
+            builder.addStatement("this.$N.$L($S, $S, this.$N.$L())",
+                    DATABASE_FIELD,
+                    MethodNames.sRegisterStatement,
+                    daoName,
+                    signature,
+                    pair.fieldSpec,
+                    MethodNames.sGetStatementSql);
+            if (getKeysetPagination(pair.sqlCustomMethod) == null) {
+                return;
+            }
+            builder.addStatement("this.$N.$L($S, $S, this.$N.$L())",
+                    DATABASE_FIELD,
+                    MethodNames.sRegisterStatement,
+                    daoName,
+                    signature,
+                    pair.fieldSpec,
+                    MethodNames.sGetSeekStatementSql);
+        });
+        writeTags(builder, daoName, autoMethodPairs, sqlMethodPairs);
+    }
+
+    /**
+     * Signature of the method in the statement catalog, like {@code get(long)}.
+     */
+    private static String signatureOf(MethodSpec method) {
+        StringJoiner joiner = new StringJoiner(",", method.name + "(", ")");
+        method.parameters.forEach(parameter ->
+                joiner.add(parameter.type.toString()));
+        return joiner.toString();
+    }
+
+    /**
+     * Tag handlers with their DAO methods for metrics. Handlers
+     * of auto methods may be shared, their tags list every method.
+     */
+    private void writeTags(MethodSpec.Builder builder,
+                           String daoName,
+                           List<AutoMethodPair> autoMethodPairs,
+                           List<SQLMethodPair> sqlMethodPairs) {
+        Map<FieldSpec, StringJoiner> handlerMethods = new LinkedHashMap<>();
+        autoMethodPairs.forEach(autoMethodPair ->
+                autoMethodPair.fields.values().forEach(specPair ->
+                        handlerMethods.computeIfAbsent(specPair.first,
+                                        field -> new StringJoiner(","))
+                                .add(autoMethodPair.methodImpl.name)));
+        handlerMethods.forEach((field, methods) ->
+                builder.addStatement("this.$N.$L($S)",
+                        field,
+                        MethodNames.sSetTag,
+                        daoName + "#" + methods));
+        sqlMethodPairs.forEach(pair ->
+                builder.addStatement("this.$N.$L($S)",
+                        pair.fieldSpec,
+                        MethodNames.sSetTag,
+                        daoName + "#" + pair.methodSpec.name));
+        writeRouteTargets(builder, sqlMethodPairs);
+    }
+
+    /**
+     * Route handlers of query methods annotated with {@code @Route},
+     * others keep {@link RouteTarget#AUTO}.
+     */
+    private void writeRouteTargets(MethodSpec.Builder builder,
+                                   List<SQLMethodPair> sqlMethodPairs) {
+        sqlMethodPairs.forEach(pair -> {
+            if (!(pair.sqlCustomMethod instanceof QueryMethod)) {
+                return;
+            }
+            RouteTarget target = ((QueryMethod) pair.sqlCustomMethod).getRouteTarget();
+            if (target == RouteTarget.AUTO) {
+                return;
+            }
+            builder.addStatement("this.$N.$L($T.$L)",
+                    pair.fieldSpec,
+                    MethodNames.sSetRouteTarget,
+                    JavaPoetClass.ROUTE_TARGET,
+                    target.name());
+        });
+    }
+
+    private static KeysetPagination getKeysetPagination(SQLCustomMethod method) {
+        if (!(method instanceof QueryMethod)) {
+            return null;
+        }
+        return ((QueryMethod) method).getKeysetPagination();
+    }
+
+    private static CodeBlock createQueryOptions(SQLCustomMethod method) {
+        if (!hasQueryOptions(method)) {
+            return CodeBlock.of("$T.DEFAULT", JavaPoetClass.QUERY_OPTIONS);
+        }
+        QueryMethod queryMethod = (QueryMethod) method;
+        return CodeBlock.of("new $T($L, $L, $L)",
+                JavaPoetClass.QUERY_OPTIONS,
+                queryMethod.getFetchSize(),
+                queryMethod.getMaxRows(),
+                queryMethod.getQueryTimeout());
+    }
+
+    private static CodeBlock createKeyColumns(KeysetPagination keysetPagination) {
+        CodeBlock.Builder builder = CodeBlock.builder()
+                .add("new $T[]{", String.class);
+        List<String> keyColumns = keysetPagination.getKeyColumns();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                builder.add(", ");
+            }
+            builder.add("$S", keyColumns.get(i));
+        }
+        return builder.add("}").build();
+    }
+
+    private static boolean hasQueryOptions(SQLCustomMethod method) {
+        if (!(method instanceof QueryMethod)) {
+            return false;
+        }
+        QueryMethod queryMethod = (QueryMethod) method;
+        return queryMethod.getFetchSize() != QueryOptions.UNSET ||
+                queryMethod.getMaxRows() != QueryOptions.UNSET ||
+                queryMethod.getQueryTimeout() != QueryOptions.UNSET;
+    }
+
     private boolean isCapsMode(Configurations configurations) {
         return false;
     }
@@ -259,13 +430,8 @@ public class DaoWriter extends ClassWriter {
             });
 
             MethodCompileType methodCompileType = method.getMethodCompileType();
-            MethodSpec methodImpl = MethodSpec.overriding(
-                            methodCompileType.getElement(),
-                            methodCompileType.getDeclaringType(),
-                            env.getTypeUtils())
-                    .addModifiers(Modifier.FINAL)
-                    .addCode(createAnnotatedMethodBody(method, fields))
-                    .build();
+            MethodSpec methodImpl = createMethodImpl(methodCompileType,
+                    createAnnotatedMethodBody(method, fields));
             pairList.add(new AutoMethodPair(fields, methodImpl));
         });
 
@@ -278,18 +444,15 @@ public class DaoWriter extends ClassWriter {
             final Map<String, Pair<FieldSpec, TypeSpec>> fields = new HashMap<>();
             method.getEntities().forEach((s, paramEntity) -> {
                 fields.put(s,
-                        Pair.createPair(getOrCreateField(
-                                        new DeleteUpdateMethodField("update", paramEntity, method.getOnConflict())),
+                        Pair.createPair(getOrCreateField(method.isPartial()
+                                        ? new DeleteUpdateMethodField("partialUpdate", paramEntity,
+                                        method.getOnConflict(), JavaPoetClass.PARTIAL_UPDATE_HANDLER)
+                                        : new DeleteUpdateMethodField("update", paramEntity, method.getOnConflict())),
                                 new UpdateHandlerWriter(paramEntity, method).createAnonymous(this, DATABASE_FIELD.name)));
             });
             MethodCompileType methodCompileType = method.getMethodCompileType();
-            MethodSpec methodImpl = MethodSpec.overriding(
-                            methodCompileType.getElement(),
-                            methodCompileType.getDeclaringType(),
-                            env.getTypeUtils())
-                    .addModifiers(Modifier.FINAL)
-                    .addCode(createAnnotatedMethodBody(method, fields))
-                    .build();
+            MethodSpec methodImpl = createMethodImpl(methodCompileType,
+                    createAnnotatedMethodBody(method, fields));
             pairList.add(new AutoMethodPair(fields, methodImpl));
         });
 
@@ -310,13 +473,8 @@ public class DaoWriter extends ClassWriter {
                 );
             });
             MethodCompileType methodCompileType = method.getMethodCompileType();
-            MethodSpec methodImpl = MethodSpec.overriding(
-                            methodCompileType.getElement(),
-                            methodCompileType.getDeclaringType(),
-                            env.getTypeUtils())
-                    .addModifiers(Modifier.FINAL)
-                    .addCode(createAnnotatedMethodBody(method, fields))
-                    .build();
+            MethodSpec methodImpl = createMethodImpl(methodCompileType,
+                    createAnnotatedMethodBody(method, fields));
             pairList.add(new AutoMethodPair(fields, methodImpl));
         });
         return pairList;
@@ -344,13 +502,8 @@ public class DaoWriter extends ClassWriter {
         dao.getQueryMethods().forEach(method -> {
             FieldSpec fieldSpec = getOrCreateField(new QueryHandlerField(method));
             MethodCompileType methodCompileType = method.getMethodCompileType();
-            MethodSpec methodImpl = MethodSpec.overriding(
-                            methodCompileType.getElement(),
-                            methodCompileType.getDeclaringType(),
-                            env.getTypeUtils())
-                    .addModifiers(Modifier.FINAL)
-                    .addCode(createQueryMethodBody(method, fieldSpec))
-                    .build();
+            MethodSpec methodImpl = createMethodImpl(methodCompileType,
+                    createQueryMethodBody(method, fieldSpec));
             pairList.add(new SQLMethodPair(method, methodImpl, fieldSpec));
         });
 
@@ -366,13 +519,8 @@ public class DaoWriter extends ClassWriter {
             FieldSpec fieldSpec =
                     getOrCreateField(new CustomDeleteMethodField(method));
             MethodCompileType methodCompileType = method.getMethodCompileType();
-            MethodSpec methodImpl = MethodSpec.overriding(
-                            methodCompileType.getElement(),
-                            methodCompileType.getDeclaringType(),
-                            env.getTypeUtils())
-                    .addModifiers(Modifier.FINAL)
-                    .addCode(createQueryMethodBody(method, fieldSpec))
-                    .build();
+            MethodSpec methodImpl = createMethodImpl(methodCompileType,
+                    createQueryMethodBody(method, fieldSpec));
             pairList.add(new SQLMethodPair(method, methodImpl, fieldSpec));
         });
 
@@ -389,11 +537,45 @@ public class DaoWriter extends ClassWriter {
                 block
         );
         MethodCompileType methodCompileType = method.getMethodCompileType();
+        CodeBlock body = block.generate();
+        TypeElement returnElement = method.getReturnType().getElement();
+        if (returnElement != null && ReturnTypes.isCompletableFuture(returnElement)) {
+            // runs the whole transaction on the executor, async DAO
+            // methods inside run in the scope, the transaction ends
+            // when the future of the method completes.
+            body = CodeBlock.builder()
+                    .add("return $N.$L(() -> {\n$>",
+                            DATABASE_FIELD, MethodNames.sSupplyAsync)
+                    .add(body)
+                    .add("$<}).thenCompose($T.identity());\n", Function.class)
+                    .build();
+        }
         return MethodSpec.overriding(
                         methodCompileType.getElement(),
                         methodCompileType.getDeclaringType(),
                         env.getTypeUtils())
-                .addCode(block.generate())
+                .addCode(body)
+                .build();
+    }
+
+    private MethodSpec createMethodImpl(MethodCompileType methodCompileType,
+                                        CodeBlock body) {
+        MethodSpec.Builder builder = MethodSpec.overriding(
+                        methodCompileType.getElement(),
+                        methodCompileType.getDeclaringType(),
+                        env.getTypeUtils())
+                .addModifiers(Modifier.FINAL);
+        if (!(methodCompileType instanceof AsyncMethodCompileType)) {
+            return builder.addCode(body).build();
+        }
+        boolean returnsValue = !TypeUtils.isVoid(
+                methodCompileType.getReturnType().getTypeMirror());
+        return builder.addCode(CodeBlock.builder()
+                        .add("return $N.$L(() -> {\n$>", DATABASE_FIELD,
+                                returnsValue ? MethodNames.sSupplyAsync : MethodNames.sRunAsync)
+                        .add(body)
+                        .add("$<});\n")
+                        .build())
                 .build();
     }
 
@@ -457,7 +639,9 @@ public class DaoWriter extends ClassWriter {
             super("queryHandlerOf" + StringUtils
                             .firstUpperCase(method.getMethodCompileType().getSimpleName().toString())
                             + identifierParamNameAndType(method.getParameters()),
-                    JavaPoetClass.SQL_HANDLER);
+                    method.getKeysetPagination() == null
+                            ? JavaPoetClass.SQL_HANDLER
+                            : JavaPoetClass.KEYSET_SQL_HANDLER);
             this.sql = method.getSql();
         }
 
@@ -501,8 +685,14 @@ public class DaoWriter extends ClassWriter {
         private final String onConflict;
 
         DeleteUpdateMethodField(String prefix, ParamEntity entity, OnConflictStrategy onConflictStrategy) {
+            this(prefix, entity, onConflictStrategy, JavaPoetClass.DELETE_UPDATE_HANDLER);
+        }
+
+        DeleteUpdateMethodField(String prefix, ParamEntity entity,
+                                OnConflictStrategy onConflictStrategy,
+                                ClassName handlerType) {
             super(toName(prefix, entity, onConflictStrategy),
-                    ParameterizedTypeName.get(JavaPoetClass.DELETE_UPDATE_HANDLER,
+                    ParameterizedTypeName.get(handlerType,
                             entity.getPojo().getTypeName()));
             this.prefix = prefix;
             this.entity = entity;
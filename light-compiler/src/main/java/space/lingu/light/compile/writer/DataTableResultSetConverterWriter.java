@@ -16,15 +16,16 @@
 
 package space.lingu.light.compile.writer;
 
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.TypeName;
 import space.lingu.light.compile.JavaPoetClass;
-import space.lingu.light.compile.MethodNames;
 import space.lingu.light.compile.coder.GenerateCodeBlock;
-import space.lingu.light.compile.coder.custom.QueryContext;
 import space.lingu.light.compile.struct.DataTable;
+import space.lingu.light.compile.struct.Field;
+import space.lingu.light.util.StringUtils;
 
 import javax.lang.model.element.Modifier;
 import java.util.ArrayList;
@@ -34,14 +35,15 @@ import java.util.List;
  * @author RollW
  */
 public class DataTableResultSetConverterWriter extends ClassWriter.SharedMethodSpec {
-    private final QueryContext queryContext;
     private final DataTable table;
 
-    public DataTableResultSetConverterWriter(QueryContext queryContext,
-                                             DataTable table) {
+    /**
+     * Writes a method reading the table from a row, with indexes of
+     * its columns given by the caller, so it can be shared by queries
+     * with different result columns.
+     */
+    public DataTableResultSetConverterWriter(DataTable table) {
         super("entityResultSetConverter_" + table.getTypeName().toString());
-        // TODO:
-        this.queryContext = queryContext;
         this.table = table;
     }
 
@@ -56,33 +58,35 @@ public class DataTableResultSetConverterWriter extends ClassWriter.SharedMethodS
         ParameterSpec resSetParam = ParameterSpec
                 .builder(JavaPoetClass.JdbcNames.RESULT_SET, "resultSet")
                 .build();
+        ParameterSpec indexesParam = ParameterSpec
+                .builder(ArrayTypeName.of(TypeName.INT), "columnIndexes")
+                .build();
         builder.addParameter(resSetParam)
+                .addParameter(indexesParam)
                 .addModifiers(Modifier.PRIVATE)
                 .returns(table.getTypeName())
-                .addCode(buildConvertMethodBody(writer, resSetParam));
+                .addCode(buildConvertMethodBody(writer, resSetParam, indexesParam));
     }
 
     private CodeBlock buildConvertMethodBody(ClassWriter writer,
-                                             ParameterSpec resultSetParam) {
+                                             ParameterSpec resultSetParam,
+                                             ParameterSpec indexesParam) {
         GenerateCodeBlock block = new GenerateCodeBlock(writer);
         String tableVar = block.getTempVar("_dataTable");
         block.builder().addStatement("final $T $L", table.getTypeName(), tableVar);
         List<FieldReadWriteWriter.FieldWithNumber> fieldWithNumberList = new ArrayList<>();
 
-        table.getFields().getFields().forEach(field -> {
-            String indexVar = block.getTempVar("_resultSetIndexOf" + table.getTypeCompileType().getSimpleName());
-            block.builder()
-                    .addStatement("final $T $L = $L.$T($N, $S)",
-                            TypeName.INT, indexVar,
-                            queryContext.getHandlerVarName(),
-                            MethodNames.sGetColumnIndex,
-                            resultSetParam,
-                            field.getColumnName());
-
+        List<Field> fields = table.getFields().getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            String indexVar = block.getTempVar("_resultSetIndexOf" +
+                    StringUtils.firstUpperCase(field.getName()));
+            block.builder().addStatement("final $T $L = $N[$L]",
+                    TypeName.INT, indexVar, indexesParam, i);
             fieldWithNumberList.add(
                     new FieldReadWriteWriter.FieldWithNumber(field, indexVar)
             );
-        });
+        }
 
         FieldReadWriteWriter.readFromResultSet(tableVar, table,
                 resultSetParam.name, fieldWithNumberList, block);
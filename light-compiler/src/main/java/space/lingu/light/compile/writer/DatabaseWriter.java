@@ -51,6 +51,7 @@ public class DatabaseWriter extends ClassWriter {
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
                 .addMethod(createClearAllTablesMethod())
                 .addMethod(createRegisterTablesMethod())
+                .addMethod(createRegisterStatementsMethod())
                 .superclass(ClassName.get(database.getSuperClassElement()));
         writeDaos();
         addDaoImpl(builder);
@@ -67,6 +68,18 @@ public class DatabaseWriter extends ClassWriter {
                 .build();
     }
 
+    private MethodSpec createRegisterStatementsMethod() {
+        MethodSpec.Builder builder = MethodSpec.methodBuilder(MethodNames.sRegisterAllStatements)
+                .addComment("creates all daos, they register their statements")
+                .addModifiers(Modifier.PROTECTED, Modifier.FINAL)
+                .addAnnotation(Override.class)
+                .returns(TypeName.VOID);
+        database.getDatabaseDaoMethods().forEach(method ->
+                builder.addStatement("this.$L()",
+                        method.getElement().getSimpleName()));
+        return builder.build();
+    }
+
     private CodeBlock createRegisterRuntimeStructCode() {
         GenerateCodeBlock block = new GenerateCodeBlock(this);
         String dbConfVarName = writeDatabaseConf(block);
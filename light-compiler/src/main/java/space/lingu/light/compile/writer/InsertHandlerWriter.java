@@ -16,8 +16,10 @@
 
 package space.lingu.light.compile.writer;
 
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import space.lingu.light.OnConflictStrategy;
 import space.lingu.light.compile.JavaPoetClass;
@@ -27,7 +29,9 @@ import space.lingu.light.compile.struct.ParamEntity;
 import space.lingu.light.compile.struct.Pojo;
 
 import javax.lang.model.element.Modifier;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author RollW
@@ -36,15 +40,27 @@ public class InsertHandlerWriter {
     private final String tableName;
     private final Pojo pojo;
     private final OnConflictStrategy onConflictStrategy;
+    private final List<String> keyColumns;
 
     public InsertHandlerWriter(String tableName, Pojo pojo, OnConflictStrategy onConflictStrategy) {
+        this(tableName, pojo, onConflictStrategy, Collections.emptyList());
+    }
+
+    public InsertHandlerWriter(String tableName, Pojo pojo,
+                               OnConflictStrategy onConflictStrategy,
+                               List<String> keyColumns) {
         this.tableName = tableName;
         this.pojo = pojo;
         this.onConflictStrategy = onConflictStrategy;
+        this.keyColumns = keyColumns;
     }
 
     public InsertHandlerWriter(InsertMethod method, ParamEntity entity) {
-        this(entity.getTableName(), entity.getPojo(), method.getOnConflict());
+        this(entity.getTableName(), entity.getPojo(), method.getOnConflict(),
+                entity.getDataTable().getPrimaryKey().getFields().getFields()
+                        .stream()
+                        .map(Field::getColumnName)
+                        .collect(Collectors.toList()));
     }
 
     public TypeSpec createAnonymous(ClassWriter writer, String dbParam) {
@@ -59,22 +75,66 @@ public class InsertHandlerWriter {
         }
         AnnotatedMethodWriter delegate = new AnnotatedMethodWriter(pojo);
         TypeSpec.Builder builder = TypeSpec.anonymousClassBuilder("$L", dbParam)
-                .superclass(ParameterizedTypeName.get(JavaPoetClass.INSERT_HANDLER, pojo.getTypeName()))
+                .superclass(ParameterizedTypeName.get(JavaPoetClass.MULTI_ROW_INSERT_HANDLER, pojo.getTypeName()))
                 .addMethod(
                         MethodSpec.methodBuilder("createQuery")
                                 .addModifiers(Modifier.PUBLIC)
                                 .addAnnotation(Override.class)
                                 .returns(JavaPoetClass.LangNames.STRING)
-                                .addStatement("return $N.getDialectProvider().getGenerator().insert($S, $T.$L, $L)",
-                                        DaoWriter.DATABASE_FIELD,
-                                        tableName,
-                                        JavaPoetClass.ON_CONFLICT_STRATEGY,
-                                        onConflictStrategy,
-                                        args.toString())
+                                .addStatement("return $L", createInsert("1", args.toString()))
+                                .build())
+                .addMethod(
+                        MethodSpec.methodBuilder("createQuery")
+                                .addModifiers(Modifier.PROTECTED)
+                                .addAnnotation(Override.class)
+                                .returns(JavaPoetClass.LangNames.STRING)
+                                .addParameter(TypeName.INT, "rows")
+                                .addStatement("return $L", createInsert("rows", args.toString()))
+                                .build())
+                .addMethod(
+                        MethodSpec.methodBuilder("getParameterCount")
+                                .addModifiers(Modifier.PROTECTED)
+                                .addAnnotation(Override.class)
+                                .returns(TypeName.INT)
+                                .addStatement("return $L", fields.size())
                                 .build());
 
-        builder.addMethod(delegate.createBindMethod(writer, fields));
+        builder.addMethod(delegate.createOffsetBindMethod(writer, fields));
+        builder.addMethod(delegate.createDelegateBindMethod());
         return builder.build();
     }
 
+    private CodeBlock createInsert(String rows, String args) {
+        if (onConflictStrategy != OnConflictStrategy.REPLACE) {
+            return CodeBlock.of("$N.getDialectProvider().getGenerator().insert($S, $T.$L, $L, $L)",
+                    DaoWriter.DATABASE_FIELD,
+                    tableName,
+                    JavaPoetClass.ON_CONFLICT_STRATEGY,
+                    onConflictStrategy,
+                    rows,
+                    args);
+        }
+        // updates the conflicting row in place, keyed by the primary key,
+        // if the connected database version supports it
+        CodeBlock keys = keyColumns.stream()
+                .map(column -> CodeBlock.of("$S", column))
+                .collect(CodeBlock.joining(", "));
+        return CodeBlock.of("$N.getMetadata().supportsUpsert\n" +
+                        "? $N.getDialectProvider().getGenerator().upsert($S, new $T[]{$L}, $L, $L)\n" +
+                        ": $N.getDialectProvider().getGenerator().insert($S, $T.$L, $L, $L)",
+                DaoWriter.DATABASE_FIELD,
+                DaoWriter.DATABASE_FIELD,
+                tableName,
+                JavaPoetClass.LangNames.STRING,
+                keys,
+                rows,
+                args,
+                DaoWriter.DATABASE_FIELD,
+                tableName,
+                JavaPoetClass.ON_CONFLICT_STRATEGY,
+                OnConflictStrategy.REPLACE,
+                rows,
+                args);
+    }
+
 }
@@ -22,6 +22,8 @@ import space.lingu.light.compile.JavaPoetClass;
 import space.lingu.light.compile.MethodNames;
 import space.lingu.light.compile.coder.GenerateCodeBlock;
 import space.lingu.light.compile.struct.ExpressionBind;
+import space.lingu.light.compile.struct.KeysetPagination;
+import space.lingu.light.compile.struct.QueryMethod;
 import space.lingu.light.compile.struct.SQLCustomMethod;
 import space.lingu.light.util.Pair;
 
@@ -73,6 +75,9 @@ public class SQLCustomMethodWriter {
 
         argsSizeParams.forEach(argsArrayInitJoiner::add);
         argsArrayInitBuilder.append(argsArrayInitJoiner).append("}");
+        KeysetPagination keysetPagination = method instanceof QueryMethod
+                ? ((QueryMethod) method).getKeysetPagination()
+                : null;
 
         block.builder()
                 .addStatement("final $T $L = $L.$L()", JavaPoetClass.MANAGED_CONNECTION,
@@ -80,10 +85,18 @@ public class SQLCustomMethodWriter {
                         MethodNames.sSQLHandlerNewConnection)
                 .addStatement("final $T $L = $L",
                         ArrayTypeName.of(TypeName.INT),
-                        argCountArray, argsArrayInitBuilder.toString())
-                .addStatement("final $T $L = $L.acquire($L, $L)",
-                        JavaPoetClass.JdbcNames.PREPARED_STMT,
-                        outVarName, handlerName, connName, argCountArray);
+                        argCountArray, argsArrayInitBuilder.toString());
+        if (keysetPagination != null) {
+            // seek values and the limit are bound by the handler
+            block.builder().addStatement("final $T $L = $L.acquire($L, $L, $L)",
+                    JavaPoetClass.JdbcNames.PREPARED_STMT,
+                    outVarName, handlerName, connName, argCountArray,
+                    keysetPagination.getPageParameter().getName());
+            return pairList;
+        }
+        block.builder().addStatement("final $T $L = $L.acquire($L, $L)",
+                JavaPoetClass.JdbcNames.PREPARED_STMT,
+                outVarName, handlerName, connName, argCountArray);
         return pairList;
     }
 
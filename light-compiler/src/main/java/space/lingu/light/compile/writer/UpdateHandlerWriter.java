@@ -26,6 +26,7 @@ import space.lingu.light.compile.struct.UpdateMethod;
 
 import javax.lang.model.element.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.StringJoiner;
 import java.util.stream.IntStream;
@@ -47,6 +48,9 @@ public class UpdateHandlerWriter {
     }
 
     public TypeSpec createAnonymous(ClassWriter writer, String dbParam) {
+        if (method.isPartial()) {
+            return createPartialAnonymous(writer, dbParam);
+        }
         StringJoiner keys = new StringJoiner(", ");
         StringJoiner params = new StringJoiner(", ");
         entity.getPrimaryKey().getFields().getFields().forEach(field ->
@@ -126,4 +130,94 @@ public class UpdateHandlerWriter {
         builder.addMethod(bindMethodBuilder.build());
         return builder.build();
     }
+
+    /**
+     * Handler writing only the changed columns, bit {@code i} of
+     * the mask stands for the {@code i}-th field of the pojo.
+     */
+    private TypeSpec createPartialAnonymous(ClassWriter writer, String dbParam) {
+        StringJoiner keys = new StringJoiner(", ");
+        StringJoiner params = new StringJoiner(", ");
+        entity.getPrimaryKey().getFields().getFields().forEach(field ->
+                keys.add("\"" + field.getColumnName() + "\""));
+        List<Field> fields = pojo.getFields().getFields();
+        fields.forEach(field ->
+                params.add("\"" + field.getColumnName() + "\""));
+
+        GenerateCodeBlock queryBlock = new GenerateCodeBlock(writer);
+        ArrayTypeName stringArray =
+                ArrayTypeName.of(JavaPoetClass.LangNames.STRING);
+        String primaryKeysVar = queryBlock.getTempVar("_pKeys");
+
+        FieldSpec primaryKeysField = FieldSpec.builder(stringArray,
+                        primaryKeysVar, Modifier.PRIVATE, Modifier.FINAL)
+                .initializer("new String[]{$L}", keys.toString())
+                .build();
+
+        queryBlock.builder()
+                .addStatement("return $N.getDialectProvider().getGenerator().update($S, $T.$L, $L, changedColumns)",
+                        DaoWriter.DATABASE_FIELD, tableName,
+                        JavaPoetClass.ON_CONFLICT_STRATEGY,
+                        method.getOnConflict(),
+                        primaryKeysVar);
+
+        GenerateCodeBlock changedBlock = new GenerateCodeBlock(writer);
+        String changedVar = changedBlock.getTempVar("_changed");
+        changedBlock.builder().addStatement("$T $L = 0", TypeName.LONG, changedVar);
+        IntStream.range(0, fields.size()).forEach(value -> changedBlock.builder()
+                .beginControlFlow("if (value.isChanged($S))", fields.get(value).getName())
+                .addStatement("$L |= 1L << $L", changedVar, value)
+                .endControlFlow());
+        changedBlock.builder().addStatement("return $L", changedVar);
+
+        GenerateCodeBlock bindBlock = new GenerateCodeBlock(writer);
+        String indexVar = bindBlock.getTempVar("_index");
+        bindBlock.builder().addStatement("$T $L = 1", TypeName.INT, indexVar);
+        IntStream.range(0, fields.size()).forEach(value -> {
+            bindBlock.builder().beginControlFlow(
+                    "if ((changedColumns & (1L << $L)) != 0)", value);
+            FieldReadWriteWriter.bindToStatement("value", "stmt",
+                    Collections.singletonList(new FieldReadWriteWriter.FieldWithNumber(
+                            fields.get(value), indexVar)),
+                    bindBlock);
+            bindBlock.builder().addStatement("$L++", indexVar)
+                    .endControlFlow();
+        });
+        entity.getPrimaryKey().getFields().getFields().forEach(field -> {
+            FieldReadWriteWriter.bindToStatement("value", "stmt",
+                    Collections.singletonList(new FieldReadWriteWriter.FieldWithNumber(
+                            field, indexVar)),
+                    bindBlock);
+            bindBlock.builder().addStatement("$L++", indexVar);
+        });
+
+        return TypeSpec.anonymousClassBuilder("$L, new String[]{$L}",
+                        dbParam, params.toString())
+                .superclass(ParameterizedTypeName.get(JavaPoetClass.PARTIAL_UPDATE_HANDLER, pojo.getTypeName()))
+                .addField(primaryKeysField)
+                .addMethod(MethodSpec.methodBuilder("createQuery")
+                        .addModifiers(Modifier.PROTECTED)
+                        .addAnnotation(Override.class)
+                        .addParameter(stringArray, "changedColumns")
+                        .returns(JavaPoetClass.LangNames.STRING)
+                        .addCode(queryBlock.generate())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("changedColumns")
+                        .addModifiers(Modifier.PROTECTED)
+                        .addAnnotation(Override.class)
+                        .addParameter(pojo.getTypeName(), "value")
+                        .returns(TypeName.LONG)
+                        .addCode(changedBlock.generate())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("bind")
+                        .addModifiers(Modifier.PROTECTED)
+                        .addAnnotation(Override.class)
+                        .addParameter(JavaPoetClass.JdbcNames.PREPARED_STMT, "stmt")
+                        .addParameter(pojo.getTypeName(), "value")
+                        .addParameter(TypeName.LONG, "changedColumns")
+                        .returns(TypeName.VOID)
+                        .addCode(bindBlock.generate())
+                        .build())
+                .build();
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.compile;
+
+import org.junit.jupiter.api.Test;
+import space.lingu.light.FakeConnectionPool;
+import space.lingu.light.LightDatabase;
+import space.lingu.light.TestDatabase;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiles the DAO in {@code sample/RowDao.java} through
+ * {@link LightProcessor} and runs the generated implementation.
+ *
+ * @author RollW
+ */
+public class AsyncDaoTest {
+    private static final String[] SOURCES = {
+            "sample/Row.java", "sample/RowDao.java", "sample/RowDatabase.java"
+    };
+
+    @Test
+    public void failedFutureRollsBackTransaction() throws Exception {
+        TestDatabase database = new TestDatabase();
+        FakeConnectionPool pool = database.getPool();
+        Object dao = createDao(database);
+
+        CompletableFuture<?> future = (CompletableFuture<?>) dao.getClass()
+                .getMethod("insertThenFail", String.class)
+                .invoke(dao, "a");
+
+        assertThrows(CompletionException.class, future::join);
+        assertTrue(pool.getCommitted().isEmpty());
+        assertEquals(0, pool.getOpenConnections());
+    }
+
+    @Test
+    public void failedStatementRollsBackTransaction() throws Exception {
+        TestDatabase database = new TestDatabase();
+        FakeConnectionPool pool = database.getPool();
+        pool.failWhen(row -> row.contains("fail"));
+        Object dao = createDao(database);
+
+        CompletableFuture<?> future = invoke(dao, "insertBoth", "a", "fail");
+
+        assertThrows(CompletionException.class, future::join);
+        assertTrue(pool.getCommitted().isEmpty());
+        assertEquals(0, pool.getOpenConnections());
+    }
+
+    @Test
+    public void commitsWhenFutureCompletes() throws Exception {
+        TestDatabase database = new TestDatabase();
+        FakeConnectionPool pool = database.getPool();
+        Object dao = createDao(database);
+
+        invoke(dao, "insertBoth", "a", "b").join();
+
+        assertEquals(2, pool.getCommitted().size());
+        assertEquals(0, pool.getOpenConnections());
+    }
+
+    @Test
+    public void runsOnExecutorOutsideScope() throws Exception {
+        TestDatabase database = new TestDatabase();
+        Object dao = createDao(database);
+        Class<?> rowClass = dao.getClass().getClassLoader().loadClass("sample.Row");
+        Object row = rowClass.getConstructor(long.class, String.class)
+                .newInstance(1L, "a");
+
+        CompletableFuture<?> future = (CompletableFuture<?>) dao.getClass()
+                .getMethod("insert", rowClass)
+                .invoke(dao, row);
+        future.join();
+
+        assertEquals(1, database.getPool().getCommitted().size());
+    }
+
+    private static CompletableFuture<?> invoke(Object dao, String method,
+                                               String first, String second)
+            throws ReflectiveOperationException {
+        return (CompletableFuture<?>) dao.getClass()
+                .getMethod(method, String.class, String.class)
+                .invoke(dao, first, second);
+    }
+
+    private static Object createDao(LightDatabase database) throws Exception {
+        Path output = Files.createTempDirectory("light-async-dao");
+        ClassLoader loader = compile(output);
+        return loader.loadClass("sample.RowDao_Impl")
+                .getConstructor(LightDatabase.class)
+                .newInstance(database);
+    }
+
+    private static ClassLoader compile(Path output) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(
+                diagnostics, null, StandardCharsets.UTF_8)) {
+            List<File> files = new ArrayList<>();
+            for (String source : SOURCES) {
+                files.add(resource(source).toFile());
+            }
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", output.toString(),
+                    "-s", output.toString()
+            );
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager,
+                    diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(new LightProcessor()));
+            assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+        }
+        return new URLClassLoader(new URL[]{output.toUri().toURL()},
+                AsyncDaoTest.class.getClassLoader());
+    }
+
+    private static Path resource(String name) throws URISyntaxException {
+        URL url = AsyncDaoTest.class.getClassLoader().getResource(name);
+        assertNotNull(url, name);
+        return Paths.get(url.toURI());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sample;
+
+import space.lingu.light.DataColumn;
+import space.lingu.light.DataTable;
+import space.lingu.light.PrimaryKey;
+
+@DataTable(name = "row")
+public class Row {
+    @PrimaryKey
+    @DataColumn(name = "id")
+    private final long id;
+
+    @DataColumn(name = "name")
+    private final String name;
+
+    public Row(long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
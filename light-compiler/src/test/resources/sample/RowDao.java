@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sample;
+
+import space.lingu.light.Dao;
+import space.lingu.light.Insert;
+import space.lingu.light.Transaction;
+
+import java.util.concurrent.CompletableFuture;
+
+@Dao
+public abstract class RowDao {
+    @Insert
+    public abstract CompletableFuture<Void> insert(Row row);
+
+    @Transaction
+    public CompletableFuture<Void> insertBoth(String first, String second) {
+        return insert(new Row(1, first))
+                .thenCombine(insert(new Row(2, second)), (a, b) -> null);
+    }
+
+    @Transaction
+    public CompletableFuture<Void> insertThenFail(String name) {
+        return insert(new Row(1, name)).thenRun(() -> {
+            throw new IllegalStateException("Failed after insert.");
+        });
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import java.util.Objects;
+
+/**
+ * Batch execution options for multi-row insert, update and delete.
+ * <p>
+ * Rows are sent to the database in chunks of {@link #getChunkSize()},
+ * so memory stays bounded no matter how many rows are given.
+ *
+ * @author RollW
+ */
+public class BatchOptions {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Chunks of {@value #DEFAULT_CHUNK_SIZE} rows, all in one transaction.
+     */
+    public static final BatchOptions DEFAULT =
+            new BatchOptions(DEFAULT_CHUNK_SIZE, false);
+
+    /**
+     * Rows flushed per chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Commit after each chunk instead of once for the whole operation.
+     */
+    private final boolean transactionPerChunk;
+
+    public BatchOptions(int chunkSize, boolean transactionPerChunk) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, but got: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.transactionPerChunk = transactionPerChunk;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public boolean isTransactionPerChunk() {
+        return transactionPerChunk;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchOptions that = (BatchOptions) o;
+        return chunkSize == that.chunkSize &&
+                transactionPerChunk == that.transactionPerChunk;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(chunkSize, transactionPerChunk);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchOptions{" +
+                "chunkSize=" + chunkSize +
+                ", transactionPerChunk=" + transactionPerChunk +
+                '}';
+    }
+}
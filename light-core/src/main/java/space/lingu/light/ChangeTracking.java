@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+/**
+ * Change state of an entity, used by {@link Update#partial() partial updates}
+ * to write only the changed columns.
+ * <p>
+ * Implementations may mark fields in their setters, or compare
+ * the fields with a snapshot taken when the row was loaded.
+ * The state is not reset after an update, call your own reset
+ * method once the update succeeded.
+ *
+ * @author RollW
+ */
+public interface ChangeTracking {
+    /**
+     * Whether the field was changed since the entity was loaded.
+     *
+     * @param fieldName name of the Java field (not the column name)
+     * @return {@code true} if the column of the field needs to be written
+     */
+    boolean isChanged(String fieldName);
+}
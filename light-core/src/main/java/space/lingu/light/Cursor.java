@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light;
+
+import space.lingu.light.util.RuntimeCloseable;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A closeable cursor over query results, can be used as the
+ * return type of {@link Query} methods.
+ * <p>
+ * Rows are mapped lazily while iterating, and the connection
+ * is kept until the cursor is closed or exhausted.
+ *
+ * @author RollW
+ */
+public interface Cursor<T> extends Iterator<T>, RuntimeCloseable {
+    /**
+     * Whether the cursor is closed.
+     *
+     * @return true if closed
+     */
+    boolean isClosed();
+
+    /**
+     * Returns a sequential {@link Stream} over the remaining rows.
+     * Closing the stream closes the cursor.
+     *
+     * @return {@link Stream}
+     */
+    default Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(
+                this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(this::close);
+    }
+}
@@ -52,6 +52,16 @@ public @interface DataTable {
      */
     Index[] indices() default {};
 
+    /**
+     * Shard key column of the table. Rows are routed to a shard
+     * by the hash of this column when the database is built as a
+     * {@link space.lingu.light.shard.ShardedDatabase}.
+     * Leave it empty if the table is not sharded.
+     *
+     * @return column name of the shard key
+     */
+    String shardKey() default "";
+
     /**
      * The description of the table.
      */
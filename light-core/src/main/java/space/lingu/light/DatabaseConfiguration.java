@@ -17,8 +17,13 @@
 package space.lingu.light;
 
 import space.lingu.light.connect.ConnectionPool;
+import space.lingu.light.connect.StatementCache;
+import space.lingu.light.metrics.MetricsCollector;
 import space.lingu.light.sql.DialectProvider;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * @author RollW
  */
@@ -34,6 +39,28 @@ public class DatabaseConfiguration {
     public final LightLogger logger;
     public final LightDatabase.MigrationContainer migrationContainer;
     public final Configurations databaseConfigurations;
+    public final BatchOptions batchOptions;
+    public final QueryOptions queryOptions;
+    /**
+     * Max idle statements cached for each connection,
+     * {@code 0} disables the statement cache.
+     */
+    public final int statementCacheSize;
+    /**
+     * Executor running DAO methods returning {@code CompletableFuture},
+     * {@code null} to use {@link ForkJoinPool#commonPool()}.
+     */
+    public final Executor queryExecutor;
+    /**
+     * Receives timings of statements and connections,
+     * {@code null} to disable metrics.
+     */
+    public final MetricsCollector metricsCollector;
+    /**
+     * Options of the slow statement log,
+     * {@code null} to disable it.
+     */
+    public final SlowStatementOptions slowStatementOptions;
 
     public DatabaseConfiguration(String name,
                                  DatasourceConfig datasourceConfig,
@@ -42,6 +69,89 @@ public class DatabaseConfiguration {
                                  LightLogger logger,
                                  LightDatabase.MigrationContainer migrationContainer,
                                  Configurations databaseConfigurations) {
+        this(name, datasourceConfig, connectionPool, dialectProvider,
+                logger, migrationContainer, databaseConfigurations,
+                BatchOptions.DEFAULT, QueryOptions.DEFAULT);
+    }
+
+    public DatabaseConfiguration(String name,
+                                 DatasourceConfig datasourceConfig,
+                                 ConnectionPool connectionPool,
+                                 DialectProvider dialectProvider,
+                                 LightLogger logger,
+                                 LightDatabase.MigrationContainer migrationContainer,
+                                 Configurations databaseConfigurations,
+                                 BatchOptions batchOptions,
+                                 QueryOptions queryOptions) {
+        this(name, datasourceConfig, connectionPool, dialectProvider,
+                logger, migrationContainer, databaseConfigurations,
+                batchOptions, queryOptions,
+                StatementCache.DEFAULT_MAX_SIZE);
+    }
+
+    public DatabaseConfiguration(String name,
+                                 DatasourceConfig datasourceConfig,
+                                 ConnectionPool connectionPool,
+                                 DialectProvider dialectProvider,
+                                 LightLogger logger,
+                                 LightDatabase.MigrationContainer migrationContainer,
+                                 Configurations databaseConfigurations,
+                                 BatchOptions batchOptions,
+                                 QueryOptions queryOptions,
+                                 int statementCacheSize) {
+        this(name, datasourceConfig, connectionPool, dialectProvider,
+                logger, migrationContainer, databaseConfigurations,
+                batchOptions, queryOptions, statementCacheSize, null);
+    }
+
+    public DatabaseConfiguration(String name,
+                                 DatasourceConfig datasourceConfig,
+                                 ConnectionPool connectionPool,
+                                 DialectProvider dialectProvider,
+                                 LightLogger logger,
+                                 LightDatabase.MigrationContainer migrationContainer,
+                                 Configurations databaseConfigurations,
+                                 BatchOptions batchOptions,
+                                 QueryOptions queryOptions,
+                                 int statementCacheSize,
+                                 Executor queryExecutor) {
+        this(name, datasourceConfig, connectionPool, dialectProvider,
+                logger, migrationContainer, databaseConfigurations,
+                batchOptions, queryOptions, statementCacheSize,
+                queryExecutor, null);
+    }
+
+    public DatabaseConfiguration(String name,
+                                 DatasourceConfig datasourceConfig,
+                                 ConnectionPool connectionPool,
+                                 DialectProvider dialectProvider,
+                                 LightLogger logger,
+                                 LightDatabase.MigrationContainer migrationContainer,
+                                 Configurations databaseConfigurations,
+                                 BatchOptions batchOptions,
+                                 QueryOptions queryOptions,
+                                 int statementCacheSize,
+                                 Executor queryExecutor,
+                                 MetricsCollector metricsCollector) {
+        this(name, datasourceConfig, connectionPool, dialectProvider,
+                logger, migrationContainer, databaseConfigurations,
+                batchOptions, queryOptions, statementCacheSize,
+                queryExecutor, metricsCollector, null);
+    }
+
+    public DatabaseConfiguration(String name,
+                                 DatasourceConfig datasourceConfig,
+                                 ConnectionPool connectionPool,
+                                 DialectProvider dialectProvider,
+                                 LightLogger logger,
+                                 LightDatabase.MigrationContainer migrationContainer,
+                                 Configurations databaseConfigurations,
+                                 BatchOptions batchOptions,
+                                 QueryOptions queryOptions,
+                                 int statementCacheSize,
+                                 Executor queryExecutor,
+                                 MetricsCollector metricsCollector,
+                                 SlowStatementOptions slowStatementOptions) {
         this.name = name;
         this.datasourceConfig = datasourceConfig;
         this.connectionPool = connectionPool;
@@ -49,5 +159,15 @@ public class DatabaseConfiguration {
         this.logger = logger;
         this.migrationContainer = migrationContainer;
         this.databaseConfigurations = databaseConfigurations;
+        this.batchOptions = batchOptions == null
+                ? BatchOptions.DEFAULT
+                : batchOptions;
+        this.queryOptions = queryOptions == null
+                ? QueryOptions.DEFAULT
+                : queryOptions;
+        this.statementCacheSize = Math.max(statementCacheSize, 0);
+        this.queryExecutor = queryExecutor;
+        this.metricsCollector = metricsCollector;
+        this.slowStatementOptions = slowStatementOptions;
     }
 }
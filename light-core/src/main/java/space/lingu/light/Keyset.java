@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import java.lang.annotation.*;
+
+/**
+ * Sort key of a {@link Query} method returning {@link Slice}.
+ * <p>
+ * Pages are ordered by the columns and each page seeks past
+ * the last row of the previous one, by
+ * {@code WHERE (a, b) > (?, ?) ORDER BY a, b LIMIT ?},
+ * so deep pages cost the same as the first one given an
+ * index on the columns.
+ * <p>
+ * Without this annotation, the primary key of the result
+ * type is used in ascending order.
+ *
+ * @author RollW
+ * @see PageRequest
+ */
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Keyset {
+    /**
+     * Sort columns, together unique and not null, e.g.
+     * {@code {"create_time", "id"}}. Must be labels of the result
+     * columns, a table qualifier like {@code u.id} is allowed.
+     *
+     * @return sort columns, empty to use the primary key
+     */
+    String[] value() default {};
+
+    /**
+     * Order of all sort columns.
+     *
+     * @return {@link Order}
+     */
+    Order order() default Order.ASC;
+}
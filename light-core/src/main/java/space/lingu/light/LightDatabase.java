@@ -18,16 +18,23 @@ package space.lingu.light;
 
 
 import space.lingu.light.connect.ConnectionPool;
+import space.lingu.light.connect.StatementCache;
 import space.lingu.light.log.JdkDefaultLogger;
+import space.lingu.light.log.SlowStatementLog;
+import space.lingu.light.metrics.MetricsCollector;
 import space.lingu.light.sql.DialectProvider;
 import space.lingu.light.struct.DatabaseInfo;
 import space.lingu.light.struct.Table;
+import space.lingu.light.util.ConnectionUtils;
 import space.lingu.light.util.StringUtils;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +49,12 @@ public abstract class LightDatabase {
     private ConnectionPool connectionPool;
     private DatasourceConfig sourceConfig;
     private Executor queryExecutor;
+    private MetricsCollector metricsCollector;
+    private SlowStatementLog slowStatementLog;
+    private BatchOptions batchOptions = BatchOptions.DEFAULT;
+    private QueryOptions queryOptions = QueryOptions.DEFAULT;
+    private StatementCache statementCache;
+    private final StatementCatalog statementCatalog = new StatementCatalog();
     private String name;
 
     public final DatasourceConfig getDatasourceConfig() {
@@ -52,12 +65,116 @@ public abstract class LightDatabase {
         return connectionPool;
     }
 
+    public final BatchOptions getBatchOptions() {
+        return batchOptions;
+    }
+
+    public final QueryOptions getQueryOptions() {
+        return queryOptions;
+    }
+
     private LightLogger logger = JdkDefaultLogger.getGlobalLogger();
 
+    /**
+     * Get the prepared statement cache.
+     *
+     * @return the {@link StatementCache}, or {@code null} if disabled
+     * or the connection pool does not reuse connections.
+     * @see ConnectionPool#reusesConnections()
+     */
+    public final StatementCache getStatementCache() {
+        return statementCache;
+    }
+
     public final LightLogger getLogger() {
         return logger;
     }
 
+    /**
+     * Get the executor running DAO methods which
+     * return {@code CompletableFuture}.
+     *
+     * @return the query executor
+     */
+    public final Executor getQueryExecutor() {
+        return queryExecutor;
+    }
+
+    /**
+     * Run a DAO method returning {@code CompletableFuture} on the
+     * query executor.
+     * <p>
+     * Inside a transaction scope, the method runs on current thread
+     * and the returned future is already completed, so it takes part
+     * in the transaction of the scope.
+     *
+     * @param supplier the method body
+     * @return the future of the result
+     * @see #beginTransactionScope()
+     */
+    public final <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        if (scopedConnection.get() == null) {
+            return CompletableFuture.supplyAsync(supplier, queryExecutor);
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(supplier.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Run a DAO method returning {@code CompletableFuture<Void>},
+     * see {@link #supplyAsync(Supplier)}.
+     *
+     * @param runnable the method body
+     * @return the future of completion
+     */
+    public final CompletableFuture<Void> runAsync(Runnable runnable) {
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Get the collector receiving timings of statements and connections.
+     *
+     * @return the {@link MetricsCollector}, or {@code null} if disabled.
+     */
+    public final MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
+    /**
+     * Get the log of slow statements.
+     *
+     * @return the {@link SlowStatementLog}, or {@code null} if disabled.
+     */
+    public final SlowStatementLog getSlowStatementLog() {
+        return slowStatementLog;
+    }
+
+    /**
+     * Get the final sql of each DAO method.
+     *
+     * @return the {@link StatementCatalog}
+     */
+    public final StatementCatalog getStatementCatalog() {
+        return statementCatalog;
+    }
+
+    /**
+     * Do not call this method in your program!
+     * <p>
+     * Called by the DAO implementations when they are created.
+     */
+    public final void registerStatement(String daoName, String signature, String sql) {
+        statementCatalog.register(daoName, signature, sql);
+    }
+
     /**
      * Do not implement or call this method in your program!
      */
@@ -85,13 +202,30 @@ public abstract class LightDatabase {
             this.logger = conf.logger;
         }
         this.dialectProvider = conf.dialectProvider;
+        this.batchOptions = conf.batchOptions;
+        this.queryOptions = conf.queryOptions;
+        // statements of connections never reused would not be hit again
+        if (conf.statementCacheSize > 0 && conf.connectionPool.reusesConnections()) {
+            this.statementCache = new StatementCache(conf.statementCacheSize);
+        }
+        this.queryExecutor = conf.queryExecutor == null
+                ? ForkJoinPool.commonPool()
+                : conf.queryExecutor;
+        this.metricsCollector = conf.metricsCollector;
+        this.slowStatementLog = conf.slowStatementOptions == null
+                ? null
+                : new SlowStatementLog(this, conf.slowStatementOptions);
 
         ConnectionPool connectionPool = conf.connectionPool;
         connectionPool.setLogger(logger);
+        if (metricsCollector != null) {
+            connectionPool.setMetricsCollector(metricsCollector);
+        }
         connectionPool.setDatasourceConfig(sourceConfig);
         this.connectionPool = connectionPool;
 
         mDatabaseInfo = new DatabaseInfo(name, conf.databaseConfigurations);
+        connectionInitSql = dialectProvider.initConnectionEnvironment(mDatabaseInfo);
 
         if (!checkContainsDatabase()) {
             createDatabase(mDatabaseInfo);
@@ -109,6 +243,7 @@ public abstract class LightDatabase {
 
         createTables();
         createIndices();
+        registerAllStatements();
     }
 
     private boolean checkContainsDatabase() {
@@ -126,6 +261,13 @@ public abstract class LightDatabase {
     protected void registerAllTables() {
     }
 
+    /**
+     * Creates all DAOs, so that their sql is resolved once
+     * and registered to the {@link StatementCatalog}.
+     */
+    protected void registerAllStatements() {
+    }
+
     protected void createDatabase(DatabaseInfo info) {
         final String sql = dialectProvider.create(info);
         if (sql == null) {
@@ -228,24 +370,147 @@ public abstract class LightDatabase {
         return connectionPool.requireConnection();
     }
 
+    /**
+     * Physical connections already initialized by
+     * {@link DialectProvider#initConnectionEnvironment(DatabaseInfo)}.
+     * Keyed by identity, closed connections are dropped when
+     * a new connection is initialized.
+     */
+    private final Set<Connection> initializedConnections =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+    private String connectionInitSql;
+
     public Connection requireConnection() throws LightRuntimeException {
-        Connection rawConnection = rawConnection();
-        String initEnvConn = getDialectProvider().initConnectionEnvironment(mDatabaseInfo);
-        if (initEnvConn == null) {
+        return initConnection(rawConnection());
+    }
+
+    /**
+     * Require a connection for read-only statements, may be
+     * a connection to a read replica.
+     *
+     * @see ConnectionPool#requireReadConnection()
+     */
+    public Connection requireReadConnection() throws LightRuntimeException {
+        checkConnectionPool();
+        return initConnection(connectionPool.requireReadConnection());
+    }
+
+    private Connection initConnection(Connection rawConnection) {
+        if (connectionInitSql == null) {
             return rawConnection;
         }
-        try {
-            PreparedStatement initStmt = rawConnection.prepareStatement(initEnvConn);
+        Connection physical = ConnectionUtils.unwrapPhysical(rawConnection);
+        synchronized (initializedConnections) {
+            if (initializedConnections.contains(physical)) {
+                return rawConnection;
+            }
+        }
+        try (PreparedStatement initStmt = rawConnection.prepareStatement(connectionInitSql)) {
             initStmt.execute();
-            initStmt.close();
         } catch (SQLException e) {
+            releaseConnection(rawConnection);
             throw new LightRuntimeException(e);
         }
+        synchronized (initializedConnections) {
+            initializedConnections.removeIf(ConnectionUtils::isClosed);
+            initializedConnections.add(physical);
+        }
         return rawConnection;
     }
 
+    private final ThreadLocal<ManagedConnection> scopedConnection =
+            new ThreadLocal<>();
+
+    /**
+     * Require a {@link ManagedConnection}. Returns the connection
+     * of current transaction scope if there is one.
+     *
+     * @see #beginTransactionScope()
+     */
     public ManagedConnection requireManagedConnection() throws LightRuntimeException {
-        return new ManagedConnection(this);
+        return requireManagedConnection(MetricsCollector.UNTAGGED);
+    }
+
+    /**
+     * Require a managed connection for the DAO method.
+     *
+     * @param tag tag of the DAO method reported to the {@link MetricsCollector}
+     */
+    public ManagedConnection requireManagedConnection(String tag) throws LightRuntimeException {
+        return requireManagedConnection(tag, false);
+    }
+
+    /**
+     * Require a managed connection for the DAO method.
+     *
+     * @param tag      tag of the DAO method reported to the {@link MetricsCollector}
+     * @param readOnly whether only read-only statements are run on it. Such
+     *                 connections may go to a read replica, unless there is
+     *                 a transaction scope.
+     * @see ConnectionPool#requireReadConnection()
+     */
+    public ManagedConnection requireManagedConnection(String tag, boolean readOnly)
+            throws LightRuntimeException {
+        ManagedConnection scoped = scopedConnection.get();
+        if (scoped != null) {
+            scoped.setMetricsTag(tag);
+            return scoped;
+        }
+        return new ManagedConnection(this, tag, readOnly);
+    }
+
+    /**
+     * Begin a transaction scope on current thread.
+     * <p>
+     * Until the outermost scope ends, all connections required on
+     * this thread share one connection and one transaction. Scopes
+     * can be nested, only the outermost one commits or rolls back.
+     * Must be paired with {@link #endTransactionScope(ManagedConnection, boolean)}.
+     *
+     * @return the connection bound to the scope
+     */
+    public ManagedConnection beginTransactionScope() throws LightRuntimeException {
+        ManagedConnection connection = scopedConnection.get();
+        if (connection == null) {
+            connection = new ManagedConnection(this);
+            try {
+                connection.beginTransaction();
+            } catch (RuntimeException e) {
+                try {
+                    connection.close();
+                } catch (RuntimeException closeError) {
+                    e.addSuppressed(closeError);
+                }
+                throw e;
+            }
+            scopedConnection.set(connection);
+        }
+        connection.enterScope();
+        return connection;
+    }
+
+    /**
+     * End a transaction scope begun by {@link #beginTransactionScope()}.
+     * <p>
+     * The transaction is rolled back if any scope ended without success,
+     * or any operation inside has rolled back.
+     *
+     * @param connection the connection returned by {@link #beginTransactionScope()}
+     * @param success    whether the scope completed normally
+     * @throws LightRuntimeException if the scope completed normally,
+     *                               but the transaction was rolled back.
+     */
+    public void endTransactionScope(ManagedConnection connection,
+                                    boolean success) throws LightRuntimeException {
+        if (!connection.exitScope(success)) {
+            return;
+        }
+        scopedConnection.remove();
+        boolean committed = connection.completeScope();
+        if (success && !committed) {
+            throw new LightRuntimeException("Transaction rolled back " +
+                    "since an operation in it has failed.");
+        }
     }
 
     public void releaseConnection(Connection connection) throws LightRuntimeException, NullPointerException {
@@ -322,6 +587,9 @@ public abstract class LightDatabase {
                 if (metadata == null) {
                     boolean supportsBatch;
                     boolean supportsTransaction;
+                    boolean supportsBatchGeneratedKeys;
+                    int maxBindParameters;
+                    boolean supportsUpsert;
                     try {
                         Connection connection =
                                 getConnectionPool().requireConnection();
@@ -331,12 +599,23 @@ public abstract class LightDatabase {
                                 databaseMetaData.supportsBatchUpdates();
                         supportsTransaction =
                                 databaseMetaData.supportsTransactions();
+                        supportsBatchGeneratedKeys = supportsBatch &&
+                                databaseMetaData.supportsGetGeneratedKeys() &&
+                                dialectProvider.supportsBatchGeneratedKeys();
+                        int majorVersion = databaseMetaData.getDatabaseMajorVersion();
+                        int minorVersion = databaseMetaData.getDatabaseMinorVersion();
+                        maxBindParameters = dialectProvider.getMaxBindParameters(
+                                majorVersion, minorVersion);
+                        supportsUpsert = dialectProvider.supportsUpsert(
+                                majorVersion, minorVersion);
                         getConnectionPool().release(connection);
                     } catch (SQLException e) {
                         throw new LightRuntimeException(e);
                     }
 
-                    metadata = new Metadata(supportsBatch, supportsTransaction);
+                    metadata = new Metadata(supportsBatch, supportsTransaction,
+                            supportsBatchGeneratedKeys, maxBindParameters,
+                            supportsUpsert);
                 }
             }
         }
@@ -347,10 +626,21 @@ public abstract class LightDatabase {
     public static class Metadata {
         public final boolean supportsBatch;
         public final boolean supportsTransaction;
+        public final boolean supportsBatchGeneratedKeys;
+        public final int maxBindParameters;
+        /**
+         * @see DialectProvider#supportsUpsert(int, int)
+         */
+        public final boolean supportsUpsert;
 
-        Metadata(boolean supportsBatch, boolean supportsTransaction) {
+        Metadata(boolean supportsBatch, boolean supportsTransaction,
+                 boolean supportsBatchGeneratedKeys, int maxBindParameters,
+                 boolean supportsUpsert) {
             this.supportsBatch = supportsBatch;
             this.supportsTransaction = supportsTransaction;
+            this.supportsBatchGeneratedKeys = supportsBatchGeneratedKeys;
+            this.maxBindParameters = maxBindParameters;
+            this.supportsUpsert = supportsUpsert;
         }
     }
 
@@ -438,6 +728,12 @@ public abstract class LightDatabase {
         private DatasourceConfig datasourceConfig;
         private ConnectionPool connectionPool;
         private LightLogger logger;
+        private BatchOptions batchOptions = BatchOptions.DEFAULT;
+        private QueryOptions queryOptions = QueryOptions.DEFAULT;
+        private int statementCacheSize = StatementCache.DEFAULT_MAX_SIZE;
+        private Executor queryExecutor;
+        private MetricsCollector metricsCollector;
+        private SlowStatementOptions slowStatementOptions;
 
         Builder(Class<T> clazz, DialectProvider provider) {
             if (clazz == null || provider == null) {
@@ -462,6 +758,86 @@ public abstract class LightDatabase {
             return this;
         }
 
+        /**
+         * Set how multi-row insert, update and delete are batched.
+         *
+         * @param batchOptions {@link BatchOptions}
+         * @return this
+         */
+        public Builder<T> setBatchOptions(BatchOptions batchOptions) {
+            this.batchOptions = batchOptions;
+            return this;
+        }
+
+        /**
+         * Set default statement options of queries. Options set
+         * on {@link Query} take precedence.
+         *
+         * @param queryOptions {@link QueryOptions}
+         * @return this
+         */
+        public Builder<T> setQueryOptions(QueryOptions queryOptions) {
+            this.queryOptions = queryOptions;
+            return this;
+        }
+
+        /**
+         * Set max idle prepared statements cached for each connection.
+         * Set to {@code 0} to disable the statement cache.
+         *
+         * @param statementCacheSize max cached statements per connection
+         * @return this
+         * @see StatementCache
+         */
+        public Builder<T> setStatementCacheSize(int statementCacheSize) {
+            this.statementCacheSize = statementCacheSize;
+            return this;
+        }
+
+        /**
+         * Set the executor running DAO methods which return
+         * {@code CompletableFuture}. Defaults to
+         * {@link ForkJoinPool#commonPool()}.
+         * <p>
+         * Each task holds a connection while it runs, so a bounded pool
+         * no larger than the connection pool, or a virtual thread
+         * executor, fits better than the common pool.
+         *
+         * @param queryExecutor the executor, {@code null} to use the default.
+         * @return this
+         */
+        public Builder<T> setQueryExecutor(Executor queryExecutor) {
+            this.queryExecutor = queryExecutor;
+            return this;
+        }
+
+        /**
+         * Set the collector receiving timings of connection acquire,
+         * statement prepare and execute, row mapping and batches,
+         * tagged by DAO method. Metrics are disabled by default.
+         *
+         * @param metricsCollector the collector, {@code null} to disable.
+         * @return this
+         * @see space.lingu.light.metrics.HistogramMetricsCollector
+         */
+        public Builder<T> setMetricsCollector(MetricsCollector metricsCollector) {
+            this.metricsCollector = metricsCollector;
+            return this;
+        }
+
+        /**
+         * Log statements running longer than the threshold, with
+         * their sql, bound parameters and DAO method. Disabled
+         * by default.
+         *
+         * @param slowStatementOptions the options, {@code null} to disable.
+         * @return this
+         */
+        public Builder<T> setSlowStatementOptions(SlowStatementOptions slowStatementOptions) {
+            this.slowStatementOptions = slowStatementOptions;
+            return this;
+        }
+
         @LightExperimentalApi
         public Builder<T> addMigrations(Migration... migrations) {
             migrationContainer.addMigrations(migrations);
@@ -533,7 +909,13 @@ public abstract class LightDatabase {
                     dialectProvider,
                     logger,
                     migrationContainer,
-                    configurations
+                    configurations,
+                    batchOptions,
+                    queryOptions,
+                    statementCacheSize,
+                    queryExecutor,
+                    metricsCollector,
+                    slowStatementOptions
             );
         }
 
@@ -18,7 +18,10 @@ package space.lingu.light;
 
 import space.lingu.light.connect.ConnectionWrapped;
 import space.lingu.light.connect.LightProxyConnection;
+import space.lingu.light.connect.StatementCache;
 import space.lingu.light.connect.StatementReg;
+import space.lingu.light.log.SlowStatementLog;
+import space.lingu.light.metrics.MetricsCollector;
 import space.lingu.light.util.RuntimeCloseable;
 
 import java.sql.Connection;
@@ -43,18 +46,112 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
     private final LightProxyConnection connection;
     private final LightDatabase.Metadata metadata;
     private final Map<Statement, byte[]> statements = new ConcurrentHashMap<>();
+    private final StatementCache statementCache;
+    private final MetricsCollector metricsCollector;
+    private final SlowStatementLog slowStatementLog;
+    private String metricsTag;
+
+    /**
+     * Depth of transaction scopes this connection is bound to.
+     * While inside a scope, transaction control and release are
+     * deferred to the outermost scope.
+     */
+    private int scopeDepth;
+    private boolean rollbackOnly;
 
     public ManagedConnection(LightDatabase database) {
+        this(database, MetricsCollector.UNTAGGED);
+    }
+
+    /**
+     * @param tag tag of the DAO method reported to the {@link MetricsCollector}
+     */
+    public ManagedConnection(LightDatabase database, String tag) {
+        this(database, tag, false);
+    }
+
+    /**
+     * @param tag      tag of the DAO method reported to the {@link MetricsCollector}
+     * @param readOnly whether only read-only statements are run on it,
+     *                 see {@link LightDatabase#requireReadConnection()}
+     */
+    public ManagedConnection(LightDatabase database, String tag, boolean readOnly) {
         this.database = database;
-        this.connection = new LightProxyConnection(
-                this,
-                database.requireConnection()
-        );
+        this.metricsCollector = database.getMetricsCollector();
+        this.slowStatementLog = database.getSlowStatementLog();
+        this.metricsTag = tag == null ? MetricsCollector.UNTAGGED : tag;
+        // metadata may require a connection the first time, get it
+        // first for pools that hand out only one connection at a time
         this.metadata = database.getMetadata();
+        if (metricsCollector == null) {
+            this.connection = new LightProxyConnection(
+                    this,
+                    requireConnection(database, readOnly)
+            );
+        } else {
+            final long start = System.nanoTime();
+            this.connection = new LightProxyConnection(
+                    this,
+                    requireConnection(database, readOnly)
+            );
+            metricsCollector.onConnectionAcquire(metricsTag,
+                    System.nanoTime() - start);
+        }
+        this.statementCache = database.getStatementCache();
+    }
+
+    private static Connection requireConnection(LightDatabase database,
+                                                boolean readOnly) {
+        return readOnly
+                ? database.requireReadConnection()
+                : database.requireConnection();
     }
 
+    /**
+     * Acquire a prepared statement. It is taken from the statement
+     * cache of the database if enabled, and returned to the cache
+     * when released.
+     *
+     * @see LightDatabase#getStatementCache()
+     */
     public PreparedStatement acquire(String sql, boolean returnsGeneratedKey) {
+        if (metricsCollector == null) {
+            return prepare(sql, returnsGeneratedKey);
+        }
+        final long start = System.nanoTime();
+        PreparedStatement statement = prepare(sql, returnsGeneratedKey);
+        metricsCollector.onStatementPrepare(metricsTag,
+                System.nanoTime() - start);
+        return statement;
+    }
+
+    /**
+     * Acquire a prepared statement bypassing the statement cache,
+     * for statements unlikely to run again. It is closed when
+     * released or when the connection closes.
+     */
+    public PreparedStatement acquireUncached(String sql) {
+        if (metricsCollector == null) {
+            return prepare(sql, false, false);
+        }
+        final long start = System.nanoTime();
+        PreparedStatement statement = prepare(sql, false, false);
+        metricsCollector.onStatementPrepare(metricsTag,
+                System.nanoTime() - start);
+        return statement;
+    }
+
+    private PreparedStatement prepare(String sql, boolean returnsGeneratedKey) {
+        return prepare(sql, returnsGeneratedKey, true);
+    }
+
+    private PreparedStatement prepare(String sql, boolean returnsGeneratedKey,
+                                      boolean cached) {
         try {
+            if (cached && statementCache != null) {
+                return connection.prepareCachedStatement(
+                        statementCache, sql, returnsGeneratedKey);
+            }
             if (returnsGeneratedKey) {
                 return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             }
@@ -160,6 +257,39 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
         return metadata;
     }
 
+    /**
+     * Get the collector receiving timings of statements on this connection.
+     *
+     * @return the {@link MetricsCollector}, or {@code null} if disabled.
+     */
+    public MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
+    /**
+     * Get the log of slow statements on this connection.
+     *
+     * @return the {@link SlowStatementLog}, or {@code null} if disabled.
+     */
+    public SlowStatementLog getSlowStatementLog() {
+        return slowStatementLog;
+    }
+
+    /**
+     * Get the tag of the DAO method currently using the connection.
+     */
+    public String getMetricsTag() {
+        return metricsTag;
+    }
+
+    /**
+     * Set the tag of the DAO method using the connection. A connection
+     * bound to a transaction scope is used by several methods in turn.
+     */
+    public void setMetricsTag(String tag) {
+        this.metricsTag = tag == null ? MetricsCollector.UNTAGGED : tag;
+    }
+
     /**
      * Get the raw connection, but notice that you should not manually close it.
      * <p>
@@ -175,7 +305,7 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
      * Begin transaction if database supports.
      */
     public void beginTransaction() {
-        if (notSupportTransaction()) {
+        if (notSupportTransaction() || inTransactionScope()) {
             return;
         }
         autoCommit(false);
@@ -186,7 +316,7 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
      * and close the transaction.
      */
     public void commit() {
-        if (notSupportTransaction()) {
+        if (notSupportTransaction() || inTransactionScope()) {
             return;
         }
         if (connection == null) {
@@ -211,8 +341,15 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
     /**
      * Rollback current transaction if database supports,
      * and close the transaction.
+     * <p>
+     * Inside a transaction scope, marks the whole scope
+     * to be rolled back when it ends.
      */
     public void rollback() {
+        if (inTransactionScope()) {
+            rollbackOnly = true;
+            return;
+        }
         if (notSupportTransaction()) {
             return;
         }
@@ -230,7 +367,10 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
 
     /**
      * Release the connection, will also close all
-     * {@link Statement}s on the connection.
+     * {@link Statement}s on the connection. Cached statements
+     * are reset and returned to the cache instead.
+     * <p>
+     * Inside a transaction scope, only the statements are closed.
      *
      * @throws LightRuntimeException if release connection failed.
      */
@@ -243,7 +383,56 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
                 // ignored
             }
         }
-        database.releaseConnection(connection);
+        statements.clear();
+        if (inTransactionScope()) {
+            return;
+        }
+        // release the connection given by the pool, not the proxy
+        database.releaseConnection(connection.getDelegate());
+    }
+
+    /**
+     * Whether the connection is bound to a transaction scope.
+     *
+     * @see LightDatabase#beginTransactionScope()
+     */
+    public boolean inTransactionScope() {
+        return scopeDepth > 0;
+    }
+
+    void enterScope() {
+        scopeDepth++;
+    }
+
+    /**
+     * @return true if the outermost scope was exited
+     */
+    boolean exitScope(boolean success) {
+        if (!success) {
+            rollbackOnly = true;
+        }
+        return --scopeDepth == 0;
+    }
+
+    /**
+     * Commit or rollback the scoped transaction and release
+     * the connection. Called after the outermost scope exited.
+     *
+     * @return true if the transaction was committed
+     */
+    boolean completeScope() {
+        boolean rollback = rollbackOnly;
+        rollbackOnly = false;
+        try {
+            if (rollback) {
+                rollback();
+            } else {
+                commit();
+            }
+        } finally {
+            close();
+        }
+        return !rollback;
     }
 
     /**
@@ -260,6 +449,14 @@ public class ManagedConnection implements RuntimeCloseable, StatementReg, Connec
         }
     }
 
+    /**
+     * Stop managing the statement, it will not be closed when
+     * the connection closes and should be closed by the caller.
+     */
+    public void detach(Statement statement) {
+        statements.remove(statement);
+    }
+
     /**
      * Alias for {@link #close()}.
      */
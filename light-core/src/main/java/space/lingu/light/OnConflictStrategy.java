@@ -29,9 +29,24 @@ public enum OnConflictStrategy {
 
     /**
      * Replace with new value.
+     * <p>
+     * Inserts are generated as upserts, which update the
+     * conflicting row in place, like {@code INSERT ... ON DUPLICATE
+     * KEY UPDATE} in MySQL, {@code INSERT ... ON CONFLICT DO UPDATE}
+     * in SQLite and {@code MERGE INTO} in H2.
      */
     REPLACE,
 
+    /**
+     * Delete the conflicting row and insert the new one, like
+     * {@code REPLACE INTO}.
+     * <p>
+     * Unlike {@link #REPLACE}, the row is a new one: secondary
+     * indices are rewritten, delete cascades are fired and
+     * an auto-increment key gets a new value.
+     */
+    DELETE_INSERT,
+
     /**
      * Ignore it.
      */
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import java.util.Objects;
+
+/**
+ * Requests a page of a {@link Query} method returning {@link Slice}.
+ *
+ * @author RollW
+ * @see Keyset
+ */
+public final class PageRequest {
+    private final int size;
+
+    /**
+     * Continuation token of the previous slice,
+     * or {@code null} for the first page.
+     */
+    private final String token;
+
+    private PageRequest(int size, String token) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive, but got: " + size);
+        }
+        this.size = size;
+        this.token = token;
+    }
+
+    /**
+     * Request the first page.
+     *
+     * @param size max rows of the page
+     * @return the request
+     */
+    public static PageRequest first(int size) {
+        return new PageRequest(size, null);
+    }
+
+    /**
+     * Request the page after the one the token was returned with.
+     *
+     * @param size  max rows of the page
+     * @param token {@link Slice#getNextToken()}, {@code null} for the first page
+     * @return the request
+     */
+    public static PageRequest after(int size, String token) {
+        return new PageRequest(size, token);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isFirst() {
+        return token == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PageRequest that = (PageRequest) o;
+        return size == that.size && Objects.equals(token, that.token);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, token);
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{" +
+                "size=" + size +
+                ", token='" + token + '\'' +
+                '}';
+    }
+}
@@ -33,4 +33,34 @@ public @interface Query {
      * @return SQL query statement to be executed
      */
     String value();
+
+    /**
+     * JDBC fetch size of the statement.
+     * <p>
+     * {@link QueryOptions#UNSET} uses the database default.
+     *
+     * @return fetch size
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    int fetchSize() default QueryOptions.UNSET;
+
+    /**
+     * Limit of rows the statement returns.
+     * <p>
+     * {@link QueryOptions#UNSET} uses the database default.
+     *
+     * @return max rows
+     * @see java.sql.Statement#setMaxRows(int)
+     */
+    int maxRows() default QueryOptions.UNSET;
+
+    /**
+     * Seconds to wait for the statement to execute.
+     * <p>
+     * {@link QueryOptions#UNSET} uses the database default.
+     *
+     * @return query timeout in seconds
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    int queryTimeout() default QueryOptions.UNSET;
 }
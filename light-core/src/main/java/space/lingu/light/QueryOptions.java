@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light;
+
+import java.util.Objects;
+
+/**
+ * Statement options applied to queries.
+ * <p>
+ * A value of {@link #UNSET} leaves the option to the database
+ * default, or to the driver if the default is also unset.
+ *
+ * @author RollW
+ */
+public class QueryOptions {
+    public static final int UNSET = -1;
+
+    /**
+     * All options unset.
+     */
+    public static final QueryOptions DEFAULT =
+            new QueryOptions(UNSET, UNSET, UNSET);
+
+    /**
+     * See {@link java.sql.Statement#setFetchSize(int)}.
+     */
+    private final int fetchSize;
+
+    /**
+     * See {@link java.sql.Statement#setMaxRows(int)}.
+     */
+    private final int maxRows;
+
+    /**
+     * Query timeout in seconds.
+     * See {@link java.sql.Statement#setQueryTimeout(int)}.
+     */
+    private final int queryTimeout;
+
+    public QueryOptions(int fetchSize, int maxRows, int queryTimeout) {
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.queryTimeout = queryTimeout;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public int getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public boolean isUnset() {
+        return fetchSize == UNSET && maxRows == UNSET &&
+                queryTimeout == UNSET;
+    }
+
+    /**
+     * Fill the unset options of this with the given defaults.
+     *
+     * @param defaults default options
+     * @return merged options
+     */
+    public QueryOptions withDefaults(QueryOptions defaults) {
+        if (defaults == null || defaults.isUnset()) {
+            return this;
+        }
+        return new QueryOptions(
+                fetchSize == UNSET ? defaults.fetchSize : fetchSize,
+                maxRows == UNSET ? defaults.maxRows : maxRows,
+                queryTimeout == UNSET ? defaults.queryTimeout : queryTimeout
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryOptions that = (QueryOptions) o;
+        return fetchSize == that.fetchSize &&
+                maxRows == that.maxRows &&
+                queryTimeout == that.queryTimeout;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fetchSize, maxRows, queryTimeout);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryOptions{" +
+                "fetchSize=" + fetchSize +
+                ", maxRows=" + maxRows +
+                ", queryTimeout=" + queryTimeout +
+                '}';
+    }
+}
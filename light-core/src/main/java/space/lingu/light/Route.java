@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light;
+
+import java.lang.annotation.*;
+
+/**
+ * Route the statements of a {@link Query} method to the primary
+ * or to a replica, overriding {@link RouteTarget#AUTO}.
+ * <p>
+ * Only takes effect outside transactions and with a pool
+ * having read replicas. Statements inside a transaction,
+ * and of insert, update and delete methods, always go to the primary.
+ *
+ * @author RollW
+ * @see space.lingu.light.connect.ReadWriteConnectionPool
+ */
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Route {
+    RouteTarget value();
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light;
+
+/**
+ * Where the statements of a {@link Query} method are routed
+ * when the pool has read replicas.
+ *
+ * @author RollW
+ * @see Route
+ * @see space.lingu.light.connect.ReadWriteConnectionPool
+ */
+public enum RouteTarget {
+    /**
+     * Replicas for {@code SELECT} statements, the primary for others.
+     */
+    AUTO,
+
+    /**
+     * Always the primary, for reads that must see the latest writes.
+     */
+    PRIMARY,
+
+    /**
+     * Always a replica.
+     */
+    REPLICA
+}
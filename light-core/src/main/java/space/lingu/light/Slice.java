@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A page of rows returned by a {@link Query} method with
+ * a {@link PageRequest} parameter.
+ * <p>
+ * Unlike an offset page, it has no total count or page number,
+ * the next page is requested by the opaque {@link #getNextToken()}.
+ *
+ * @author RollW
+ * @see Keyset
+ */
+public final class Slice<T> implements Iterable<T> {
+    private final List<T> content;
+    private final int size;
+    private final String nextToken;
+
+    public Slice(List<T> content, int size, String nextToken) {
+        this.content = Collections.unmodifiableList(content);
+        this.size = size;
+        this.nextToken = nextToken;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Get the requested page size.
+     *
+     * @return page size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the continuation token of the next page, built from
+     * the sort key of the last row.
+     *
+     * @return the token, or {@code null} if this is the last page.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Whether there may be a next page. A full page always has
+     * one, which may be empty.
+     *
+     * @return true if there may be a next page
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    /**
+     * Request the page after this one, with the same size.
+     *
+     * @return the request, or {@code null} if this is the last page.
+     */
+    public PageRequest nextPageRequest() {
+        if (nextToken == null) {
+            return null;
+        }
+        return PageRequest.after(size, nextToken);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "Slice{" +
+                "content=" + content +
+                ", size=" + size +
+                ", nextToken='" + nextToken + '\'' +
+                '}';
+    }
+}
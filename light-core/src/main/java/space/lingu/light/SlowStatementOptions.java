@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light;
+
+import java.util.Objects;
+
+/**
+ * Options of the slow statement log.
+ * <p>
+ * Statements running longer than {@link #getThresholdMillis()} are
+ * logged in warn level with their sql, bound parameters and DAO method.
+ * At most {@link #getMaxLogsPerSecond()} are logged each second, the
+ * rest are counted and reported with the next logged one.
+ *
+ * @author RollW
+ * @see LightDatabase.Builder#setSlowStatementOptions(SlowStatementOptions)
+ */
+public class SlowStatementOptions {
+    public static final int DEFAULT_MAX_LOGS_PER_SECOND = 10;
+
+    /**
+     * Elapsed time in milliseconds above which a statement is slow.
+     */
+    private final long thresholdMillis;
+
+    /**
+     * Slow statements logged per second at most.
+     */
+    private final int maxLogsPerSecond;
+
+    public SlowStatementOptions(long thresholdMillis) {
+        this(thresholdMillis, DEFAULT_MAX_LOGS_PER_SECOND);
+    }
+
+    public SlowStatementOptions(long thresholdMillis, int maxLogsPerSecond) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative, but got: " + thresholdMillis);
+        }
+        if (maxLogsPerSecond <= 0) {
+            throw new IllegalArgumentException("Max logs per second must be positive, but got: " + maxLogsPerSecond);
+        }
+        this.thresholdMillis = thresholdMillis;
+        this.maxLogsPerSecond = maxLogsPerSecond;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public int getMaxLogsPerSecond() {
+        return maxLogsPerSecond;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SlowStatementOptions that = (SlowStatementOptions) o;
+        return thresholdMillis == that.thresholdMillis &&
+                maxLogsPerSecond == that.maxLogsPerSecond;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(thresholdMillis, maxLogsPerSecond);
+    }
+
+    @Override
+    public String toString() {
+        return "SlowStatementOptions{" +
+                "thresholdMillis=" + thresholdMillis +
+                ", maxLogsPerSecond=" + maxLogsPerSecond +
+                '}';
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Read-only catalog of the final sql of each DAO method, resolved
+ * once when the database is built.
+ * <p>
+ * Statements of query methods are listed as prepared when every
+ * template parameter is a single value, collection parameters
+ * expand to one placeholder for each element when executed.
+ * Keyset paged methods list the statement of the first page and
+ * the statement of the following pages.
+ * <p>
+ * Methods are identified by their signatures, like
+ * {@code get(long)}, so overloads are listed separately.
+ *
+ * @author RollW
+ */
+public final class StatementCatalog {
+    private final List<Statement> statements = new CopyOnWriteArrayList<>();
+
+    StatementCatalog() {
+    }
+
+    void register(String daoName, String signature, String sql) {
+        statements.add(new Statement(daoName, signature, sql));
+    }
+
+    /**
+     * Get all statements in the catalog.
+     *
+     * @return an unmodifiable list of statements
+     */
+    public List<Statement> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Get statements of the DAO.
+     *
+     * @param daoClass the DAO class
+     * @return an unmodifiable list of statements, empty if not found.
+     */
+    public List<Statement> getStatements(Class<?> daoClass) {
+        return getStatements(daoClass.getCanonicalName());
+    }
+
+    /**
+     * Get statements of the DAO.
+     *
+     * @param daoName qualified name of the DAO
+     * @return an unmodifiable list of statements, empty if not found.
+     */
+    public List<Statement> getStatements(String daoName) {
+        List<Statement> result = new ArrayList<>();
+        for (Statement statement : statements) {
+            if (statement.daoName.equals(daoName)) {
+                result.add(statement);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Get statements of the DAO method. A method taking several
+     * entity types has one statement for each of them.
+     *
+     * @param daoClass the DAO class
+     * @param method   signature of the method, like {@code get(long)},
+     *                 or its name to get statements of all overloads
+     * @return an unmodifiable list of statements, empty if not found.
+     */
+    public List<Statement> getStatements(Class<?> daoClass, String method) {
+        List<Statement> result = new ArrayList<>();
+        for (Statement statement : getStatements(daoClass)) {
+            if (statement.signature.equals(method) ||
+                    statement.getMethodName().equals(method)) {
+                result.add(statement);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * A statement of a DAO method.
+     */
+    public static final class Statement {
+        private final String daoName;
+        private final String signature;
+        private final String sql;
+
+        Statement(String daoName, String signature, String sql) {
+            this.daoName = daoName;
+            this.signature = signature;
+            this.sql = sql;
+        }
+
+        /**
+         * @return qualified name of the DAO
+         */
+        public String getDaoName() {
+            return daoName;
+        }
+
+        public String getMethodName() {
+            int index = signature.indexOf('(');
+            return index < 0 ? signature : signature.substring(0, index);
+        }
+
+        /**
+         * @return signature of the method, like {@code get(long)}
+         */
+        public String getSignature() {
+            return signature;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        @Override
+        public String toString() {
+            return daoName + "#" + signature + ": " + sql;
+        }
+    }
+}
@@ -33,4 +33,18 @@ public @interface Update {
      * @return {@link OnConflictStrategy on conflict strategy}
      */
     OnConflictStrategy onConflict() default OnConflictStrategy.ABORT;
+
+    /**
+     * Whether to write only the changed columns.
+     * <p>
+     * The entity must implement {@link ChangeTracking}. The
+     * {@code SET} clause then lists only the changed columns,
+     * one statement is created and cached for each set of changed
+     * columns. Entities without changes are skipped.
+     * <p>
+     * Tables with more than 64 columns are not supported.
+     *
+     * @return {@code true} if only writes the changed columns
+     */
+    boolean partial() default false;
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.bulk;
+
+import java.util.Objects;
+
+/**
+ * Options of {@link BulkLoader}.
+ *
+ * @author RollW
+ */
+public class BulkLoadOptions {
+    public static final int DEFAULT_ROWS_PER_LOAD = 50_000;
+
+    /**
+     * Loads of {@value #DEFAULT_ROWS_PER_LOAD} rows, journal
+     * of SQLite disabled while loading.
+     */
+    public static final BulkLoadOptions DEFAULT =
+            new BulkLoadOptions(DEFAULT_ROWS_PER_LOAD, true);
+
+    /**
+     * Rows buffered in memory and sent by one native load,
+     * e.g. one {@code LOAD DATA} of MySQL.
+     */
+    private final int rowsPerLoad;
+
+    /**
+     * Set {@code journal_mode} and {@code synchronous} of SQLite
+     * to {@code OFF} while loading. A crash during the load may
+     * corrupt the database, so only use it for initial loads.
+     */
+    private final boolean disableJournal;
+
+    public BulkLoadOptions(int rowsPerLoad, boolean disableJournal) {
+        if (rowsPerLoad <= 0) {
+            throw new IllegalArgumentException("Rows per load must be positive, but got: " + rowsPerLoad);
+        }
+        this.rowsPerLoad = rowsPerLoad;
+        this.disableJournal = disableJournal;
+    }
+
+    public int getRowsPerLoad() {
+        return rowsPerLoad;
+    }
+
+    public boolean isDisableJournal() {
+        return disableJournal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BulkLoadOptions that = (BulkLoadOptions) o;
+        return rowsPerLoad == that.rowsPerLoad &&
+                disableJournal == that.disableJournal;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowsPerLoad, disableJournal);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkLoadOptions{" +
+                "rowsPerLoad=" + rowsPerLoad +
+                ", disableJournal=" + disableJournal +
+                '}';
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.bulk;
+
+import space.lingu.light.DataTable;
+import space.lingu.light.LightDatabase;
+import space.lingu.light.LightLogger;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.ManagedConnection;
+import space.lingu.light.OnConflictStrategy;
+import space.lingu.light.SQLDataType;
+import space.lingu.light.sql.SQLGenerator;
+import space.lingu.light.struct.Table;
+import space.lingu.light.struct.TableColumn;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Loads large amounts of rows into a table, through the
+ * native fast-load path of the database where one exists.
+ * <ul>
+ *     <li>MySQL: {@code LOAD DATA LOCAL INFILE} streamed from memory,
+ *     requires Connector/J with {@code allowLoadLocalInfile=true}.</li>
+ *     <li>SQLite: one transaction with {@code journal_mode} and
+ *     {@code synchronous} set to {@code OFF},
+ *     see {@link BulkLoadOptions#isDisableJournal()}.</li>
+ *     <li>Others, or if the native path is unavailable: multi-row
+ *     inserts in one transaction, reusing one prepared statement.</li>
+ * </ul>
+ * Outside a transaction scope, each {@code LOAD DATA} commits by
+ * itself, so a failed MySQL load keeps the rows of the loads before it.
+ * <pre>{@code
+ * BulkLoader<User> loader = BulkLoader.create(database, User.class);
+ * long rows = loader.load(users);
+ * }</pre>
+ *
+ * @author RollW
+ */
+public final class BulkLoader<E> {
+    private static final String TAG = "BulkLoader";
+    private static final String MYSQL_STATEMENT = "com.mysql.cj.jdbc.JdbcStatement";
+
+    private final LightDatabase database;
+    private final Table table;
+    private final String[] columns;
+    private final RowExtractor<? super E> extractor;
+    private final BulkLoadOptions options;
+    private final String tag;
+
+    private BulkLoader(LightDatabase database, Table table,
+                       RowExtractor<? super E> extractor,
+                       BulkLoadOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Options cannot be null!");
+        }
+        this.database = database;
+        this.table = table;
+        this.extractor = extractor;
+        this.options = options;
+        this.columns = table.getColumns().stream()
+                .map(TableColumn::getName)
+                .toArray(String[]::new);
+        this.tag = TAG + "#" + table.getName();
+    }
+
+    /**
+     * Create a loader for the entity, reading its fields by reflection.
+     *
+     * @param database    the database
+     * @param entityClass class annotated with {@link DataTable}
+     * @return the loader
+     */
+    public static <E> BulkLoader<E> create(LightDatabase database, Class<E> entityClass) {
+        return create(database, entityClass, BulkLoadOptions.DEFAULT);
+    }
+
+    public static <E> BulkLoader<E> create(LightDatabase database, Class<E> entityClass,
+                                           BulkLoadOptions options) {
+        Table table = requireTable(database, getTableName(entityClass));
+        return new BulkLoader<>(database, table,
+                new ReflectiveRowExtractor<>(entityClass, table), options);
+    }
+
+    /**
+     * Create a loader for the table, reading values by the extractor.
+     *
+     * @param database  the database
+     * @param tableName name of the table
+     * @param extractor extracts values in the order of {@link Table#getColumns()}
+     * @param options   {@link BulkLoadOptions}
+     * @return the loader
+     */
+    public static <E> BulkLoader<E> create(LightDatabase database, String tableName,
+                                           RowExtractor<? super E> extractor,
+                                           BulkLoadOptions options) {
+        return new BulkLoader<>(database, requireTable(database, tableName),
+                extractor, options);
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * Load the entities into the table.
+     *
+     * @param entities entities, iterated once
+     * @return the number of rows loaded
+     */
+    public long load(Iterable<? extends E> entities) {
+        final ManagedConnection conn = database.requireManagedConnection(tag);
+        try {
+            final Iterator<? extends E> iterator = entities.iterator();
+            String product = conn.getConnection()
+                    .getMetaData()
+                    .getDatabaseProductName();
+            if ("MySQL".equalsIgnoreCase(product) && !hasBinaryColumn()) {
+                return loadData(conn, iterator);
+            }
+            final Iterator<Object[]> rows = new RowIterator<>(
+                    Collections.emptyIterator(), iterator, extractor);
+            if ("SQLite".equalsIgnoreCase(product) && options.isDisableJournal()) {
+                return insertWithoutJournal(conn, rows);
+            }
+            return insertRows(conn, rows);
+        } catch (SQLException e) {
+            throw new LightRuntimeException(e);
+        } finally {
+            conn.close();
+        }
+    }
+
+    private long loadData(ManagedConnection conn,
+                          Iterator<? extends E> entities) throws SQLException {
+        final String sql = loadDataQuery();
+        final LoadDataEncoder encoder = new LoadDataEncoder();
+        final List<Object[]> chunk = new ArrayList<>();
+        long count = 0;
+        while (entities.hasNext()) {
+            chunk.clear();
+            encoder.reset();
+            while (entities.hasNext() && chunk.size() < options.getRowsPerLoad()) {
+                Object[] row = extractor.extract(entities.next());
+                chunk.add(row);
+                encoder.writeRow(row);
+            }
+            try (Statement statement = conn.getConnection().createStatement()) {
+                if (!setLocalInfileInputStream(statement, encoder.toInputStream())) {
+                    warn("Driver not supports streaming LOAD DATA, use multi-row insert instead.", null);
+                    return count + insertRows(conn, new RowIterator<>(
+                            chunk.iterator(), entities, extractor));
+                }
+                count += statement.executeUpdate(sql);
+            } catch (SQLException e) {
+                if (count > 0) {
+                    throw e;
+                }
+                // e.g. local infile disabled on the client or server
+                warn("LOAD DATA failed, use multi-row insert instead.", e);
+                return insertRows(conn, new RowIterator<>(
+                        chunk.iterator(), entities, extractor));
+            }
+        }
+        return count;
+    }
+
+    private String loadDataQuery() {
+        // LOAD DATA LOCAL INFILE 'light-bulk-load' INTO TABLE `t` CHARACTER SET utf8mb4 (`a`, `b`)
+        SQLGenerator generator = database.getDialectProvider().getGenerator();
+        StringJoiner columnJoiner = new StringJoiner(", ", "(", ")");
+        for (String column : columns) {
+            columnJoiner.add(generator.escapeParam(column));
+        }
+        return "LOAD DATA LOCAL INFILE 'light-bulk-load' INTO TABLE " +
+                generator.escapeParam(table.getName()) +
+                " CHARACTER SET utf8mb4 " + columnJoiner;
+    }
+
+    private static boolean setLocalInfileInputStream(Statement statement,
+                                                     InputStream inputStream) throws SQLException {
+        Statement raw = statement.unwrap(Statement.class);
+        try {
+            Class<?> type = Class.forName(MYSQL_STATEMENT, false,
+                    raw.getClass().getClassLoader());
+            if (!type.isInstance(raw)) {
+                return false;
+            }
+            Method method = type.getMethod("setLocalInfileInputStream", InputStream.class);
+            method.invoke(raw, inputStream);
+            return true;
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            return false;
+        } catch (InvocationTargetException e) {
+            throw new LightRuntimeException(e.getTargetException());
+        }
+    }
+
+    private long insertWithoutJournal(ManagedConnection conn,
+                                      Iterator<Object[]> rows) throws SQLException {
+        if (conn.inTransactionScope()) {
+            // journal mode cannot be changed inside a transaction
+            return insertRows(conn, rows);
+        }
+        Connection connection = conn.getConnection();
+        String journalMode = pragma(connection, "journal_mode", null);
+        String synchronous = pragma(connection, "synchronous", null);
+        pragma(connection, "journal_mode", "OFF");
+        pragma(connection, "synchronous", "OFF");
+        try {
+            return insertRows(conn, rows);
+        } finally {
+            pragma(connection, "synchronous", synchronous);
+            pragma(connection, "journal_mode", journalMode);
+        }
+    }
+
+    private static String pragma(Connection connection, String name,
+                                 String value) throws SQLException {
+        String sql = value == null
+                ? "PRAGMA " + name
+                : "PRAGMA " + name + " = " + value;
+        try (Statement statement = connection.createStatement()) {
+            if (!statement.execute(sql)) {
+                return null;
+            }
+            try (ResultSet set = statement.getResultSet()) {
+                return set.next() ? set.getString(1) : null;
+            }
+        }
+    }
+
+    private long insertRows(ManagedConnection conn,
+                            Iterator<Object[]> rows) throws SQLException {
+        final int parameters = columns.length;
+        final int rowsPerStatement = Math.max(1, Math.min(
+                database.getBatchOptions().getChunkSize(),
+                conn.getMetadata().maxBindParameters / parameters));
+        final SQLGenerator generator = database.getDialectProvider().getGenerator();
+        final List<Object[]> pending = new ArrayList<>(rowsPerStatement);
+        PreparedStatement stmt = null;
+        long count = 0;
+
+        conn.beginTransaction();
+        try {
+            while (rows.hasNext()) {
+                pending.add(rows.next());
+                if (pending.size() < rowsPerStatement) {
+                    continue;
+                }
+                if (stmt == null) {
+                    stmt = conn.acquire(generator.insert(table.getName(),
+                            OnConflictStrategy.ABORT, rowsPerStatement, columns));
+                }
+                count += executeRows(stmt, pending);
+                pending.clear();
+            }
+            if (!pending.isEmpty()) {
+                // the remainder size varies, keep it out of the cache
+                PreparedStatement rest = conn.acquireUncached(generator.insert(table.getName(),
+                        OnConflictStrategy.ABORT, pending.size(), columns));
+                try {
+                    count += executeRows(rest, pending);
+                } finally {
+                    conn.release(rest);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        }
+        conn.commit();
+        return count;
+    }
+
+    private int executeRows(PreparedStatement stmt,
+                            List<Object[]> rows) throws SQLException {
+        stmt.clearParameters();
+        int index = 1;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                if (value == null) {
+                    stmt.setNull(index++, Types.NULL);
+                } else {
+                    stmt.setObject(index++, value);
+                }
+            }
+        }
+        return stmt.executeUpdate();
+    }
+
+    private boolean hasBinaryColumn() {
+        for (TableColumn column : table.getColumns()) {
+            if (column.getDataType() == SQLDataType.BINARY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void warn(String message, Throwable throwable) {
+        LightLogger logger = database.getLogger();
+        if (logger == null) {
+            return;
+        }
+        if (throwable == null) {
+            logger.warn(message);
+        } else {
+            logger.warn(message, throwable);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static String getTableName(Class<?> entityClass) {
+        DataTable dataTable = entityClass.getAnnotation(DataTable.class);
+        if (dataTable == null) {
+            throw new LightRuntimeException(entityClass.getCanonicalName() +
+                    " is not annotated with @DataTable.");
+        }
+        if (!dataTable.name().isEmpty()) {
+            return dataTable.name();
+        }
+        if (!dataTable.tableName().isEmpty()) {
+            return dataTable.tableName();
+        }
+        return entityClass.getSimpleName();
+    }
+
+    private static Table requireTable(LightDatabase database, String tableName) {
+        Table table = database.findTable(tableName);
+        if (table == null) {
+            throw new LightRuntimeException("Cannot find table '" + tableName +
+                    "' in database " + database.getClass().getCanonicalName() + ".");
+        }
+        return table;
+    }
+
+    /**
+     * Rows already extracted, followed by rows of the rest entities.
+     */
+    private static final class RowIterator<E> implements Iterator<Object[]> {
+        private final Iterator<Object[]> extracted;
+        private final Iterator<? extends E> rest;
+        private final RowExtractor<? super E> extractor;
+
+        RowIterator(Iterator<Object[]> extracted,
+                    Iterator<? extends E> rest,
+                    RowExtractor<? super E> extractor) {
+            this.extracted = extracted;
+            this.rest = rest;
+            this.extractor = extractor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return extracted.hasNext() || rest.hasNext();
+        }
+
+        @Override
+        public Object[] next() {
+            if (extracted.hasNext()) {
+                return extracted.next();
+            }
+            return extractor.extract(rest.next());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.bulk;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes rows in the default text format of MySQL
+ * {@code LOAD DATA}: fields terminated by tab, lines by
+ * newline, escaped by backslash and {@code \N} for null.
+ *
+ * @author RollW
+ */
+final class LoadDataEncoder {
+    private final StringBuilder builder = new StringBuilder(1 << 16);
+
+    void writeRow(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append('\t');
+            }
+            writeValue(values[i]);
+        }
+        builder.append('\n');
+    }
+
+    private void writeValue(Object value) {
+        if (value == null) {
+            builder.append("\\N");
+            return;
+        }
+        if (value instanceof Boolean) {
+            builder.append((Boolean) value ? '1' : '0');
+            return;
+        }
+        if (value instanceof BigDecimal) {
+            builder.append(((BigDecimal) value).toPlainString());
+            return;
+        }
+        if (value instanceof Number) {
+            builder.append(value);
+            return;
+        }
+        String s = value.toString();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\0':
+                    builder.append("\\0");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+    }
+
+    InputStream toInputStream() {
+        return new ByteArrayInputStream(
+                builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    void reset() {
+        builder.setLength(0);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.bulk;
+
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.struct.Table;
+import space.lingu.light.struct.TableColumn;
+import space.lingu.light.util.DateTimeUtils;
+
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Reads column values from the entity fields named by
+ * {@link TableColumn#getFieldName()}, converting enums and
+ * date-time types the way generated DAOs bind them.
+ * <p>
+ * Fields of embedded objects and fields using a
+ * {@link space.lingu.light.DataConverter} are not supported,
+ * give a {@link RowExtractor} for them instead.
+ *
+ * @author RollW
+ */
+final class ReflectiveRowExtractor<E> implements RowExtractor<E> {
+    private final Field[] fields;
+
+    ReflectiveRowExtractor(Class<E> entityClass, Table table) {
+        List<TableColumn> columns = table.getColumns();
+        this.fields = new Field[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            fields[i] = findField(entityClass, columns.get(i).getFieldName());
+        }
+    }
+
+    @Override
+    public Object[] extract(E entity) {
+        Object[] values = new Object[fields.length];
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                values[i] = convert(fields[i].get(entity));
+            }
+        } catch (IllegalAccessException e) {
+            throw new LightRuntimeException(e);
+        }
+        return values;
+    }
+
+    private static Object convert(Object value) {
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        if (value instanceof LocalDateTime) {
+            return DateTimeUtils.convertLocalDateTime((LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return DateTimeUtils.convertLocalDate((LocalDate) value);
+        }
+        if (value instanceof LocalTime) {
+            return DateTimeUtils.convertLocalTime((LocalTime) value);
+        }
+        if (value instanceof Instant) {
+            return DateTimeUtils.convertInstant((Instant) value);
+        }
+        if (value instanceof java.util.Date
+                && !(value instanceof java.sql.Date)
+                && !(value instanceof java.sql.Time)
+                && !(value instanceof Timestamp)) {
+            return DateTimeUtils.convertDate((java.util.Date) value);
+        }
+        return value;
+    }
+
+    private static Field findField(Class<?> entityClass, String fieldName) {
+        Class<?> current = entityClass;
+        while (current != null && current != Object.class) {
+            try {
+                Field field = current.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+                current = current.getSuperclass();
+            }
+        }
+        throw new LightRuntimeException("Cannot find field '" + fieldName +
+                "' in " + entityClass.getCanonicalName() +
+                ", give a RowExtractor to load it.");
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.bulk;
+
+/**
+ * Extracts column values of an entity, in the order
+ * of the columns of the table.
+ *
+ * @author RollW
+ */
+@FunctionalInterface
+public interface RowExtractor<E> {
+    /**
+     * Get the column values of the entity. Values are bound by
+     * {@link java.sql.PreparedStatement#setObject(int, Object)},
+     * so they must be types the driver accepts.
+     *
+     * @param entity the entity
+     * @return values of all columns
+     */
+    Object[] extract(E entity);
+}
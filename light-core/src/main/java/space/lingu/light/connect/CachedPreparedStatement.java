@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.connect;
+
+import space.lingu.light.ManagedConnection;
+import space.lingu.light.metrics.MetricsCollector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A prepared statement taken from the {@link StatementCache}.
+ * Closing it resets the statement and returns it to the cache.
+ *
+ * @author RollW
+ */
+final class CachedPreparedStatement extends LightProxyPreparedStatement {
+    private final PreparedStatement delegate;
+    private final StatementCache cache;
+    private final StatementCache.Key key;
+    private final Connection physical;
+
+    private ResultSet lastResultSet;
+    private boolean optionsModified;
+    private boolean batched;
+    private boolean closed;
+
+    CachedPreparedStatement(ManagedConnection connection,
+                            PreparedStatement delegate,
+                            String sql,
+                            StatementCache cache,
+                            StatementCache.Key key,
+                            Connection physical) {
+        super(connection, delegate, sql);
+        this.delegate = delegate;
+        this.cache = cache;
+        this.key = key;
+        this.physical = physical;
+    }
+
+    @Override
+    protected ResultSet wrapResultSet(ResultSet resultSet,
+                                      MetricsCollector metricsCollector,
+                                      String tag) {
+        ResultSet wrapped = super.wrapResultSet(resultSet,
+                metricsCollector, tag);
+        if (resultSet != null) {
+            lastResultSet = wrapped;
+        }
+        return wrapped;
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        optionsModified = true;
+        super.setMaxRows(max);
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        optionsModified = true;
+        super.setLargeMaxRows(max);
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        optionsModified = true;
+        super.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        optionsModified = true;
+        super.setFetchSize(rows);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        batched = true;
+        super.addBatch();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || super.isClosed();
+    }
+
+    /**
+     * Reset the statement and return it to the cache. Closes
+     * the statement instead if it cannot be reset.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (delegate.isClosed()) {
+                return;
+            }
+            if (lastResultSet != null) {
+                lastResultSet.close();
+                lastResultSet = null;
+            }
+            if (batched && key.isReturnsGeneratedKey()) {
+                // some drivers (e.g. H2) keep returning the keys of the
+                // last batch from getGeneratedKeys() after a later execute.
+                delegate.close();
+                return;
+            }
+            if (batched) {
+                delegate.clearBatch();
+            }
+            delegate.clearParameters();
+            if (optionsModified) {
+                delegate.setMaxRows(0);
+                delegate.setQueryTimeout(0);
+                delegate.setFetchSize(0);
+            }
+        } catch (SQLException e) {
+            delegate.close();
+            throw e;
+        }
+        cache.release(physical, key, delegate);
+    }
+}
@@ -20,6 +20,7 @@ import space.lingu.light.DatasourceConfig;
 import space.lingu.light.LightDatabase;
 import space.lingu.light.LightLogger;
 import space.lingu.light.LightRuntimeException;
+import space.lingu.light.metrics.MetricsCollector;
 
 import java.io.Closeable;
 import java.sql.Connection;
@@ -52,6 +53,18 @@ public interface ConnectionPool extends Closeable {
      */
     Connection requireConnection();
 
+    /**
+     * Require connection for read-only statements outside transactions.
+     * Pools with read replicas may return a connection to one of them,
+     * by default it is {@link #requireConnection()}.
+     *
+     * @return {@link Connection}
+     * @see ReadWriteConnectionPool
+     */
+    default Connection requireReadConnection() {
+        return requireConnection();
+    }
+
     /**
      * Release connection.
      *
@@ -73,4 +86,25 @@ public interface ConnectionPool extends Closeable {
      * @return logger (nullable)
      */
     LightLogger getLogger();
+
+    /**
+     * Set the {@link MetricsCollector} to report time waited for
+     * connections. Has no effect by default.
+     *
+     * @param metricsCollector the collector, {@code null} to disable.
+     */
+    default void setMetricsCollector(MetricsCollector metricsCollector) {
+    }
+
+    /**
+     * Whether released connections are handed out again. Prepared
+     * statements are cached on the physical connections only if
+     * they are reused.
+     *
+     * @return {@code true} by default
+     * @see StatementCache
+     */
+    default boolean reusesConnections() {
+        return true;
+    }
 }
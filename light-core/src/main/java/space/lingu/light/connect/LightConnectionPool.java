@@ -0,0 +1,479 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.connect;
+
+import space.lingu.light.DatasourceConfig;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.connect.simple.DisposableConnectionPool;
+import space.lingu.light.metrics.MetricsCollector;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded connection pool without third-party dependencies.
+ * <p>
+ * Connections are borrowed without locks: a thread first tries
+ * the connection it released last, then scans the idle ones, then
+ * opens a new one if the pool is not full. Otherwise it waits for
+ * a connection to be handed off by a releasing thread, until
+ * {@link PoolOptions#getAcquireTimeout()}.
+ * <p>
+ * Idle connections are validated before being handed out, idle
+ * timed out and expired connections are closed in background.
+ *
+ * @author RollW
+ */
+public class LightConnectionPool extends BaseConnectionPool {
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_IN_USE = 1;
+    private static final int STATE_REMOVED = -1;
+
+    private static final long HOUSEKEEPING_PERIOD = 30_000;
+    /**
+     * Waiting threads wake up at least this often to check if
+     * there is room for a new connection.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final PoolOptions options;
+    private final DisposableConnectionPool factory = new DisposableConnectionPool();
+    private final CopyOnWriteArrayList<PooledEntry> entries = new CopyOnWriteArrayList<>();
+    private final Map<Connection, PooledEntry> entryOfConnection = new ConcurrentHashMap<>();
+    private final ThreadLocal<PooledEntry> lastReleased = new ThreadLocal<>();
+    private final SynchronousQueue<PooledEntry> handoffQueue = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger();
+    /**
+     * Opened connections, including the ones being opened.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile ScheduledExecutorService housekeeper;
+    private volatile MetricsCollector metricsCollector;
+    private volatile int generation;
+    private volatile boolean closed;
+
+    public LightConnectionPool() {
+        this(PoolOptions.DEFAULT);
+    }
+
+    public LightConnectionPool(PoolOptions options) {
+        if (options == null) {
+            throw new NullPointerException("PoolOptions cannot be null.");
+        }
+        this.options = options;
+    }
+
+    public LightConnectionPool(DatasourceConfig config, PoolOptions options) {
+        this(options);
+        setDatasourceConfig(config);
+    }
+
+    /**
+     * Set datasource configuration. If changed, idle connections are
+     * closed, and connections in use are closed once released.
+     *
+     * @param config {@link DatasourceConfig}
+     */
+    @Override
+    public synchronized void setDatasourceConfig(DatasourceConfig config) {
+        if (config != null && config.equals(getDatasourceConfig())) {
+            return;
+        }
+        super.setDatasourceConfig(config);
+        factory.setDatasourceConfig(config);
+        generation++;
+        for (PooledEntry entry : entries) {
+            if (entry.reserve()) {
+                remove(entry);
+            }
+        }
+        startHousekeeper();
+    }
+
+    @Override
+    public void setMetricsCollector(MetricsCollector metricsCollector) {
+        this.metricsCollector = metricsCollector;
+    }
+
+    @Override
+    public Connection requireConnection() {
+        checkOpen();
+        PooledEntry entry = lastReleased.get();
+        if (entry != null && entry.reserve()) {
+            if (checkUsable(entry, System.currentTimeMillis())) {
+                return entry.connection;
+            }
+        }
+        final long timeout = options.getAcquireTimeout();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        final MetricsCollector metrics = metricsCollector;
+        boolean waited = false;
+        long waitStart = 0;
+        while (true) {
+            entry = borrowIdle();
+            if (entry == null) {
+                entry = tryOpen();
+            }
+            if (entry == null) {
+                long remaining = timeout == 0
+                        ? Long.MAX_VALUE
+                        : deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new LightRuntimeException("Cannot acquire connection within " +
+                            timeout + "ms, pool size: " + size.get() +
+                            ", waiting: " + waiters.get());
+                }
+                if (metrics != null && !waited) {
+                    waited = true;
+                    waitStart = System.nanoTime();
+                }
+                entry = awaitHandoff(remaining);
+            }
+            if (entry != null) {
+                if (waited) {
+                    metrics.onPoolWait(System.nanoTime() - waitStart);
+                }
+                return entry.connection;
+            }
+            checkOpen();
+        }
+    }
+
+    /**
+     * Wait for a released connection. Scans again after registered
+     * as a waiter, so a connection released just before is not missed.
+     *
+     * @return the entry in use, or null if should try again.
+     */
+    private PooledEntry awaitHandoff(long timeoutNanos) {
+        waiters.incrementAndGet();
+        try {
+            PooledEntry entry = borrowIdle();
+            if (entry != null) {
+                return entry;
+            }
+            entry = handoffQueue.poll(
+                    Math.min(timeoutNanos, MAX_WAIT_NANOS), TimeUnit.NANOSECONDS);
+            if (entry != null && entry.reserve() &&
+                    checkUsable(entry, System.currentTimeMillis())) {
+                return entry;
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LightRuntimeException("Interrupted while acquiring connection.", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private PooledEntry borrowIdle() {
+        final long now = System.currentTimeMillis();
+        for (PooledEntry entry : entries) {
+            if (entry.reserve() && checkUsable(entry, now)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Open a new connection if the pool is not full.
+     *
+     * @return the entry in use, or null if the pool is full.
+     */
+    private PooledEntry tryOpen() {
+        while (true) {
+            int current = size.get();
+            if (current >= options.getMaxPoolSize()) {
+                return null;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        try {
+            PooledEntry entry = new PooledEntry(factory.requireConnection(), generation);
+            entryOfConnection.put(entry.connection, entry);
+            entries.add(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Check the reserved entry, removes it if not usable.
+     */
+    private boolean checkUsable(PooledEntry entry, long now) {
+        if (isRetired(entry, now)) {
+            remove(entry);
+            return false;
+        }
+        final long interval = options.getValidationInterval();
+        if (now - entry.lastAccess < interval) {
+            return true;
+        }
+        try {
+            int timeout = (int) TimeUnit.MILLISECONDS.toSeconds(
+                    options.getValidationTimeout() + 999);
+            if (entry.connection.isValid(timeout)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            debug("Connection validation failed.", e);
+        }
+        remove(entry);
+        return false;
+    }
+
+    private boolean isRetired(PooledEntry entry, long now) {
+        if (closed || entry.generation != generation) {
+            return true;
+        }
+        final long maxLifetime = options.getMaxLifetime();
+        return maxLifetime > 0 && now - entry.createTime >= maxLifetime;
+    }
+
+    @Override
+    public void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        PooledEntry entry = entryOfConnection.get(connection);
+        if (entry == null || entry.state.get() != STATE_IN_USE) {
+            closeQuietly(connection);
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (isRetired(entry, now) || !reset(connection)) {
+            remove(entry);
+            return;
+        }
+        entry.lastAccess = now;
+        entry.state.set(STATE_IDLE);
+        lastReleased.set(entry);
+        handoff(entry);
+    }
+
+    /**
+     * Hand off the idle entry to a waiting thread, if any.
+     */
+    private void handoff(PooledEntry entry) {
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.state.get() != STATE_IDLE || handoffQueue.offer(entry)) {
+                return;
+            }
+            if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(10_000);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            debug("Reset connection failed.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Remove the reserved entry and close its connection.
+     */
+    private void remove(PooledEntry entry) {
+        entry.state.set(STATE_REMOVED);
+        if (entries.remove(entry)) {
+            entryOfConnection.remove(entry.connection);
+            size.decrementAndGet();
+        }
+        closeQuietly(entry.connection);
+    }
+
+    private void startHousekeeper() {
+        if (housekeeper != null || closed) {
+            return;
+        }
+        if (options.getIdleTimeout() == 0 &&
+                options.getMaxLifetime() == 0 &&
+                options.getMinIdle() == 0) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "light-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = HOUSEKEEPING_PERIOD;
+        if (options.getIdleTimeout() > 0) {
+            period = Math.min(period, options.getIdleTimeout());
+        }
+        executor.scheduleWithFixedDelay(this::housekeep,
+                0, period, TimeUnit.MILLISECONDS);
+        housekeeper = executor;
+    }
+
+    /**
+     * Close idle timed out and expired connections, then open
+     * connections until there are {@link PoolOptions#getMinIdle()}
+     * idle ones.
+     */
+    private void housekeep() {
+        try {
+            final long now = System.currentTimeMillis();
+            final long idleTimeout = options.getIdleTimeout();
+            int idle = getIdleConnections();
+            for (PooledEntry entry : entries) {
+                if (!entry.reserve()) {
+                    continue;
+                }
+                if (isRetired(entry, now) || (idleTimeout > 0 &&
+                        idle > options.getMinIdle() &&
+                        now - entry.lastAccess >= idleTimeout)) {
+                    remove(entry);
+                    idle--;
+                    continue;
+                }
+                entry.state.set(STATE_IDLE);
+                handoff(entry);
+            }
+            while (!closed && idle < options.getMinIdle()) {
+                PooledEntry entry = tryOpen();
+                if (entry == null) {
+                    break;
+                }
+                entry.lastAccess = System.currentTimeMillis();
+                entry.state.set(STATE_IDLE);
+                handoff(entry);
+                idle++;
+            }
+        } catch (RuntimeException e) {
+            debug("Connection pool housekeeping failed.", e);
+        }
+    }
+
+    /**
+     * @return connections opened by the pool
+     */
+    public int getTotalConnections() {
+        return size.get();
+    }
+
+    public int getIdleConnections() {
+        int idle = 0;
+        for (PooledEntry entry : entries) {
+            if (entry.state.get() == STATE_IDLE) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+
+    public int getActiveConnections() {
+        return Math.max(0, size.get() - getIdleConnections());
+    }
+
+    /**
+     * @return threads waiting for a connection
+     */
+    public int getPendingThreads() {
+        return waiters.get();
+    }
+
+    public PoolOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Close the pool and idle connections. Connections in use
+     * are closed once released.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        for (PooledEntry entry : entries) {
+            if (entry.reserve()) {
+                remove(entry);
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new LightRuntimeException("Connection pool closed.");
+        }
+    }
+
+    private void debug(String message, Throwable throwable) {
+        if (logger != null) {
+            logger.debug(message, throwable);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // ignored
+        }
+    }
+
+    private static final class PooledEntry {
+        private final Connection connection;
+        private final int generation;
+        private final long createTime;
+        private final AtomicInteger state = new AtomicInteger(STATE_IN_USE);
+        private volatile long lastAccess;
+
+        PooledEntry(Connection connection, int generation) {
+            this.connection = connection;
+            this.generation = generation;
+            this.createTime = System.currentTimeMillis();
+            this.lastAccess = createTime;
+        }
+
+        boolean reserve() {
+            return state.compareAndSet(STATE_IDLE, STATE_IN_USE);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package space.lingu.light.connect;
 
 import space.lingu.light.ManagedConnection;
+import space.lingu.light.util.ConnectionUtils;
 
 import java.sql.Array;
 import java.sql.Blob;
@@ -45,12 +46,47 @@ import java.util.concurrent.Executor;
 public class LightProxyConnection implements Connection, ConnectionWrapped {
     private final ManagedConnection connection;
     private final Connection delegate;
+    private Connection physical;
 
     public LightProxyConnection(ManagedConnection connection, Connection delegate) {
         this.connection = connection;
         this.delegate = delegate;
     }
 
+    /**
+     * Take a prepared statement from the cache, or prepare a new one
+     * on the physical connection if there is none idle.
+     * <p>
+     * Closing the returned statement returns it to the cache.
+     *
+     * @see StatementCache
+     */
+    public PreparedStatement prepareCachedStatement(StatementCache cache,
+                                                    String sql,
+                                                    boolean returnsGeneratedKey) throws SQLException {
+        Connection physical = getPhysicalConnection();
+        StatementCache.Key key = new StatementCache.Key(sql, returnsGeneratedKey);
+        CachedPreparedStatement stmt = new CachedPreparedStatement(
+                connection,
+                cache.acquire(physical, key),
+                sql, cache, key, physical
+        );
+        connection.registerStatement(stmt);
+        return stmt;
+    }
+
+    /**
+     * The connection from the driver. Pools usually hand out
+     * a new wrapper on each checkout, statements prepared on it
+     * would not outlive the checkout.
+     */
+    private Connection getPhysicalConnection() {
+        if (physical == null) {
+            physical = ConnectionUtils.unwrapPhysical(delegate);
+        }
+        return physical;
+    }
+
     @Override
     public ManagedConnection getMangedConnection() {
         return connection;
@@ -67,7 +103,7 @@ public class LightProxyConnection implements Connection, ConnectionWrapped {
 
     @Override
     public PreparedStatement prepareStatement(String sql) throws SQLException {
-        return wrap(delegate.prepareStatement(sql));
+        return wrap(sql, delegate.prepareStatement(sql));
     }
 
     @Override
@@ -162,7 +198,7 @@ public class LightProxyConnection implements Connection, ConnectionWrapped {
 
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        return wrap(
+        return wrap(sql,
                 delegate.prepareStatement(sql, resultSetType, resultSetConcurrency)
         );
     }
@@ -219,7 +255,7 @@ public class LightProxyConnection implements Connection, ConnectionWrapped {
 
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        return wrap(delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+        return wrap(sql, delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
     }
 
     @Override
@@ -229,17 +265,17 @@ public class LightProxyConnection implements Connection, ConnectionWrapped {
 
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
-        return wrap(delegate.prepareStatement(sql, autoGeneratedKeys));
+        return wrap(sql, delegate.prepareStatement(sql, autoGeneratedKeys));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
-        return wrap(delegate.prepareStatement(sql, columnIndexes));
+        return wrap(sql, delegate.prepareStatement(sql, columnIndexes));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
-        return wrap(delegate.prepareStatement(sql, columnNames));
+        return wrap(sql, delegate.prepareStatement(sql, columnNames));
     }
 
     private LightProxyStatement wrap(Statement statement) {
@@ -249,9 +285,9 @@ public class LightProxyConnection implements Connection, ConnectionWrapped {
         return stmt;
     }
 
-    private LightProxyPreparedStatement wrap(PreparedStatement statement) {
+    private LightProxyPreparedStatement wrap(String sql, PreparedStatement statement) {
         LightProxyPreparedStatement stmt =
-                new LightProxyPreparedStatement(connection, statement);
+                new LightProxyPreparedStatement(connection, statement, sql);
         connection.registerStatement(stmt);
         return stmt;
     }
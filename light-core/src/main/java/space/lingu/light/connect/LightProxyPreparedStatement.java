@@ -17,6 +17,8 @@
 package space.lingu.light.connect;
 
 import space.lingu.light.ManagedConnection;
+import space.lingu.light.log.SlowStatementLog;
+import space.lingu.light.metrics.MetricsCollector;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -46,11 +48,31 @@ import java.util.Objects;
  */
 public class LightProxyPreparedStatement extends LightProxyStatement implements PreparedStatement {
     private final PreparedStatement delegate;
+    private final MetricsCollector metricsCollector;
+    private final SlowStatementLog slowStatementLog;
+    private final String sql;
+    private Object[] parameters;
+    private int batchSize;
 
     public LightProxyPreparedStatement(ManagedConnection connection,
                                        PreparedStatement delegate) {
+        this(connection, delegate, null);
+    }
+
+    /**
+     * @param sql the sql of the statement, statements without it
+     *            are not reported to the {@link SlowStatementLog}.
+     */
+    public LightProxyPreparedStatement(ManagedConnection connection,
+                                       PreparedStatement delegate,
+                                       String sql) {
         super(connection, delegate);
         this.delegate = delegate;
+        this.sql = sql;
+        this.metricsCollector = connection.getMetricsCollector();
+        this.slowStatementLog = sql == null
+                ? null
+                : connection.getSlowStatementLog();
     }
 
     public PreparedStatement getDelegate() {
@@ -59,148 +81,277 @@ public class LightProxyPreparedStatement extends LightProxyStatement implements
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        return wrapResultSet(delegate.executeQuery());
+        if (metricsCollector == null && slowStatementLog == null) {
+            return wrapResultSet(delegate.executeQuery());
+        }
+        final String tag = connection.getMetricsTag();
+        final long start = System.nanoTime();
+        ResultSet resultSet = delegate.executeQuery();
+        onExecuted(tag, System.nanoTime() - start);
+        return wrapResultSet(resultSet, metricsCollector, tag);
     }
 
     @Override
     public int executeUpdate() throws SQLException {
-        return delegate.executeUpdate();
+        if (metricsCollector == null && slowStatementLog == null) {
+            return delegate.executeUpdate();
+        }
+        final long start = System.nanoTime();
+        int count = delegate.executeUpdate();
+        onExecuted(connection.getMetricsTag(), System.nanoTime() - start);
+        return count;
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
         delegate.setNull(parameterIndex, sqlType);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, null);
+        }
     }
 
     @Override
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
         delegate.setBoolean(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
         delegate.setByte(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setShort(int parameterIndex, short x) throws SQLException {
         delegate.setShort(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
         delegate.setInt(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setLong(int parameterIndex, long x) throws SQLException {
         delegate.setLong(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setFloat(int parameterIndex, float x) throws SQLException {
         delegate.setFloat(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setDouble(int parameterIndex, double x) throws SQLException {
         delegate.setDouble(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
         delegate.setBigDecimal(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
         delegate.setString(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setBytes(int parameterIndex, byte[] x) throws SQLException {
         delegate.setBytes(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setDate(int parameterIndex, Date x) throws SQLException {
         delegate.setDate(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setTime(int parameterIndex, Time x) throws SQLException {
         delegate.setTime(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
         delegate.setTimestamp(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
         delegate.setAsciiStream(parameterIndex, x, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     @Deprecated
     public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
         delegate.setUnicodeStream(parameterIndex, x, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
         delegate.setBinaryStream(parameterIndex, x, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void clearParameters() throws SQLException {
         delegate.clearParameters();
+        parameters = null;
     }
 
     @Override
     public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
         delegate.setObject(parameterIndex, x, targetSqlType);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setObject(int parameterIndex, Object x) throws SQLException {
         delegate.setObject(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public boolean execute() throws SQLException {
-        return delegate.execute();
+        if (metricsCollector == null && slowStatementLog == null) {
+            return delegate.execute();
+        }
+        final long start = System.nanoTime();
+        boolean result = delegate.execute();
+        onExecuted(connection.getMetricsTag(), System.nanoTime() - start);
+        return result;
     }
 
     @Override
     public void addBatch() throws SQLException {
         delegate.addBatch();
+        batchSize++;
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        super.clearBatch();
+        batchSize = 0;
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        if (metricsCollector == null && slowStatementLog == null) {
+            batchSize = 0;
+            return super.executeBatch();
+        }
+        final int size = batchSize;
+        batchSize = 0;
+        final long start = System.nanoTime();
+        int[] counts = super.executeBatch();
+        onBatchExecuted(connection.getMetricsTag(), size,
+                System.nanoTime() - start);
+        return counts;
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        if (metricsCollector == null && slowStatementLog == null) {
+            batchSize = 0;
+            return super.executeLargeBatch();
+        }
+        final int size = batchSize;
+        batchSize = 0;
+        final long start = System.nanoTime();
+        long[] counts = super.executeLargeBatch();
+        onBatchExecuted(connection.getMetricsTag(), size,
+                System.nanoTime() - start);
+        return counts;
     }
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
         delegate.setCharacterStream(parameterIndex, reader, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setRef(int parameterIndex, Ref x) throws SQLException {
         delegate.setRef(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setBlob(int parameterIndex, Blob x) throws SQLException {
         delegate.setBlob(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setClob(int parameterIndex, Clob x) throws SQLException {
         delegate.setClob(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setArray(int parameterIndex, Array x) throws SQLException {
         delegate.setArray(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
@@ -211,26 +362,41 @@ public class LightProxyPreparedStatement extends LightProxyStatement implements
     @Override
     public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
         delegate.setDate(parameterIndex, x, cal);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
         delegate.setTime(parameterIndex, x, cal);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
         delegate.setTimestamp(parameterIndex, x, cal);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
         delegate.setNull(parameterIndex, sqlType, typeName);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, null);
+        }
     }
 
     @Override
     public void setURL(int parameterIndex, URL x) throws SQLException {
         delegate.setURL(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
@@ -241,111 +407,217 @@ public class LightProxyPreparedStatement extends LightProxyStatement implements
     @Override
     public void setRowId(int parameterIndex, RowId x) throws SQLException {
         delegate.setRowId(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setNString(int parameterIndex, String value) throws SQLException {
         delegate.setNString(parameterIndex, value);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, value);
+        }
     }
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
         delegate.setNCharacterStream(parameterIndex, value, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setNClob(int parameterIndex, NClob value) throws SQLException {
         delegate.setNClob(parameterIndex, value);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
         delegate.setClob(parameterIndex, reader, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
         delegate.setBlob(parameterIndex, inputStream, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
         delegate.setNClob(parameterIndex, reader, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
         delegate.setSQLXML(parameterIndex, xmlObject);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
         delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
         delegate.setAsciiStream(parameterIndex, x, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
         delegate.setBinaryStream(parameterIndex, x, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
         delegate.setCharacterStream(parameterIndex, reader, length);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
         delegate.setAsciiStream(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
         delegate.setBinaryStream(parameterIndex, x);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
         delegate.setCharacterStream(parameterIndex, reader);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
         delegate.setNCharacterStream(parameterIndex, value);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setClob(int parameterIndex, Reader reader) throws SQLException {
         delegate.setClob(parameterIndex, reader);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
         delegate.setBlob(parameterIndex, inputStream);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setNClob(int parameterIndex, Reader reader) throws SQLException {
         delegate.setNClob(parameterIndex, reader);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, SlowStatementLog.UNKNOWN);
+        }
     }
 
     @Override
     public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
         delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
         delegate.setObject(parameterIndex, x, targetSqlType);
+        if (slowStatementLog != null) {
+            recordParameter(parameterIndex, x);
+        }
     }
 
     @Override
     public long executeLargeUpdate() throws SQLException {
-        return delegate.executeLargeUpdate();
+        if (metricsCollector == null && slowStatementLog == null) {
+            return delegate.executeLargeUpdate();
+        }
+        final long start = System.nanoTime();
+        long count = delegate.executeLargeUpdate();
+        onExecuted(connection.getMetricsTag(), System.nanoTime() - start);
+        return count;
+    }
+
+    private void onExecuted(String tag, long nanos) {
+        if (metricsCollector != null) {
+            metricsCollector.onStatementExecute(tag, nanos);
+        }
+        if (slowStatementLog != null) {
+            slowStatementLog.onExecuted(tag, sql, parameters, 0, nanos);
+        }
+    }
+
+    private void onBatchExecuted(String tag, int size, long nanos) {
+        if (metricsCollector != null) {
+            metricsCollector.onBatchExecute(tag, size, nanos);
+        }
+        if (slowStatementLog != null) {
+            slowStatementLog.onExecuted(tag, sql, parameters, size, nanos);
+        }
+    }
+
+    /**
+     * Record the bound value for the {@link SlowStatementLog}.
+     */
+    private void recordParameter(int parameterIndex, Object value) {
+        if (parameterIndex <= 0) {
+            return;
+        }
+        Object[] values = parameters;
+        if (values == null || values.length < parameterIndex) {
+            Object[] grown = new Object[Math.max(parameterIndex, 8)];
+            if (values != null) {
+                System.arraycopy(values, 0, grown, 0, values.length);
+            }
+            values = grown;
+            parameters = values;
+        }
+        values[parameterIndex - 1] = value;
     }
 
     @Override
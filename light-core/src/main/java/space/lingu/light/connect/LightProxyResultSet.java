@@ -17,6 +17,7 @@
 package space.lingu.light.connect;
 
 import space.lingu.light.ManagedConnection;
+import space.lingu.light.metrics.MetricsCollector;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -47,11 +48,26 @@ import java.util.Map;
 public class LightProxyResultSet implements ResultSet, ConnectionWrapped {
     private final ManagedConnection connection;
     private final ResultSet delegate;
+    private final MetricsCollector metricsCollector;
+    private final String tag;
+    private final long openTime;
+    private long rows;
+    private boolean reported;
 
     public LightProxyResultSet(ManagedConnection connection,
                                ResultSet delegate) {
+        this(connection, delegate, null, null);
+    }
+
+    public LightProxyResultSet(ManagedConnection connection,
+                               ResultSet delegate,
+                               MetricsCollector metricsCollector,
+                               String tag) {
         this.connection = connection;
         this.delegate = delegate;
+        this.metricsCollector = metricsCollector;
+        this.tag = tag;
+        this.openTime = metricsCollector == null ? 0 : System.nanoTime();
     }
 
     @Override
@@ -65,12 +81,24 @@ public class LightProxyResultSet implements ResultSet, ConnectionWrapped {
 
     @Override
     public boolean next() throws SQLException {
-        return delegate.next();
+        if (metricsCollector == null) {
+            return delegate.next();
+        }
+        boolean next = delegate.next();
+        if (next) {
+            rows++;
+        }
+        return next;
     }
 
     @Override
     public void close() throws SQLException {
         delegate.close();
+        if (metricsCollector != null && !reported) {
+            reported = true;
+            metricsCollector.onRowMapping(tag, rows,
+                    System.nanoTime() - openTime);
+        }
     }
 
     @Override
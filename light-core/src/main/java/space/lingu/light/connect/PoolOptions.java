@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.connect;
+
+import java.util.Objects;
+
+/**
+ * Options of {@link LightConnectionPool}. All durations are
+ * in milliseconds, {@code 0} disables the related limit.
+ *
+ * @author RollW
+ */
+public class PoolOptions {
+    public static final PoolOptions DEFAULT = builder().build();
+
+    /**
+     * Max connections opened by the pool, idle or in use.
+     */
+    private final int maxPoolSize;
+
+    /**
+     * Idle connections kept by the pool even if idle timed out.
+     */
+    private final int minIdle;
+
+    /**
+     * Idle connections beyond {@link #minIdle} are closed
+     * after being idle for this long.
+     */
+    private final long idleTimeout;
+
+    /**
+     * Connections are closed after being open for this long,
+     * once they are returned to the pool.
+     */
+    private final long maxLifetime;
+
+    /**
+     * How long to wait for a connection when the pool is
+     * exhausted before failing.
+     */
+    private final long acquireTimeout;
+
+    /**
+     * Connections idle longer than this are validated before
+     * being handed out.
+     */
+    private final long validationInterval;
+
+    /**
+     * Timeout of {@link java.sql.Connection#isValid(int)}.
+     */
+    private final long validationTimeout;
+
+    public PoolOptions(int maxPoolSize, int minIdle,
+                       long idleTimeout, long maxLifetime,
+                       long acquireTimeout, long validationInterval,
+                       long validationTimeout) {
+        if (maxPoolSize <= 0) {
+            throw new IllegalArgumentException("Max pool size must be positive, but got: " + maxPoolSize);
+        }
+        if (minIdle < 0 || minIdle > maxPoolSize) {
+            throw new IllegalArgumentException("Min idle must be in [0, " + maxPoolSize + "], but got: " + minIdle);
+        }
+        if (idleTimeout < 0 || maxLifetime < 0 || acquireTimeout < 0 ||
+                validationInterval < 0 || validationTimeout < 0) {
+            throw new IllegalArgumentException("Durations cannot be negative.");
+        }
+        this.maxPoolSize = maxPoolSize;
+        this.minIdle = minIdle;
+        this.idleTimeout = idleTimeout;
+        this.maxLifetime = maxLifetime;
+        this.acquireTimeout = acquireTimeout;
+        this.validationInterval = validationInterval;
+        this.validationTimeout = validationTimeout;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public long getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public long getValidationInterval() {
+        return validationInterval;
+    }
+
+    public long getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PoolOptions that = (PoolOptions) o;
+        return maxPoolSize == that.maxPoolSize &&
+                minIdle == that.minIdle &&
+                idleTimeout == that.idleTimeout &&
+                maxLifetime == that.maxLifetime &&
+                acquireTimeout == that.acquireTimeout &&
+                validationInterval == that.validationInterval &&
+                validationTimeout == that.validationTimeout;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxPoolSize, minIdle, idleTimeout, maxLifetime,
+                acquireTimeout, validationInterval, validationTimeout);
+    }
+
+    @Override
+    public String toString() {
+        return "PoolOptions{" +
+                "maxPoolSize=" + maxPoolSize +
+                ", minIdle=" + minIdle +
+                ", idleTimeout=" + idleTimeout +
+                ", maxLifetime=" + maxLifetime +
+                ", acquireTimeout=" + acquireTimeout +
+                ", validationInterval=" + validationInterval +
+                ", validationTimeout=" + validationTimeout +
+                '}';
+    }
+
+    public static class Builder {
+        private int maxPoolSize = 10;
+        private int minIdle = 0;
+        private long idleTimeout = 600_000;
+        private long maxLifetime = 1_800_000;
+        private long acquireTimeout = 30_000;
+        private long validationInterval = 500;
+        private long validationTimeout = 5_000;
+
+        private Builder() {
+        }
+
+        public Builder setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+            return this;
+        }
+
+        public Builder setMinIdle(int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        public Builder setIdleTimeout(long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder setMaxLifetime(long maxLifetime) {
+            this.maxLifetime = maxLifetime;
+            return this;
+        }
+
+        public Builder setAcquireTimeout(long acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        public Builder setValidationInterval(long validationInterval) {
+            this.validationInterval = validationInterval;
+            return this;
+        }
+
+        public Builder setValidationTimeout(long validationTimeout) {
+            this.validationTimeout = validationTimeout;
+            return this;
+        }
+
+        public PoolOptions build() {
+            return new PoolOptions(maxPoolSize, minIdle,
+                    idleTimeout, maxLifetime, acquireTimeout,
+                    validationInterval, validationTimeout);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package space.lingu.light.connect;
 
 import space.lingu.light.ManagedConnection;
+import space.lingu.light.metrics.MetricsCollector;
 
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -37,9 +38,21 @@ public abstract class ProxyStatement implements ConnectionWrapped, Statement {
     }
 
     protected ResultSet wrapResultSet(ResultSet resultSet) {
+        return wrapResultSet(resultSet, null, null);
+    }
+
+    /**
+     * Wrap the result set of a query, reports rows read and
+     * time until it is closed to the collector if not null.
+     */
+    protected ResultSet wrapResultSet(ResultSet resultSet,
+                                      MetricsCollector metricsCollector,
+                                      String tag) {
         return new LightProxyResultSet(
                 connection,
-                resultSet
+                resultSet,
+                metricsCollector,
+                tag
         );
     }
 
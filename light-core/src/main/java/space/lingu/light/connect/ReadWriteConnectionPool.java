@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.connect;
+
+import space.lingu.light.DatasourceConfig;
+import space.lingu.light.LightLogger;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.metrics.MetricsCollector;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A connection pool routing read-only statements to read replicas.
+ * <p>
+ * Connections of {@link #requireConnection()} come from the primary pool,
+ * and those of {@link #requireReadConnection()} from one of the replica
+ * pools, chosen by the {@link Selection}. If a replica fails to give a
+ * connection, the others are tried in turn.
+ * <p>
+ * {@link space.lingu.light.Query} methods with a {@code SELECT} statement
+ * run outside transactions read from replicas. Statements of insert,
+ * update and delete methods, and all statements inside transactions
+ * go to the primary. Use {@link space.lingu.light.Route} to override it
+ * for a method.
+ * <p>
+ * The datasource config set by the {@link space.lingu.light.LightDatabase}
+ * is passed to the primary pool, the replica pools must be configured
+ * with their own datasource before.
+ * <pre>{@code
+ * ConnectionPool pool = new ReadWriteConnectionPool(
+ *         new LightConnectionPool(),
+ *         Arrays.asList(
+ *                 new LightConnectionPool(replica1Config, PoolOptions.DEFAULT),
+ *                 new LightConnectionPool(replica2Config, PoolOptions.DEFAULT)),
+ *         ReadWriteConnectionPool.Selection.LEAST_BUSY);
+ * }</pre>
+ *
+ * @author RollW
+ */
+public class ReadWriteConnectionPool implements ConnectionPool {
+    private final ConnectionPool primary;
+    private final ConnectionPool[] replicas;
+    private final AtomicInteger[] busy;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    /**
+     * Index of the replica each connection in use came from.
+     * Connections not in here came from the primary.
+     */
+    private final Map<Connection, Integer> replicaConnections = new ConcurrentHashMap<>();
+
+    private LightLogger logger;
+
+    public ReadWriteConnectionPool(ConnectionPool primary,
+                                   List<? extends ConnectionPool> replicas) {
+        this(primary, replicas, Selection.ROUND_ROBIN);
+    }
+
+    public ReadWriteConnectionPool(ConnectionPool primary,
+                                   List<? extends ConnectionPool> replicas,
+                                   Selection selection) {
+        if (primary == null || replicas == null || selection == null) {
+            throw new NullPointerException("Primary, replicas and selection cannot be null.");
+        }
+        for (ConnectionPool replica : replicas) {
+            if (replica == null || replica.getDatasourceConfig() == null) {
+                throw new IllegalArgumentException("Replica pools must be " +
+                        "configured with their datasource.");
+            }
+        }
+        this.primary = primary;
+        this.replicas = replicas.toArray(new ConnectionPool[0]);
+        this.busy = new AtomicInteger[this.replicas.length];
+        for (int i = 0; i < busy.length; i++) {
+            busy[i] = new AtomicInteger();
+        }
+        this.selection = selection;
+    }
+
+    @Override
+    public void setDatasourceConfig(DatasourceConfig config) {
+        primary.setDatasourceConfig(config);
+    }
+
+    @Override
+    public DatasourceConfig getDatasourceConfig() {
+        return primary.getDatasourceConfig();
+    }
+
+    @Override
+    public Connection requireConnection() {
+        return primary.requireConnection();
+    }
+
+    @Override
+    public Connection requireReadConnection() {
+        if (replicas.length == 0) {
+            return primary.requireConnection();
+        }
+        final int first = select();
+        LightRuntimeException failure = null;
+        for (int i = 0; i < replicas.length; i++) {
+            int index = (first + i) % replicas.length;
+            Connection connection;
+            try {
+                connection = replicas[index].requireConnection();
+            } catch (LightRuntimeException e) {
+                if (logger != null) {
+                    logger.warn("Cannot require connection from replica " +
+                            replicas[index].getDatasourceConfig().getUrl() +
+                            ", try the next one.", e);
+                }
+                failure = e;
+                continue;
+            }
+            busy[index].incrementAndGet();
+            replicaConnections.put(connection, index);
+            return connection;
+        }
+        throw new LightRuntimeException("Cannot require connection from any replica.", failure);
+    }
+
+    private int select() {
+        int start = (next.getAndIncrement() & Integer.MAX_VALUE) % replicas.length;
+        if (selection == Selection.ROUND_ROBIN) {
+            return start;
+        }
+        // least busy, ties go round robin
+        int selected = start;
+        int least = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.length; i++) {
+            int index = (start + i) % replicas.length;
+            int count = busy[index].get();
+            if (count < least) {
+                least = count;
+                selected = index;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public void release(Connection connection) throws LightRuntimeException {
+        Integer index = replicaConnections.remove(connection);
+        if (index == null) {
+            primary.release(connection);
+            return;
+        }
+        busy[index].decrementAndGet();
+        replicas[index].release(connection);
+    }
+
+    @Override
+    public void setLogger(LightLogger logger) {
+        this.logger = logger;
+        primary.setLogger(logger);
+        for (ConnectionPool replica : replicas) {
+            replica.setLogger(logger);
+        }
+    }
+
+    @Override
+    public LightLogger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public void setMetricsCollector(MetricsCollector metricsCollector) {
+        primary.setMetricsCollector(metricsCollector);
+        for (ConnectionPool replica : replicas) {
+            replica.setMetricsCollector(metricsCollector);
+        }
+    }
+
+    @Override
+    public boolean reusesConnections() {
+        if (!primary.reusesConnections()) {
+            return false;
+        }
+        for (ConnectionPool replica : replicas) {
+            if (!replica.reusesConnections()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ConnectionPool getPrimary() {
+        return primary;
+    }
+
+    public List<ConnectionPool> getReplicas() {
+        List<ConnectionPool> result = new ArrayList<>(replicas.length);
+        for (ConnectionPool replica : replicas) {
+            result.add(replica);
+        }
+        return result;
+    }
+
+    /**
+     * Close the primary and all replica pools.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        List<ConnectionPool> pools = getReplicas();
+        pools.add(0, primary);
+        for (ConnectionPool pool : pools) {
+            try {
+                pool.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * How a replica is chosen for each read connection.
+     */
+    public enum Selection {
+        /**
+         * Each replica in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with the fewest connections in use
+         * through this pool.
+         */
+        LEAST_BUSY
+    }
+}
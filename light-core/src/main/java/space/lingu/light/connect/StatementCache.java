@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.connect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Internal API. Caches idle {@link PreparedStatement}s of each
+ * physical connection, in LRU order.
+ * <p>
+ * A cached statement is removed from the cache while in use, so it
+ * is never shared by two callers, and put back when released.
+ * Statements are prepared on the physical connection, which is
+ * unwrapped from the pooled connection if possible, so they survive
+ * returning the connection to the pool.
+ *
+ * @author RollW
+ */
+public class StatementCache {
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final int maxSize;
+    private final Map<Connection, ConnectionCache> caches =
+            new IdentityHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize maximum idle statements kept for each connection
+     */
+    public StatementCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive, but got: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Take an idle statement from the cache or prepare a new one.
+     */
+    PreparedStatement acquire(Connection physical, Key key) throws SQLException {
+        ConnectionCache cache = cacheOf(physical);
+        PreparedStatement statement = cache.take(key);
+        if (statement != null) {
+            hits.increment();
+            return statement;
+        }
+        misses.increment();
+        if (key.returnsGeneratedKey) {
+            return physical.prepareStatement(key.sql, Statement.RETURN_GENERATED_KEYS);
+        }
+        return physical.prepareStatement(key.sql,
+                ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+    }
+
+    /**
+     * Return the statement to the cache, the statement should be
+     * already reset. Closes the statement if it cannot be kept.
+     */
+    void release(Connection physical, Key key, PreparedStatement statement) {
+        PreparedStatement evicted;
+        synchronized (caches) {
+            ConnectionCache cache = caches.get(physical);
+            if (cache == null) {
+                evicted = statement;
+            } else {
+                evicted = cache.put(key, statement);
+            }
+        }
+        closeQuietly(evicted);
+    }
+
+    private ConnectionCache cacheOf(Connection physical) {
+        synchronized (caches) {
+            ConnectionCache cache = caches.get(physical);
+            if (cache != null) {
+                return cache;
+            }
+            removeClosedConnections();
+            cache = new ConnectionCache(maxSize);
+            caches.put(physical, cache);
+            return cache;
+        }
+    }
+
+    /**
+     * Connections are not closed through here, so drop the closed
+     * ones when a new connection shows up.
+     */
+    private void removeClosedConnections() {
+        Iterator<Map.Entry<Connection, ConnectionCache>> iterator =
+                caches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Connection, ConnectionCache> entry = iterator.next();
+            if (isClosed(entry.getKey())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of idle statements in the cache
+     */
+    public int size() {
+        synchronized (caches) {
+            int size = 0;
+            for (ConnectionCache cache : caches.values()) {
+                size += cache.size();
+            }
+            return size;
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Close all idle statements and clear the cache.
+     */
+    public void clear() {
+        List<PreparedStatement> statements = new ArrayList<>();
+        synchronized (caches) {
+            for (ConnectionCache cache : caches.values()) {
+                cache.drainTo(statements);
+            }
+            caches.clear();
+        }
+        statements.forEach(StatementCache::closeQuietly);
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        if (statement == null) {
+            return;
+        }
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // ignored
+        }
+    }
+
+    /**
+     * Least recently used statements, closes the evicted ones.
+     */
+    private static final class LruStatements extends LinkedHashMap<Key, PreparedStatement> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LruStatements(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+            if (size() <= maxSize) {
+                return false;
+            }
+            closeQuietly(eldest.getValue());
+            return true;
+        }
+    }
+
+    private static final class ConnectionCache {
+        private final LruStatements statements;
+
+        ConnectionCache(int maxSize) {
+            this.statements = new LruStatements(maxSize);
+        }
+
+        synchronized int size() {
+            return statements.size();
+        }
+
+        synchronized void drainTo(List<PreparedStatement> target) {
+            target.addAll(statements.values());
+            statements.clear();
+        }
+
+        PreparedStatement take(Key key) throws SQLException {
+            PreparedStatement statement;
+            synchronized (this) {
+                statement = statements.remove(key);
+            }
+            if (statement != null && statement.isClosed()) {
+                return null;
+            }
+            return statement;
+        }
+
+        /**
+         * @return the statement that cannot be kept
+         */
+        synchronized PreparedStatement put(Key key, PreparedStatement statement) {
+            if (statements.containsKey(key)) {
+                return statement;
+            }
+            statements.put(key, statement);
+            return null;
+        }
+    }
+
+    /**
+     * Cache key, the sql and the flags passed to acquire.
+     */
+    public static final class Key {
+        private final String sql;
+        private final boolean returnsGeneratedKey;
+        private final int hash;
+
+        public Key(String sql, boolean returnsGeneratedKey) {
+            this.sql = sql;
+            this.returnsGeneratedKey = returnsGeneratedKey;
+            this.hash = Objects.hash(sql, returnsGeneratedKey);
+        }
+
+        boolean isReturnsGeneratedKey() {
+            return returnsGeneratedKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return returnsGeneratedKey == key.returnsGeneratedKey &&
+                    sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
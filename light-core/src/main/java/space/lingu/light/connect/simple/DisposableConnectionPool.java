@@ -29,7 +29,8 @@ import java.sql.SQLException;
 /**
  * Disposable connection pool.
  * <p>
- * Not recommended for use in production environments.
+ * Not recommended for use in production environments,
+ * use {@link space.lingu.light.connect.LightConnectionPool} instead.
  *
  * @author RollW
  */
@@ -83,6 +84,14 @@ public class DisposableConnectionPool extends BaseConnectionPool implements Conn
         }
     }
 
+    /**
+     * Every connection is closed when released.
+     */
+    @Override
+    public boolean reusesConnections() {
+        return false;
+    }
+
     @Override
     public void close() {
     }
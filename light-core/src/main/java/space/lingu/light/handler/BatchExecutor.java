@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import space.lingu.light.BatchOptions;
+import space.lingu.light.ManagedConnection;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Executes the statement of a {@link Handler} over multiple entities,
+ * flushing every {@link BatchOptions#getChunkSize()} rows.
+ * <p>
+ * Transactions are opened and committed here, either once for
+ * the whole operation or once per chunk. Rollback and closing the
+ * connection are left to the caller.
+ *
+ * @author RollW
+ */
+final class BatchExecutor<T> {
+    /**
+     * Called after the statement was executed, either for a flushed
+     * batch or for a single row when batch is not used.
+     */
+    interface ExecutionListener {
+        void onExecuted(PreparedStatement statement, int rows) throws SQLException;
+    }
+
+    private final Handler<T> handler;
+    private final BatchOptions options;
+    private final boolean batch;
+
+    BatchExecutor(Handler<T> handler, BatchOptions options, boolean batch) {
+        this.handler = handler;
+        this.options = options;
+        this.batch = batch;
+    }
+
+    /**
+     * @return update count of each chunk, or {@link Statement#SUCCESS_NO_INFO}
+     * for a chunk whose count is unknown
+     */
+    int[] execute(ManagedConnection conn,
+                  PreparedStatement stmt,
+                  Iterable<? extends T> entities,
+                  ExecutionListener listener) throws SQLException {
+        final int chunkSize = options.getChunkSize();
+        final boolean perChunk = options.isTransactionPerChunk();
+        int[] counts = new int[8];
+        int chunks = 0;
+        int rows = 0;
+        int chunkCount = 0;
+
+        if (!perChunk) {
+            conn.beginTransaction();
+        }
+        for (T entity : entities) {
+            if (rows == 0 && perChunk) {
+                conn.beginTransaction();
+            }
+            stmt.clearParameters();
+            handler.bind(stmt, entity);
+            if (batch) {
+                stmt.addBatch();
+            } else {
+                chunkCount = accumulate(chunkCount, stmt.executeUpdate());
+                notify(listener, stmt, 1);
+            }
+            if (++rows < chunkSize) {
+                continue;
+            }
+            chunkCount = flush(stmt, rows, chunkCount, listener);
+            if (perChunk) {
+                conn.commit();
+            }
+            if (chunks == counts.length) {
+                counts = Arrays.copyOf(counts, chunks << 1);
+            }
+            counts[chunks++] = chunkCount;
+            rows = 0;
+            chunkCount = 0;
+        }
+        if (rows > 0) {
+            chunkCount = flush(stmt, rows, chunkCount, listener);
+            if (perChunk) {
+                conn.commit();
+            }
+            if (chunks == counts.length) {
+                counts = Arrays.copyOf(counts, chunks + 1);
+            }
+            counts[chunks++] = chunkCount;
+        }
+        if (!perChunk) {
+            conn.commit();
+        }
+        return Arrays.copyOf(counts, chunks);
+    }
+
+    private int flush(PreparedStatement stmt, int rows, int chunkCount,
+                      ExecutionListener listener) throws SQLException {
+        if (!batch) {
+            return chunkCount;
+        }
+        for (int count : stmt.executeBatch()) {
+            chunkCount = accumulate(chunkCount, count);
+        }
+        notify(listener, stmt, rows);
+        return chunkCount;
+    }
+
+    private static void notify(ExecutionListener listener,
+                               PreparedStatement stmt,
+                               int rows) throws SQLException {
+        if (listener != null) {
+            listener.onExecuted(stmt, rows);
+        }
+    }
+
+    static int accumulate(int total, int count) {
+        if (total == Statement.SUCCESS_NO_INFO || count < 0) {
+            return Statement.SUCCESS_NO_INFO;
+        }
+        return total + count;
+    }
+
+    static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total = accumulate(total, count);
+        }
+        return total;
+    }
+}
@@ -55,22 +55,38 @@ public abstract class DeleteUpdateHandler<T> extends Handler<T> {
         }
     }
 
+    /**
+     * @see #handleMultiple(Iterable)
+     */
     public final int handleMultiple(T[] entities) {
         return handleMultiple(Arrays.asList(entities));
     }
 
+    /**
+     * Execute the statement for each entity in batches.
+     *
+     * @return total number of rows affected, or
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} if the driver reports
+     * no count for any of the batched statements
+     */
     public final int handleMultiple(Iterable<? extends T> entities) {
+        return BatchExecutor.sum(handleInBatches(entities));
+    }
+
+    /**
+     * Delete or update entities in chunks according to the database
+     * {@link space.lingu.light.BatchOptions}.
+     *
+     * @return update count of each chunk
+     */
+    public final int[] handleInBatches(Iterable<? extends T> entities) {
         final ManagedConnection conn = newConnection();
         final PreparedStatement stmt = acquire(conn);
         try {
-            int count = 0;
-            for (T entity : entities) {
-                bind(stmt, entity);
-                conn.beginTransaction();
-                count += stmt.executeUpdate();
-                conn.commit();
-            }
-            return count;
+            BatchExecutor<T> executor = new BatchExecutor<>(this,
+                    database.getBatchOptions(),
+                    conn.getMetadata().supportsBatch);
+            return executor.execute(conn, stmt, entities, null);
         } catch (SQLException e) {
             conn.rollback();
             throw new LightRuntimeException(e);
@@ -29,13 +29,27 @@ import java.sql.PreparedStatement;
  */
 public abstract class Handler<T> {
     protected final LightDatabase database;
+    private String tag;
 
     public Handler(LightDatabase database) {
         this.database = database;
     }
 
     protected ManagedConnection newConnection() {
-        return database.requireManagedConnection();
+        return database.requireManagedConnection(tag);
+    }
+
+    /**
+     * Set the tag of the DAO methods using this handler,
+     * reported to the {@link space.lingu.light.metrics.MetricsCollector}.
+     * Called by the DAO implementations when they are created.
+     */
+    public final void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public final String getTag() {
+        return tag;
     }
 
     /**
@@ -50,14 +64,46 @@ public abstract class Handler<T> {
      */
     protected abstract String createQuery();
 
+    private String query;
+
+    /**
+     * The sql will be executed, created once by {@link #createQuery()}
+     * and reused afterwards.
+     *
+     * @return the sql will be executed
+     */
+    public final String getQuery() {
+        // benign race: the sql is an immutable string and
+        // createQuery() always returns the same value.
+        String sql = query;
+        if (sql == null) {
+            sql = createQuery();
+            query = sql;
+        }
+        return sql;
+    }
+
     protected PreparedStatement acquire(ManagedConnection connection) {
-        String sql = createQuery();
+        return acquire(connection, getQuery());
+    }
+
+    protected PreparedStatement acquire(ManagedConnection connection, String sql) {
         printDebug("Execute: " + sql);
         return connection.acquire(sql);
     }
 
+    /**
+     * Acquire a statement bypassing the statement cache.
+     *
+     * @see ManagedConnection#acquireUncached(String)
+     */
+    protected PreparedStatement acquireUncached(ManagedConnection connection, String sql) {
+        printDebug("Execute: " + sql);
+        return connection.acquireUncached(sql);
+    }
+
     protected PreparedStatement acquireReturnsGenerateKey(ManagedConnection connection) {
-        String sql = createQuery();
+        String sql = getQuery();
         printDebug("Execute: " + sql);
         return connection.acquire(sql, true);
     }
@@ -16,6 +16,7 @@
 
 package space.lingu.light.handler;
 
+import space.lingu.light.BatchOptions;
 import space.lingu.light.LightDatabase;
 import space.lingu.light.LightRuntimeException;
 import space.lingu.light.ManagedConnection;
@@ -59,27 +60,20 @@ public abstract class InsertHandler<T> extends Handler<T> {
     }
 
     public final void insert(Iterable<? extends T> entities) {
+        insertInBatches(entities);
+    }
+
+    /**
+     * Insert entities in chunks according to the database
+     * {@link BatchOptions}.
+     *
+     * @return update count of each chunk
+     * @see MultiRowInsertHandler
+     */
+    public final int[] insertInBatches(Iterable<? extends T> entities) {
         final ManagedConnection conn = newConnection();
-        final PreparedStatement stmt = acquire(conn);
         try {
-            if (conn.getMetadata().supportsBatch) {
-                for (T entity : entities) {
-                    stmt.clearParameters();
-                    bind(stmt, entity);
-                    stmt.addBatch();
-                }
-                stmt.executeBatch();
-            } else {
-                for (T entity : entities) {
-                    stmt.clearParameters();
-                    bind(stmt, entity);
-
-                    conn.beginTransaction();
-                    stmt.execute();
-                    conn.commit();
-                }
-            }
-
+            return insertInBatches(conn, entities);
         } catch (SQLException e) {
             conn.rollback();
             throw new LightRuntimeException(e);
@@ -88,6 +82,15 @@ public abstract class InsertHandler<T> extends Handler<T> {
         }
     }
 
+    int[] insertInBatches(ManagedConnection conn,
+                          Iterable<? extends T> entities) throws SQLException {
+        final PreparedStatement stmt = acquire(conn);
+        BatchExecutor<T> executor = new BatchExecutor<>(this,
+                database.getBatchOptions(),
+                conn.getMetadata().supportsBatch);
+        return executor.execute(conn, stmt, entities, null);
+    }
+
     public final long insertAndReturnId(T entity) {
         final ManagedConnection conn = newConnection();
         final PreparedStatement stmt = acquireReturnsGenerateKey(conn);
@@ -112,45 +115,11 @@ public abstract class InsertHandler<T> extends Handler<T> {
     }
 
     public final long[] insertAndReturnIdsArray(Collection<? extends T> entities) {
-        final ManagedConnection conn = newConnection();
-        final PreparedStatement stmt = acquireReturnsGenerateKey(conn);
-        try {
-            final long[] result = new long[entities.size()];
-            int index = 0;
-            for (T entity : entities) {
-                bind(stmt, entity);
-                conn.beginTransaction();
-                stmt.execute();
-                conn.commit();
-
-                ResultSet set = stmt.getGeneratedKeys();
-                if (set.next()) {
-                    result[index] = set.getLong(1);
-                }
-                index++;
-                set.close();
-            }
-            return result;
-        } catch (SQLException e) {
-            conn.rollback();
-            throw new LightRuntimeException(e);
-        } finally {
-            conn.close();
-        }
+        return insertAndReturnIds(entities, entities.size());
     }
 
     public final long[] insertAndReturnIdsArray(Iterable<? extends T> entities) {
-        final ManagedConnection conn = newConnection();
-        final PreparedStatement stmt = acquireReturnsGenerateKey(conn);
-        try {
-            List<Long> result = iterableBind(entities, conn, stmt);
-            return convert(result);
-        } catch (SQLException e) {
-            conn.rollback();
-            throw new LightRuntimeException(e);
-        } finally {
-            conn.close();
-        }
+        return insertAndReturnIds(entities, DEFAULT_CAPACITY);
     }
 
     public final long[] insertAndReturnIdsArray(T[] entities) {
@@ -158,61 +127,11 @@ public abstract class InsertHandler<T> extends Handler<T> {
     }
 
     public final Long[] insertAndReturnIdsArrayBox(Collection<? extends T> entities) {
-        final ManagedConnection conn = newConnection();
-        final PreparedStatement stmt = acquireReturnsGenerateKey(conn);
-        try {
-            final Long[] result = new Long[entities.size()];
-            int index = 0;
-            for (T entity : entities) {
-                bind(stmt, entity);
-                conn.beginTransaction();
-                stmt.execute();
-                conn.commit();
-
-                ResultSet set = stmt.getGeneratedKeys();
-                if (set.next()) {
-                    result[index] = set.getLong(1);
-                }
-                set.close();
-                index++;
-            }
-            return result;
-        } catch (SQLException e) {
-            conn.rollback();
-            throw new LightRuntimeException(e);
-        } finally {
-            conn.close();
-        }
+        return box(insertAndReturnIds(entities, entities.size()));
     }
 
     public final Long[] insertAndReturnIdsArrayBox(Iterable<? extends T> entities) {
-        final ManagedConnection conn = newConnection();
-        final PreparedStatement stmt = acquireReturnsGenerateKey(conn);
-        try {
-            List<Long> result = iterableBind(entities, conn, stmt);
-            return result.toArray(new Long[0]);
-        } catch (SQLException e) {
-            conn.rollback();
-            throw new LightRuntimeException(e);
-        } finally {
-            conn.close();
-        }
-    }
-
-    private List<Long> iterableBind(Iterable<? extends T> entities, ManagedConnection conn, PreparedStatement stmt) throws SQLException {
-        List<Long> res = new ArrayList<>();
-        for (T entity : entities) {
-            bind(stmt, entity);
-            conn.beginTransaction();
-            stmt.execute();
-            conn.commit();
-            ResultSet set = stmt.getGeneratedKeys();
-            if (set.next()) {
-                res.add(set.getLong(1));
-            }
-            set.close();
-        }
-        return res;
+        return box(insertAndReturnIds(entities, DEFAULT_CAPACITY));
     }
 
     public final Long[] insertAndReturnIdsArrayBox(T[] entities) {
@@ -231,13 +150,73 @@ public abstract class InsertHandler<T> extends Handler<T> {
         return new ArrayList<>(Arrays.asList(insertAndReturnIdsArrayBox(entities)));
     }
 
-    private static long[] convert(List<Long> longList) {
-        long[] longs = new long[longList.size()];
-        int i = 0;
-        for (Long l : longList) {
-            longs[i++] = l;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Inserts the entities and returns one generated key for each of
+     * them, in insertion order. A slot is left {@code 0} if the driver
+     * returned no key for the row.
+     * <p>
+     * If batch generated keys are supported, each chunk is sent as one
+     * batch and its keys are read from one result set. Otherwise, rows
+     * are executed one by one, still within the chunk's transaction.
+     */
+    private long[] insertAndReturnIds(Iterable<? extends T> entities,
+                                      int sizeHint) {
+        final ManagedConnection conn = newConnection();
+        final PreparedStatement stmt = acquireReturnsGenerateKey(conn);
+        try {
+            BatchExecutor<T> executor = new BatchExecutor<>(this,
+                    database.getBatchOptions(),
+                    conn.getMetadata().supportsBatchGeneratedKeys);
+            GeneratedKeysCollector collector = new GeneratedKeysCollector(sizeHint);
+            executor.execute(conn, stmt, entities, collector);
+            return collector.toArray();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new LightRuntimeException(e);
+        } finally {
+            conn.close();
+        }
+    }
+
+    private static final class GeneratedKeysCollector
+            implements BatchExecutor.ExecutionListener {
+        private long[] keys;
+        private int size;
+
+        GeneratedKeysCollector(int sizeHint) {
+            this.keys = new long[Math.max(sizeHint, 1)];
+        }
+
+        @Override
+        public void onExecuted(PreparedStatement statement, int rows)
+                throws SQLException {
+            if (size + rows > keys.length) {
+                keys = Arrays.copyOf(keys,
+                        Math.max(keys.length << 1, size + rows));
+            }
+            try (ResultSet set = statement.getGeneratedKeys()) {
+                int index = 0;
+                while (index < rows && set.next()) {
+                    keys[size + index] = set.getLong(1);
+                    index++;
+                }
+            }
+            size += rows;
+        }
+
+        long[] toArray() {
+            return size == keys.length ? keys : Arrays.copyOf(keys, size);
+        }
+    }
+
+    private static Long[] box(long[] longs) {
+        Long[] boxed = new Long[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            boxed[i] = longs[i];
         }
-        return longs;
+        return boxed;
     }
 
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import space.lingu.light.LightDatabase;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.ManagedConnection;
+import space.lingu.light.Order;
+import space.lingu.light.PageRequest;
+import space.lingu.light.QueryOptions;
+import space.lingu.light.RouteTarget;
+import space.lingu.light.Slice;
+import space.lingu.light.sql.SQLGenerator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Internal API. Handle queries paged by keyset, see
+ * {@link space.lingu.light.Keyset}.
+ * <p>
+ * The first page runs {@code <sql> ORDER BY a, b LIMIT ?}, the
+ * following pages seek past the sort key in the continuation token
+ * by {@code <sql> WHERE (<condition>) AND (a, b) > (?, ?) ORDER BY a, b LIMIT ?}.
+ * Template parameters of the sql come first, the seek values
+ * and the limit are bound after them.
+ *
+ * @author RollW
+ */
+public class KeysetSQLHandler extends SQLHandler {
+    private final String[] keyColumns;
+    private final String[] keyLabels;
+    private final SQLHandler seekHandler;
+
+    public KeysetSQLHandler(LightDatabase database, String sql,
+                            String[] keyColumns, Order order) {
+        this(database, sql, QueryOptions.DEFAULT, keyColumns, order);
+    }
+
+    public KeysetSQLHandler(LightDatabase database, String sql,
+                            QueryOptions queryOptions,
+                            String[] keyColumns, Order order) {
+        super(database, pageQuery(database, sql, keyColumns, order, false),
+                queryOptions);
+        this.seekHandler = new SQLHandler(database,
+                pageQuery(database, sql, keyColumns, order, true),
+                queryOptions);
+        this.keyColumns = keyColumns.clone();
+        this.keyLabels = new String[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            String column = keyColumns[i];
+            keyLabels[i] = column.substring(column.lastIndexOf('.') + 1);
+        }
+    }
+
+    /**
+     * Acquire a prepared statement of the page, with the seek
+     * values and the limit bound.
+     *
+     * @param args number of template parameters in parameter order
+     * @param page the page request
+     */
+    public PreparedStatement acquire(ManagedConnection connection, int[] args,
+                                     PageRequest page) {
+        Object[] seek = page.isFirst()
+                ? null
+                : KeysetToken.decode(page.getToken(), keyColumns.length);
+        PreparedStatement statement = seek == null
+                ? acquire(connection, args)
+                : seekHandler.acquire(connection, args);
+        int index = 1;
+        for (int arg : args) {
+            index += arg;
+        }
+        try {
+            if (seek != null) {
+                for (int i = 0; i < seek.length; i++) {
+                    statement.setObject(index++, requireKey(seek[i], i));
+                }
+            }
+            statement.setInt(index, page.getSize());
+        } catch (SQLException e) {
+            throw new LightRuntimeException(e);
+        }
+        return statement;
+    }
+
+    /**
+     * Get the sql prepared for the following pages, see
+     * {@link #getStatementSql()} for the first page.
+     */
+    public String getSeekStatementSql() {
+        return seekHandler.getStatementSql();
+    }
+
+    /**
+     * Read the sort key of the current row.
+     *
+     * @throws LightRuntimeException if any sort column is {@code NULL},
+     *                               a {@code NULL} never compares greater
+     *                               in the seek predicate and the
+     *                               following pages would be empty.
+     */
+    public Object[] readKeys(ResultSet resultSet) throws SQLException {
+        Object[] keys = new Object[keyLabels.length];
+        for (int i = 0; i < keyLabels.length; i++) {
+            keys[i] = requireKey(resultSet.getObject(keyLabels[i]), i);
+        }
+        return keys;
+    }
+
+    private Object requireKey(Object value, int index) {
+        if (value == null) {
+            throw new LightRuntimeException("Sort column " + keyColumns[index] +
+                    " of the keyset is null, keyset pagination requires not null sort columns.");
+        }
+        return value;
+    }
+
+    /**
+     * Create the slice of the rows.
+     *
+     * @param content  rows of the page
+     * @param lastKeys sort key of the last row if the page is
+     *                 full, otherwise {@code null}
+     * @param page     the page request
+     */
+    public <T> Slice<T> createSlice(List<T> content, Object[] lastKeys,
+                                    PageRequest page) {
+        String nextToken = lastKeys == null
+                ? null
+                : KeysetToken.encode(lastKeys);
+        return new Slice<>(content, page.getSize(), nextToken);
+    }
+
+    @Override
+    public void setTag(String tag) {
+        super.setTag(tag);
+        seekHandler.setTag(tag);
+    }
+
+    @Override
+    public void setRouteTarget(RouteTarget routeTarget) {
+        super.setRouteTarget(routeTarget);
+        seekHandler.setRouteTarget(routeTarget);
+    }
+
+    private static String pageQuery(LightDatabase database, String sql,
+                                     String[] keyColumns, Order order,
+                                     boolean seek) {
+        String error = checkQuery(sql);
+        if (error != null) {
+            throw new IllegalArgumentException(error + " Sql: " + sql);
+        }
+        if (keyColumns.length == 0) {
+            throw new IllegalArgumentException("Sort columns cannot be empty.");
+        }
+        SQLGenerator generator = database.getDialectProvider().getGenerator();
+        String query = trimQuery(sql);
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (String keyColumn : keyColumns) {
+            String escaped = escapeColumn(generator, keyColumn);
+            columns.add(escaped);
+            orderBy.add(order == Order.DESC ? escaped + " DESC" : escaped);
+        }
+        StringBuilder builder = new StringBuilder(query.length() + 64);
+        if (!seek) {
+            builder.append(query);
+        } else {
+            String predicate = keyColumns.length == 1
+                    ? columns + (order == Order.DESC ? " < ?" : " > ?")
+                    : "(" + columns + ")" + (order == Order.DESC ? " < (" : " > (") +
+                    generator.placeHolders(keyColumns.length) + ")";
+            int where = findWhere(query);
+            if (where < 0) {
+                builder.append(query).append(" WHERE ").append(predicate);
+            } else {
+                builder.append(query, 0, where)
+                        .append(" (")
+                        .append(query.substring(where).trim())
+                        .append(") AND ")
+                        .append(predicate);
+            }
+        }
+        return builder.append(orderBy).append(" LIMIT ?").toString();
+    }
+
+    private static String escapeColumn(SQLGenerator generator, String column) {
+        StringJoiner joiner = new StringJoiner(".");
+        for (String part : column.split("\\.")) {
+            joiner.add(generator.escapeParam(part));
+        }
+        return joiner.toString();
+    }
+
+    private static String trimQuery(String sql) {
+        String trimmed = sql.trim();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private static final String[] UNSUPPORTED_CLAUSES = {
+            "ORDER", "LIMIT", "OFFSET", "FETCH", "GROUP", "HAVING",
+            "UNION", "INTERSECT", "EXCEPT", "FOR"
+    };
+
+    /**
+     * Check if the sql can be paged by keyset: a plain
+     * {@code SELECT} without a top-level
+     * {@code ORDER BY}, {@code LIMIT}, {@code GROUP BY} or set operation.
+     *
+     * @param sql the sql template
+     * @return error message, or {@code null} if supported
+     */
+    public static String checkQuery(String sql) {
+        String query = trimQuery(sql);
+        if (!query.regionMatches(true, 0, "SELECT", 0, 6)) {
+            return "Keyset pagination only supports SELECT.";
+        }
+        for (String word : topLevelWords(query)) {
+            for (String clause : UNSUPPORTED_CLAUSES) {
+                if (clause.equals(word)) {
+                    return "Keyset pagination query cannot contain top-level " +
+                            clause + ", ordering and limit are generated.";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The index just after the top-level {@code WHERE}, or -1.
+     */
+    private static int findWhere(String query) {
+        SQLScanner scanner = new SQLScanner(query);
+        String word;
+        while ((word = scanner.nextTopLevelWord()) != null) {
+            if (word.equals("WHERE")) {
+                return scanner.position();
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> topLevelWords(String query) {
+        List<String> words = new ArrayList<>();
+        SQLScanner scanner = new SQLScanner(query);
+        String word;
+        while ((word = scanner.nextTopLevelWord()) != null) {
+            words.add(word);
+        }
+        return words;
+    }
+}
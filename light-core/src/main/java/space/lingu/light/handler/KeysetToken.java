@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+/**
+ * Encodes sort key values of a row into an opaque, url-safe
+ * continuation token and back, keeping their types so they
+ * bind as they were read.
+ *
+ * @author RollW
+ */
+final class KeysetToken {
+    private static final int VERSION = 1;
+
+    static String encode(Object[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * values.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(values.length);
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(bytes.toByteArray());
+    }
+
+    static Object[] decode(String token, int count) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw invalid(token);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != VERSION || in.readByte() != count) {
+                throw invalid(token);
+            }
+            Object[] values = new Object[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = readValue(in, token);
+            }
+            if (in.available() > 0) {
+                throw invalid(token);
+            }
+            return values;
+        } catch (IOException | RuntimeException e) {
+            throw invalid(token);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte('N');
+        } else if (value instanceof Long) {
+            out.writeByte('J');
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte('I');
+            out.writeInt((Integer) value);
+        } else if (value instanceof Short) {
+            out.writeByte('S');
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte('B');
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte('D');
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte('F');
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte('Z');
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte('M');
+            writeString(out, ((BigDecimal) value).toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte('G');
+            writeString(out, value.toString());
+        } else if (value instanceof String) {
+            out.writeByte('T');
+            writeString(out, (String) value);
+        } else if (value instanceof Timestamp) {
+            out.writeByte('P');
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof Date) {
+            out.writeByte('d');
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte('t');
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof LocalDateTime) {
+            out.writeByte('L');
+            writeString(out, value.toString());
+        } else if (value instanceof LocalDate) {
+            out.writeByte('l');
+            writeString(out, value.toString());
+        } else if (value instanceof LocalTime) {
+            out.writeByte('k');
+            writeString(out, value.toString());
+        } else if (value instanceof OffsetDateTime) {
+            out.writeByte('O');
+            writeString(out, value.toString());
+        } else if (value instanceof byte[]) {
+            out.writeByte('Y');
+            out.writeInt(((byte[]) value).length);
+            out.write((byte[]) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported type of sort key: " +
+                    value.getClass().getCanonicalName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in, String token) throws IOException {
+        int type = in.readByte();
+        switch (type) {
+            case 'N':
+                return null;
+            case 'J':
+                return in.readLong();
+            case 'I':
+                return in.readInt();
+            case 'S':
+                return in.readShort();
+            case 'B':
+                return in.readByte();
+            case 'D':
+                return in.readDouble();
+            case 'F':
+                return in.readFloat();
+            case 'Z':
+                return in.readBoolean();
+            case 'M':
+                return new BigDecimal(readString(in));
+            case 'G':
+                return new BigInteger(readString(in));
+            case 'T':
+                return readString(in);
+            case 'P': {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case 'd':
+                return new Date(in.readLong());
+            case 't':
+                return new Time(in.readLong());
+            case 'L':
+                return LocalDateTime.parse(readString(in));
+            case 'l':
+                return LocalDate.parse(readString(in));
+            case 'k':
+                return LocalTime.parse(readString(in));
+            case 'O':
+                return OffsetDateTime.parse(readString(in));
+            case 'Y':
+                return readBytes(in);
+            default:
+                throw invalid(token);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static IllegalArgumentException invalid(String token) {
+        return new IllegalArgumentException("Invalid page token: " + token);
+    }
+
+    private KeysetToken() {
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import space.lingu.light.LightDatabase;
+import space.lingu.light.ManagedConnection;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Insert handler which can send rows as multi-row statements,
+ * {@code INSERT ... VALUES (...), (...)}, holding as many rows as
+ * the bind parameter limit and chunk size allow. Each statement
+ * counts as one chunk.
+ *
+ * @author RollW
+ */
+public abstract class MultiRowInsertHandler<T> extends InsertHandler<T> {
+    public MultiRowInsertHandler(LightDatabase database) {
+        super(database);
+    }
+
+    /**
+     * The number of parameters bound for each entity.
+     */
+    protected abstract int getParameterCount();
+
+    /**
+     * The sql inserting given rows at once.
+     *
+     * @param rows rows in the statement
+     * @return the sql will be executed
+     */
+    protected abstract String createQuery(int rows);
+
+    /**
+     * Bind entity's parameters to statement, starting after the offset.
+     */
+    protected abstract void bind(PreparedStatement statement, T entity, int offset);
+
+    private volatile MultiRowQuery multiRowQuery;
+
+    /**
+     * The multi-row sql for given rows. The last created one is kept,
+     * since every full chunk uses the same number of rows.
+     */
+    private String getQuery(int rows) {
+        MultiRowQuery cached = multiRowQuery;
+        if (cached != null && cached.rows == rows) {
+            return cached.sql;
+        }
+        String sql = createQuery(rows);
+        multiRowQuery = new MultiRowQuery(rows, sql);
+        return sql;
+    }
+
+    private static final class MultiRowQuery {
+        private final int rows;
+        private final String sql;
+
+        MultiRowQuery(int rows, String sql) {
+            this.rows = rows;
+            this.sql = sql;
+        }
+    }
+
+    @Override
+    int[] insertInBatches(ManagedConnection conn,
+                          Iterable<? extends T> entities) throws SQLException {
+        final int rowsPerStatement = rowsPerStatement(conn.getMetadata());
+        if (rowsPerStatement <= 1) {
+            return super.insertInBatches(conn, entities);
+        }
+        final String sql;
+        try {
+            sql = getQuery(rowsPerStatement);
+        } catch (UnsupportedOperationException e) {
+            // the generator only creates single-row statements
+            return super.insertInBatches(conn, entities);
+        }
+        return multiRowInsert(conn, entities, rowsPerStatement, sql);
+    }
+
+    private int rowsPerStatement(LightDatabase.Metadata metadata) {
+        final int parameters = getParameterCount();
+        if (parameters <= 0) {
+            return 1;
+        }
+        int rows = Math.min(database.getBatchOptions().getChunkSize(),
+                metadata.maxBindParameters / parameters);
+        return Math.max(rows, 1);
+    }
+
+    private int[] multiRowInsert(ManagedConnection conn,
+                                 Iterable<? extends T> entities,
+                                 int rowsPerStatement,
+                                 String sql) throws SQLException {
+        final boolean perChunk = database.getBatchOptions().isTransactionPerChunk();
+        final List<T> pending = new ArrayList<>(rowsPerStatement);
+        PreparedStatement stmt = null;
+        int[] counts = new int[8];
+        int chunks = 0;
+
+        if (!perChunk) {
+            conn.beginTransaction();
+        }
+        for (T entity : entities) {
+            pending.add(entity);
+            if (pending.size() < rowsPerStatement) {
+                continue;
+            }
+            if (stmt == null) {
+                stmt = acquire(conn, sql);
+            }
+            if (chunks == counts.length) {
+                counts = Arrays.copyOf(counts, chunks << 1);
+            }
+            counts[chunks++] = executeRows(conn, stmt, pending, perChunk);
+            pending.clear();
+        }
+        if (!pending.isEmpty()) {
+            // the remainder size varies between calls, caching
+            // its statement would only evict the full-size one
+            PreparedStatement rest = acquireUncached(conn, createQuery(pending.size()));
+            if (chunks == counts.length) {
+                counts = Arrays.copyOf(counts, chunks + 1);
+            }
+            try {
+                counts[chunks++] = executeRows(conn, rest, pending, perChunk);
+            } finally {
+                conn.release(rest);
+            }
+        }
+        if (!perChunk) {
+            conn.commit();
+        }
+        return Arrays.copyOf(counts, chunks);
+    }
+
+    private int executeRows(ManagedConnection conn,
+                            PreparedStatement stmt,
+                            List<T> rows,
+                            boolean transaction) throws SQLException {
+        final int parameters = getParameterCount();
+        stmt.clearParameters();
+        for (int i = 0; i < rows.size(); i++) {
+            bind(stmt, rows.get(i), i * parameters);
+        }
+        if (transaction) {
+            conn.beginTransaction();
+        }
+        int count = stmt.executeUpdate();
+        if (transaction) {
+            conn.commit();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import space.lingu.light.BatchOptions;
+import space.lingu.light.LightDatabase;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.ManagedConnection;
+import space.lingu.light.util.IntList;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Handler for updates writing only the changed columns.
+ * <p>
+ * The changed columns of an entity are given as a bitmask, bit
+ * {@code i} for the {@code i}-th column. Statements are created
+ * once for each mask and reused afterwards.
+ * <p>
+ * For multiple entities, each mask has its own batch, see
+ * {@link #handleInBatches(Iterable)}.
+ *
+ * @author RollW
+ * @see space.lingu.light.ChangeTracking
+ */
+@SuppressWarnings({"unused"})
+public abstract class PartialUpdateHandler<T> extends Handler<T> {
+    private final String[] columns;
+    private final long allColumns;
+    private final ConcurrentMap<Long, Shape> shapes = new ConcurrentHashMap<>();
+
+    /**
+     * @param columns all columns could be updated, in the
+     *                order of bits of the mask.
+     */
+    public PartialUpdateHandler(LightDatabase database, String[] columns) {
+        super(database);
+        if (columns.length > Long.SIZE) {
+            throw new IllegalArgumentException("Partial update supports at most " +
+                    Long.SIZE + " columns, but got " + columns.length);
+        }
+        this.columns = columns;
+        this.allColumns = columns.length == Long.SIZE
+                ? -1L
+                : (1L << columns.length) - 1;
+    }
+
+    /**
+     * Get the changed columns of the entity.
+     *
+     * @return bitmask of the changed columns, 0 if nothing changed
+     */
+    protected abstract long changedColumns(T entity);
+
+    /**
+     * Create the sql updating the given columns.
+     */
+    protected abstract String createQuery(String[] changedColumns);
+
+    /**
+     * Bind values of the changed columns in order, then the
+     * primary keys.
+     */
+    protected abstract void bind(PreparedStatement statement, T entity,
+                                 long changedColumns);
+
+    @Override
+    protected final String createQuery() {
+        return createQuery(columns);
+    }
+
+    @Override
+    protected final void bind(PreparedStatement statement, T entity) {
+        bind(statement, entity, allColumns);
+    }
+
+    public final int handle(T entity) {
+        final long changed = changedColumns(entity) & allColumns;
+        if (changed == 0) {
+            return 0;
+        }
+        final ManagedConnection conn = newConnection();
+        final PreparedStatement stmt = shapeOf(changed).acquire(conn);
+        try {
+            bind(stmt, entity, changed);
+            conn.beginTransaction();
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new LightRuntimeException(e);
+        } finally {
+            conn.commit();
+            conn.close();
+        }
+    }
+
+    /**
+     * @see #handleMultiple(Iterable)
+     */
+    public final int handleMultiple(T[] entities) {
+        return handleMultiple(Arrays.asList(entities));
+    }
+
+    /**
+     * Execute the statement for each entity in batches.
+     *
+     * @return total number of rows affected, or
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} if the driver reports
+     * no count for any of the batched statements
+     */
+    public final int handleMultiple(Iterable<? extends T> entities) {
+        return BatchExecutor.sum(handleInBatches(entities));
+    }
+
+    /**
+     * Update entities in chunks according to the database
+     * {@link BatchOptions}.
+     * <p>
+     * Entities are read in chunks of {@link BatchOptions#getChunkSize()}.
+     * Within a chunk, each set of changed columns has its own pending
+     * batch, all of them are flushed when the chunk is full. Like the
+     * other bulk paths, everything runs on one connection, in one
+     * transaction unless {@link BatchOptions#isTransactionPerChunk()}.
+     *
+     * @return update count of each chunk
+     */
+    public final int[] handleInBatches(Iterable<? extends T> entities) {
+        final BatchOptions options = database.getBatchOptions();
+        final int chunkSize = options.getChunkSize();
+        final boolean perChunk = options.isTransactionPerChunk();
+        final ManagedConnection conn = newConnection();
+        final boolean batch = conn.getMetadata().supportsBatch;
+        final Map<Long, Pending> pendings = new LinkedHashMap<>();
+        final IntList counts = new IntList();
+        try {
+            if (!perChunk) {
+                conn.beginTransaction();
+            }
+            int rows = 0;
+            int chunkCount = 0;
+            for (T entity : entities) {
+                final long changed = changedColumns(entity) & allColumns;
+                if (changed == 0) {
+                    continue;
+                }
+                if (rows == 0 && perChunk) {
+                    conn.beginTransaction();
+                }
+                Pending pending = pendings.get(changed);
+                if (pending == null) {
+                    pending = new Pending(shapeOf(changed), conn);
+                    pendings.put(changed, pending);
+                }
+                chunkCount = BatchExecutor.accumulate(chunkCount,
+                        pending.add(entity, batch));
+                if (++rows < chunkSize) {
+                    continue;
+                }
+                counts.add(flushChunk(pendings, chunkCount, conn, perChunk));
+                rows = 0;
+                chunkCount = 0;
+            }
+            if (rows > 0) {
+                counts.add(flushChunk(pendings, chunkCount, conn, perChunk));
+            }
+            if (!perChunk) {
+                conn.commit();
+            }
+            return counts.toArray();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new LightRuntimeException(e);
+        } catch (RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.close();
+        }
+    }
+
+    private int flushChunk(Map<Long, Pending> pendings,
+                           int chunkCount,
+                           ManagedConnection conn,
+                           boolean perChunk) throws SQLException {
+        for (Pending pending : pendings.values()) {
+            chunkCount = BatchExecutor.accumulate(chunkCount, pending.flush());
+        }
+        if (perChunk) {
+            conn.commit();
+        }
+        return chunkCount;
+    }
+
+    private Shape shapeOf(long changed) {
+        return shapes.computeIfAbsent(changed, Shape::new);
+    }
+
+    private String[] columnsOf(long changed) {
+        String[] changedColumns = new String[Long.bitCount(changed)];
+        int index = 0;
+        for (int i = 0; i < columns.length; i++) {
+            if ((changed & (1L << i)) != 0) {
+                changedColumns[index++] = columns[i];
+            }
+        }
+        return changedColumns;
+    }
+
+    /**
+     * Rows of a set of changed columns not flushed yet.
+     */
+    private final class Pending {
+        private final Shape shape;
+        private final PreparedStatement statement;
+        private int rows;
+
+        Pending(Shape shape, ManagedConnection conn) {
+            this.shape = shape;
+            this.statement = shape.acquire(conn);
+        }
+
+        /**
+         * @return update count if executed directly, 0 if added to the batch
+         */
+        int add(T entity, boolean batch) throws SQLException {
+            statement.clearParameters();
+            bind(statement, entity, shape.changed);
+            if (!batch) {
+                return statement.executeUpdate();
+            }
+            statement.addBatch();
+            rows++;
+            return 0;
+        }
+
+        int flush() throws SQLException {
+            if (rows == 0) {
+                return 0;
+            }
+            rows = 0;
+            int count = 0;
+            for (int rowCount : statement.executeBatch()) {
+                count = BatchExecutor.accumulate(count, rowCount);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Statement of a set of changed columns.
+     */
+    private final class Shape extends Handler<T> {
+        private final long changed;
+
+        Shape(long changed) {
+            super(PartialUpdateHandler.this.database);
+            this.changed = changed;
+        }
+
+        @Override
+        protected void bind(PreparedStatement statement, T entity) {
+            PartialUpdateHandler.this.bind(statement, entity, changed);
+        }
+
+        @Override
+        protected String createQuery() {
+            return PartialUpdateHandler.this.createQuery(columnsOf(changed));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.handler;
+
+import space.lingu.light.Cursor;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.ManagedConnection;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Cursor} over a {@link ResultSet}. Closes the result set,
+ * its statement and releases the connection when closed or exhausted.
+ * <p>
+ * Rows can also be read as primitives with the {@code nextXxx}
+ * methods, the mapper of the cursor is not used then.
+ *
+ * @author RollW
+ */
+final class ResultSetCursor<T> implements Cursor<T> {
+    private final SQLHandler handler;
+    private final ManagedConnection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+
+    private boolean fetched;
+    private boolean hasNext;
+    private boolean closed;
+
+    ResultSetCursor(SQLHandler handler,
+                    ManagedConnection connection,
+                    PreparedStatement statement,
+                    ResultSet resultSet,
+                    RowMapper<T> mapper) {
+        this.handler = handler;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (fetched) {
+            return hasNext;
+        }
+        try {
+            hasNext = resultSet.next();
+            fetched = true;
+        } catch (SQLException e) {
+            close();
+            throw new LightRuntimeException(e);
+        }
+        if (!hasNext) {
+            close();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        advance();
+        try {
+            return mapper.map(resultSet);
+        } catch (SQLException e) {
+            close();
+            throw new LightRuntimeException(e);
+        }
+    }
+
+    long nextLong(RowMapper.OfLong mapper) {
+        advance();
+        try {
+            return mapper.map(resultSet);
+        } catch (SQLException e) {
+            close();
+            throw new LightRuntimeException(e);
+        }
+    }
+
+    int nextInt(RowMapper.OfInt mapper) {
+        advance();
+        try {
+            return mapper.map(resultSet);
+        } catch (SQLException e) {
+            close();
+            throw new LightRuntimeException(e);
+        }
+    }
+
+    double nextDouble(RowMapper.OfDouble mapper) {
+        advance();
+        try {
+            return mapper.map(resultSet);
+        } catch (SQLException e) {
+            close();
+            throw new LightRuntimeException(e);
+        }
+    }
+
+    private void advance() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() throws LightRuntimeException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            resultSet.close();
+            statement.close();
+        } catch (SQLException e) {
+            throw new LightRuntimeException(e);
+        } finally {
+            handler.release(connection);
+        }
+    }
+}
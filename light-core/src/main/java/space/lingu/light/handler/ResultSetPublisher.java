@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import space.lingu.light.ManagedConnection;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the rows of a query to one subscriber as they are requested,
+ * following the Reactive Streams rules ({@code java.util.concurrent.Flow}).
+ * <p>
+ * The query is executed on the first request, and each row is read
+ * from the result set only when there is demand for it. The result
+ * set, its statement and the connection are released when the rows
+ * are exhausted, the subscription is cancelled or an error occurs.
+ * <p>
+ * Rows are emitted on the thread calling {@link Subscription#request(long)}.
+ * A publisher never subscribed holds its connection, the same as
+ * an unclosed {@link space.lingu.light.Cursor}.
+ *
+ * @author RollW
+ */
+public final class ResultSetPublisher<T> {
+    private final SQLHandler handler;
+    private final ManagedConnection connection;
+    private final PreparedStatement statement;
+    private final RowMapper<T> mapper;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    ResultSetPublisher(SQLHandler handler,
+                       ManagedConnection connection,
+                       PreparedStatement statement,
+                       RowMapper<T> mapper) {
+        this.handler = handler;
+        this.connection = connection;
+        this.statement = statement;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Subscribe to the rows. Only one subscriber is allowed, later ones
+     * are notified with an {@link IllegalStateException}.
+     *
+     * @param onSubscribe receives the {@link Subscription} first
+     * @param onNext      receives each row
+     * @param onError     receives the error terminating the subscription
+     * @param onComplete  called after the last row
+     */
+    public void subscribe(Consumer<? super Subscription> onSubscribe,
+                          Consumer<? super T> onNext,
+                          Consumer<? super Throwable> onError,
+                          Runnable onComplete) {
+        if (!subscribed.compareAndSet(false, true)) {
+            onSubscribe.accept(EmptySubscription.INSTANCE);
+            onError.accept(new IllegalStateException(
+                    "The publisher only allows one subscriber."));
+            return;
+        }
+        onSubscribe.accept(new RowSubscription(onNext, onError, onComplete));
+    }
+
+    /**
+     * Same as {@code java.util.concurrent.Flow.Subscription}.
+     */
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    private final class RowSubscription implements Subscription {
+        private final Consumer<? super T> onNext;
+        private final Consumer<? super Throwable> onError;
+        private final Runnable onComplete;
+
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // only accessed in drain()
+        private ResultSetCursor<T> cursor;
+        private boolean done;
+
+        RowSubscription(Consumer<? super T> onNext,
+                        Consumer<? super Throwable> onError,
+                        Runnable onComplete) {
+            this.onNext = onNext;
+            this.onError = onError;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException(
+                        "Requested rows must be positive, but was " + n);
+            } else {
+                addRequested(n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void addRequested(long n) {
+            long current, next;
+            do {
+                current = requested.get();
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+                next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+            } while (!requested.compareAndSet(current, next));
+        }
+
+        /**
+         * Serializes the emission, requests made from {@code onNext}
+         * only add demand to the running loop.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                emit();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (done) {
+                return;
+            }
+            Throwable invalid = invalidRequest;
+            if (cancelled || invalid != null) {
+                terminate();
+                if (invalid != null) {
+                    onError.accept(invalid);
+                }
+                return;
+            }
+            final long demand = requested.get();
+            long emitted = 0;
+            while (emitted != demand && !cancelled) {
+                final T row;
+                try {
+                    if (cursor == null) {
+                        cursor = handler.open(connection, statement, mapper);
+                    }
+                    if (!cursor.hasNext()) {
+                        done = true;
+                        onComplete.run();
+                        return;
+                    }
+                    row = cursor.next();
+                } catch (RuntimeException e) {
+                    terminate();
+                    onError.accept(e);
+                    return;
+                }
+                try {
+                    onNext.accept(row);
+                } catch (RuntimeException e) {
+                    // a subscriber must not throw, treat it as cancelled.
+                    terminate();
+                    throw e;
+                }
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            if (cursor != null) {
+                cursor.close();
+                return;
+            }
+            // the query was never executed.
+            handler.release(connection);
+        }
+    }
+
+    private enum EmptySubscription implements Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.handler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Internal API. Maps the current row of a {@link ResultSet}.
+ *
+ * @author RollW
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Maps the current row to a {@code long} without boxing.
+     */
+    @FunctionalInterface
+    interface OfLong {
+        long map(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Maps the current row to an {@code int} without boxing.
+     */
+    @FunctionalInterface
+    interface OfInt {
+        int map(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Maps the current row to a {@code double} without boxing.
+     */
+    @FunctionalInterface
+    interface OfDouble {
+        double map(ResultSet resultSet) throws SQLException;
+    }
+}
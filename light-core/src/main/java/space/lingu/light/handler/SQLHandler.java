@@ -16,17 +16,36 @@
 
 package space.lingu.light.handler;
 
+import space.lingu.light.Cursor;
 import space.lingu.light.LightDatabase;
+import space.lingu.light.LightRuntimeException;
 import space.lingu.light.ManagedConnection;
+import space.lingu.light.QueryOptions;
+import space.lingu.light.RouteTarget;
+import space.lingu.light.sql.SQLGenerator;
 import space.lingu.light.util.ResultSetUtils;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Internal API. Handle custom SQL expression.
@@ -37,6 +56,14 @@ public class SQLHandler {
     private final String sql;
     private final LightDatabase database;
     private final Map<String, ColumnIndex> columnIndexMap;
+    private final QueryOptions queryOptions;
+    private volatile QueryOptions resolvedOptions;
+    private final String[] segments;
+    private final int slots;
+    private final int segmentsLength;
+    private final boolean select;
+    private String tag;
+    private RouteTarget routeTarget = RouteTarget.AUTO;
 
     public SQLHandler(LightDatabase database, String sql) {
         this(database, sql, Collections.emptyList());
@@ -49,44 +76,156 @@ public class SQLHandler {
 
     public SQLHandler(LightDatabase database, String sql,
                       List<ColumnIndex> initialIndexes) {
+        this(database, sql, QueryOptions.DEFAULT, initialIndexes);
+    }
+
+    public SQLHandler(LightDatabase database, String sql,
+                      QueryOptions queryOptions) {
+        this(database, sql, queryOptions, Collections.emptyList());
+    }
+
+    public SQLHandler(LightDatabase database, String sql,
+                      QueryOptions queryOptions,
+                      List<ColumnIndex> initialIndexes) {
         this.sql = sql;
         this.database = database;
+        this.queryOptions = queryOptions == null
+                ? QueryOptions.DEFAULT
+                : queryOptions;
+        this.segments = compile(sql);
+        this.slots = segments.length - 1;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.segmentsLength = length;
+        this.select = isSelect(sql);
         this.columnIndexMap = new ConcurrentHashMap<>();
         initialIndexes.forEach(index -> columnIndexMap.put(index.getName(), index));
     }
 
+    /**
+     * Maximum number of expanded statements cached per handler.
+     */
+    private static final int MAX_CACHED_SIGNATURES = 64;
+
+    /**
+     * Expanded statement when every parameter is a single value.
+     */
+    private volatile String singleValueSql;
+
+    private final Map<Signature, String> expandedCache =
+            new ExpandedCache(MAX_CACHED_SIGNATURES);
+
     protected String replaceWithPlaceholders(int[] args) {
         if (args.length == 0) {
             return sql;
         }
-        String[] placeholders = new String[args.length + 1];
-        for (int n = 0; n < args.length; n++) {
-            placeholders[n] = database
-                    .getDialectProvider()
-                    .getGenerator()
-                    .placeHolders(args[n]);
+        if (isSingleValues(args)) {
+            String expanded = singleValueSql;
+            if (expanded == null) {
+                expanded = singleValueSql = expand(args);
+            }
+            return expanded;
+        }
+        Signature signature = new Signature(args);
+        synchronized (expandedCache) {
+            String expanded = expandedCache.get(signature);
+            if (expanded != null) {
+                return expanded;
+            }
+        }
+        String expanded = expand(args);
+        synchronized (expandedCache) {
+            expandedCache.put(signature, expanded);
         }
+        return expanded;
+    }
+
+    private String expand(int[] args) {
+        if (args.length != slots) {
+            throw new IllegalArgumentException("Expected " + slots +
+                    " template parameters, but got " + args.length + ".");
+        }
+        SQLGenerator generator = database.getDialectProvider().getGenerator();
+        StringBuilder builder = new StringBuilder(segmentsLength + args.length * 4);
+        builder.append(segments[0]);
+        for (int i = 0; i < args.length; i++) {
+            builder.append(generator.placeHolders(args[i]))
+                    .append(segments[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    private static boolean isSingleValues(int[] args) {
+        for (int arg : args) {
+            if (arg != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Split the template into the sql segments around each
+     * parameter slot, so there are always {@code slots + 1} segments.
+     */
+    private static String[] compile(String sql) {
         SQLExpressionParser parser = new SQLExpressionParser(sql);
         String unescaped = SQLExpressionParser.unescape(sql);
         List<SQLExpressionParser.Detail> details = parser.getDetails();
-        StringBuilder builder = new StringBuilder();
+        String[] segments = new String[details.size() + 1];
+        int last = 0;
         for (int i = 0; i < details.size(); i++) {
             SQLExpressionParser.Detail detail = details.get(i);
-            if (i == 0) {
-                builder.append(unescaped, 0, detail.start);
-            }
-            builder.append(placeholders[i])
-                    .append(unescaped, detail.end, nextStart(i, unescaped, details));
+            segments[i] = unescaped.substring(last, detail.start);
+            last = detail.end;
         }
-        return builder.toString();
+        segments[details.size()] = unescaped.substring(last);
+        return segments;
     }
 
-    private int nextStart(int index, String unescaped,
-                          List<SQLExpressionParser.Detail> details) {
-        if (index + 1 >= details.size()) {
-            return unescaped.length();
+    /**
+     * Least recently used expanded statements.
+     */
+    private static final class ExpandedCache extends LinkedHashMap<Signature, String> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        ExpandedCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Signature, String> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class Signature {
+        private final int[] args;
+        private final int hash;
+
+        Signature(int[] args) {
+            this.args = args.clone();
+            this.hash = Arrays.hashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Signature)) return false;
+            Signature signature = (Signature) o;
+            return hash == signature.hash &&
+                    Arrays.equals(args, signature.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
-        return details.get(index + 1).start;
     }
 
     public LightDatabase getDatabase() {
@@ -97,8 +236,92 @@ public class SQLHandler {
         return sql;
     }
 
+    /**
+     * Get the sql prepared when every template parameter is a
+     * single value. Collection parameters expand to one placeholder
+     * for each element when executed.
+     */
+    public String getStatementSql() {
+        int[] args = new int[slots];
+        Arrays.fill(args, 1);
+        return replaceWithPlaceholders(args);
+    }
+
     public ManagedConnection newConnection() {
-        return database.requireManagedConnection();
+        return database.requireManagedConnection(tag, isReadOnly());
+    }
+
+    /**
+     * Set where the statements are routed if the pool has read replicas.
+     * Called by the DAO implementations of methods annotated
+     * with {@link space.lingu.light.Route}.
+     */
+    public void setRouteTarget(RouteTarget routeTarget) {
+        this.routeTarget = routeTarget == null
+                ? RouteTarget.AUTO
+                : routeTarget;
+    }
+
+    public RouteTarget getRouteTarget() {
+        return routeTarget;
+    }
+
+    private boolean isReadOnly() {
+        switch (routeTarget) {
+            case PRIMARY:
+                return false;
+            case REPLICA:
+                return true;
+            default:
+                return select;
+        }
+    }
+
+    /**
+     * Words of statements which modify data, at any depth.
+     * {@code SELECT ... INTO} creates a table or sets variables.
+     */
+    private static final Set<String> MODIFYING_WORDS = new HashSet<>(
+            Arrays.asList("INSERT", "UPDATE", "DELETE", "MERGE", "INTO"));
+
+    private static final Pattern LOCKING_READ = Pattern.compile(
+            "\\b(FOR (NO KEY )?UPDATE|FOR (KEY )?SHARE|LOCK IN SHARE MODE)\\b");
+
+    /**
+     * Whether the sql is a plain read, a {@code SELECT} or a
+     * {@code WITH} query selecting from its common table expressions.
+     * Locking reads ({@code FOR UPDATE}, {@code FOR SHARE},
+     * {@code LOCK IN SHARE MODE}) and data-modifying common table
+     * expressions are not. Literals, quoted identifiers and comments
+     * are not matched.
+     */
+    static boolean isSelect(String sql) {
+        SQLScanner scanner = new SQLScanner(sql);
+        String word = scanner.nextWord();
+        if (!"SELECT".equals(word) && !"WITH".equals(word)) {
+            return false;
+        }
+        StringJoiner words = new StringJoiner(" ");
+        while ((word = scanner.nextWord()) != null) {
+            if (MODIFYING_WORDS.contains(word)) {
+                return false;
+            }
+            words.add(word);
+        }
+        return !LOCKING_READ.matcher(words.toString()).find();
+    }
+
+    /**
+     * Set the tag of the DAO method using this handler,
+     * reported to the {@link space.lingu.light.metrics.MetricsCollector}.
+     * Called by the DAO implementations when they are created.
+     */
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
     }
 
     /**
@@ -107,7 +330,165 @@ public class SQLHandler {
      * @param args number of template parameters in parameter order
      */
     public PreparedStatement acquire(ManagedConnection connection, int[] args) {
-        return connection.acquire(replaceWithPlaceholders(args), false);
+        PreparedStatement statement =
+                connection.acquire(replaceWithPlaceholders(args), false);
+        try {
+            applyOptions(statement, getQueryOptions());
+        } catch (SQLException e) {
+            throw new LightRuntimeException(e);
+        }
+        return statement;
+    }
+
+    /**
+     * Get the query options, with unset options filled
+     * by the database defaults.
+     *
+     * @return {@link QueryOptions}
+     */
+    public QueryOptions getQueryOptions() {
+        QueryOptions options = resolvedOptions;
+        if (options == null) {
+            options = resolvedOptions =
+                    queryOptions.withDefaults(database.getQueryOptions());
+        }
+        return options;
+    }
+
+    private static void applyOptions(PreparedStatement statement,
+                                     QueryOptions options) throws SQLException {
+        if (options.getFetchSize() != QueryOptions.UNSET) {
+            statement.setFetchSize(options.getFetchSize());
+        }
+        if (options.getMaxRows() != QueryOptions.UNSET) {
+            statement.setMaxRows(options.getMaxRows());
+        }
+        if (options.getQueryTimeout() != QueryOptions.UNSET) {
+            statement.setQueryTimeout(options.getQueryTimeout());
+        }
+    }
+
+    /**
+     * Execute the query and open a {@link Cursor} over its results.
+     * <p>
+     * If no fetch size is set in {@link QueryOptions}, the statement
+     * uses the streaming fetch size of the dialect. The connection is
+     * released when the cursor is closed or exhausted.
+     *
+     * @see space.lingu.light.sql.DialectProvider#getStreamingFetchSize()
+     */
+    public <T> Cursor<T> openCursor(ManagedConnection connection,
+                                    PreparedStatement statement,
+                                    RowMapper<T> mapper) {
+        return open(connection, statement, mapper);
+    }
+
+    /**
+     * Execute the query and return a lazily mapped {@link LongStream}
+     * over the result, rows are read without boxing.
+     * Closing the stream releases the connection.
+     */
+    public LongStream openLongStream(ManagedConnection connection,
+                                     PreparedStatement statement,
+                                     RowMapper.OfLong mapper) {
+        final ResultSetCursor<Void> cursor = open(connection, statement, null);
+        PrimitiveIterator.OfLong iterator = new PrimitiveIterator.OfLong() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                return cursor.nextLong(mapper);
+            }
+        };
+        return StreamSupport.longStream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+                false
+        ).onClose(cursor::close);
+    }
+
+    /**
+     * Execute the query and return a lazily mapped {@link IntStream}
+     * over the result, rows are read without boxing.
+     * Closing the stream releases the connection.
+     */
+    public IntStream openIntStream(ManagedConnection connection,
+                                   PreparedStatement statement,
+                                   RowMapper.OfInt mapper) {
+        final ResultSetCursor<Void> cursor = open(connection, statement, null);
+        PrimitiveIterator.OfInt iterator = new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return cursor.nextInt(mapper);
+            }
+        };
+        return StreamSupport.intStream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+                false
+        ).onClose(cursor::close);
+    }
+
+    /**
+     * Execute the query and return a lazily mapped {@link DoubleStream}
+     * over the result, rows are read without boxing.
+     * Closing the stream releases the connection.
+     */
+    public DoubleStream openDoubleStream(ManagedConnection connection,
+                                         PreparedStatement statement,
+                                         RowMapper.OfDouble mapper) {
+        final ResultSetCursor<Void> cursor = open(connection, statement, null);
+        PrimitiveIterator.OfDouble iterator = new PrimitiveIterator.OfDouble() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public double nextDouble() {
+                return cursor.nextDouble(mapper);
+            }
+        };
+        return StreamSupport.doubleStream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+                false
+        ).onClose(cursor::close);
+    }
+
+    <T> ResultSetCursor<T> open(ManagedConnection connection,
+                                PreparedStatement statement,
+                                RowMapper<T> mapper) {
+        try {
+            int fetchSize = database.getDialectProvider().getStreamingFetchSize();
+            if (fetchSize != 0 &&
+                    getQueryOptions().getFetchSize() == QueryOptions.UNSET) {
+                statement.setFetchSize(fetchSize);
+            }
+            ResultSet resultSet = statement.executeQuery();
+            connection.detach(statement);
+            return new ResultSetCursor<>(this, connection,
+                    statement, resultSet, mapper);
+        } catch (SQLException e) {
+            release(connection);
+            throw new LightRuntimeException(e);
+        }
+    }
+
+    /**
+     * Create a {@link ResultSetPublisher} over the results of the query.
+     * The query is executed when the subscriber first requests rows,
+     * and the connection is released when the subscription ends.
+     */
+    public <T> ResultSetPublisher<T> openPublisher(ManagedConnection connection,
+                                                   PreparedStatement statement,
+                                                   RowMapper<T> mapper) {
+        return new ResultSetPublisher<>(this, connection, statement, mapper);
     }
 
     public void release(ManagedConnection connection) {
@@ -131,6 +512,84 @@ public class SQLHandler {
         return index;
     }
 
+    private volatile ColumnIndexes columnIndexes;
+
+    /**
+     * Get indexes of the columns, resolved with one pass over
+     * {@link ResultSetMetaData} and cached by the handler.
+     * <p>
+     * The returned array is shared, must not be modified.
+     *
+     * @param names column names
+     * @return the index of each column, -1 if not found.
+     */
+    public int[] getColumnIndexes(ResultSet resultSet, String... names) {
+        ColumnIndexes cached = columnIndexes;
+        if (cached != null && cached.matches(names)) {
+            return cached.indexes;
+        }
+        int[] indexes = resolveColumnIndexes(resultSet, names);
+        columnIndexes = new ColumnIndexes(names, indexes);
+        return indexes;
+    }
+
+    private static int[] resolveColumnIndexes(ResultSet resultSet, String[] names) {
+        int[] indexes = new int[names.length];
+        Arrays.fill(indexes, -1);
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int count = metaData.getColumnCount();
+            String[] labels = new String[count];
+            for (int i = 0; i < count; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+            }
+            for (int i = 0; i < names.length; i++) {
+                indexes[i] = indexOfLabel(labels, names[i]);
+            }
+        } catch (SQLException e) {
+            throw new LightRuntimeException(e);
+        }
+        return indexes;
+    }
+
+    private static int indexOfLabel(String[] labels, String name) {
+        // same as findColumn, labels are case-insensitive
+        for (int i = 0; i < labels.length; i++) {
+            String label = labels[i];
+            if (name.equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+            if (label != null && label.length() == name.length() + 2 &&
+                    label.charAt(0) == '`' &&
+                    label.regionMatches(true, 1, name, 0, name.length())) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static final class ColumnIndexes {
+        private final String[] names;
+        private final int[] indexes;
+
+        ColumnIndexes(String[] names, int[] indexes) {
+            this.names = names;
+            this.indexes = indexes;
+        }
+
+        boolean matches(String[] names) {
+            if (this.names.length != names.length) {
+                return false;
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (!this.names[i].equals(names[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     public static final class ColumnIndex {
         private final int index;
         private final String name;
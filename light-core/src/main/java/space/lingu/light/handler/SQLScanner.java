@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import java.util.Locale;
+
+/**
+ * Reads upper-cased words of a sql, skipping literals, quoted
+ * identifiers, comments and template expressions. Words qualified
+ * by a dot, like {@code t.name}, are skipped too.
+ *
+ * @author RollW
+ */
+final class SQLScanner {
+    private final String query;
+    private int position;
+    private int depth;
+
+    SQLScanner(String query) {
+        this.query = query;
+    }
+
+    /**
+     * The index just after the last read word.
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * The next word at any depth of parentheses, or {@code null}
+     * at the end of the sql.
+     */
+    String nextWord() {
+        while (position < query.length()) {
+            char c = query.charAt(position);
+            if (c == '\'' || c == '"' || c == '`') {
+                skipQuoted(c);
+                continue;
+            }
+            if (c == '{') {
+                skipUntil("}");
+                continue;
+            }
+            if (c == '-' && query.startsWith("--", position)) {
+                skipUntil("\n");
+                continue;
+            }
+            if (c == '/' && query.startsWith("/*", position)) {
+                skipUntil("*/");
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+                position++;
+                continue;
+            }
+            if (c == ')') {
+                depth--;
+                position++;
+                continue;
+            }
+            if (!Character.isLetter(c)) {
+                position++;
+                continue;
+            }
+            int start = position;
+            while (position < query.length() &&
+                    isWordPart(query.charAt(position))) {
+                position++;
+            }
+            if (start == 0 || query.charAt(start - 1) != '.') {
+                return query.substring(start, position).toUpperCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The next word outside parentheses, or {@code null}
+     * at the end of the sql.
+     */
+    String nextTopLevelWord() {
+        String word;
+        while ((word = nextWord()) != null) {
+            if (depth == 0) {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    private void skipQuoted(char quote) {
+        position++;
+        while (position < query.length()) {
+            char c = query.charAt(position++);
+            if (c == quote) {
+                // doubled quote is an escaped quote
+                if (position < query.length() && query.charAt(position) == quote) {
+                    position++;
+                    continue;
+                }
+                return;
+            }
+            if (c == '\\') {
+                position++;
+            }
+        }
+    }
+
+    private void skipUntil(String end) {
+        int index = query.indexOf(end, position);
+        position = index < 0 ? query.length() : index + end.length();
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.log;
+
+import space.lingu.light.LightDatabase;
+import space.lingu.light.LightLogger;
+import space.lingu.light.SlowStatementOptions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs statements running longer than the threshold of
+ * {@link SlowStatementOptions}, rate limited per second.
+ * <p>
+ * Internal use only.
+ *
+ * @author RollW
+ */
+public final class SlowStatementLog {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_VALUE_LENGTH = 64;
+
+    /**
+     * Placeholder of a parameter bound but not recorded,
+     * like streams and lobs.
+     */
+    public static final Object UNKNOWN = new Object();
+
+    private final LightDatabase database;
+    private final long thresholdNanos;
+    private final int maxLogsPerSecond;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger logged = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public SlowStatementLog(LightDatabase database,
+                            SlowStatementOptions options) {
+        this.database = database;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(options.getThresholdMillis());
+        this.maxLogsPerSecond = options.getMaxLogsPerSecond();
+    }
+
+    public boolean isSlow(long nanos) {
+        return nanos > thresholdNanos;
+    }
+
+    /**
+     * Log the statement if it is slow.
+     *
+     * @param tag        the DAO method
+     * @param sql        the sql executed
+     * @param parameters parameters bound, in order of their index,
+     *                   {@link #UNKNOWN} for values not recorded (nullable)
+     * @param batchSize  number of parameter sets if executed as
+     *                   a batch, or {@code 0}
+     * @param nanos      elapsed time
+     */
+    public void onExecuted(String tag, String sql,
+                           Object[] parameters, int batchSize,
+                           long nanos) {
+        if (!isSlow(nanos) || !tryAcquire()) {
+            return;
+        }
+        LightLogger logger = database.getLogger();
+        if (logger == null) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Slow statement: ")
+                .append(TimeUnit.NANOSECONDS.toMillis(nanos))
+                .append("ms, method: ").append(tag);
+        if (batchSize > 0) {
+            message.append(", batch size: ").append(batchSize);
+        }
+        message.append(", sql: ").append(sql);
+        if (parameters != null) {
+            message.append(batchSize > 0 ? ", last parameters: " : ", parameters: ");
+            appendParameters(message, parameters);
+        }
+        long dropped = suppressed.sumThenReset();
+        if (dropped > 0) {
+            message.append(" (").append(dropped)
+                    .append(" slow statements not logged)");
+        }
+        logger.warn(message.toString());
+    }
+
+    private boolean tryAcquire() {
+        final long now = System.nanoTime();
+        final long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            logged.set(0);
+        }
+        if (logged.incrementAndGet() > maxLogsPerSecond) {
+            suppressed.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private static void appendParameters(StringBuilder builder, Object[] parameters) {
+        builder.append('[');
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            appendValue(builder, parameters[i]);
+        }
+        builder.append(']');
+    }
+
+    private static void appendValue(StringBuilder builder, Object value) {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+        if (value == UNKNOWN) {
+            builder.append('?');
+            return;
+        }
+        if (value instanceof byte[]) {
+            builder.append("<").append(((byte[]) value).length).append(" bytes>");
+            return;
+        }
+        String s = value.toString();
+        boolean quote = value instanceof CharSequence;
+        if (quote) {
+            builder.append('\'');
+        }
+        if (s.length() > MAX_VALUE_LENGTH) {
+            builder.append(s, 0, MAX_VALUE_LENGTH).append("...");
+        } else {
+            builder.append(s);
+        }
+        if (quote) {
+            builder.append('\'');
+        }
+    }
+}
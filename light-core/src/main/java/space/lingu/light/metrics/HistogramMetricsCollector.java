@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsCollector} keeping a {@link LatencyHistogram}
+ * of each timing for every DAO method in memory.
+ * <p>
+ * For example, to find the slowest queries:
+ * <pre>{@code
+ * collector.getMethodMetrics().forEach((tag, metrics) ->
+ *         System.out.println(tag + ": " + metrics.getExecute().getValueAtPercentile(99)));
+ * }</pre>
+ *
+ * @author RollW
+ */
+public class HistogramMetricsCollector implements MetricsCollector {
+    private final Map<String, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+    private final LatencyHistogram poolWait = new LatencyHistogram();
+
+    public HistogramMetricsCollector() {
+    }
+
+    @Override
+    public void onConnectionAcquire(String tag, long nanos) {
+        metricsOf(tag).acquire.record(nanos);
+    }
+
+    @Override
+    public void onStatementPrepare(String tag, long nanos) {
+        metricsOf(tag).prepare.record(nanos);
+    }
+
+    @Override
+    public void onStatementExecute(String tag, long nanos) {
+        metricsOf(tag).execute.record(nanos);
+    }
+
+    @Override
+    public void onRowMapping(String tag, long rows, long nanos) {
+        MethodMetrics metrics = metricsOf(tag);
+        metrics.rowMapping.record(nanos);
+        metrics.rows.add(rows);
+    }
+
+    @Override
+    public void onBatchExecute(String tag, int batchSize, long nanos) {
+        MethodMetrics metrics = metricsOf(tag);
+        metrics.execute.record(nanos);
+        metrics.batchSize.record(batchSize);
+    }
+
+    @Override
+    public void onPoolWait(long nanos) {
+        poolWait.record(nanos);
+    }
+
+    private MethodMetrics metricsOf(String tag) {
+        // get first, computeIfAbsent locks the bin even if present.
+        MethodMetrics metrics = methodMetrics.get(tag);
+        if (metrics != null) {
+            return metrics;
+        }
+        return methodMetrics.computeIfAbsent(tag, MethodMetrics::new);
+    }
+
+    /**
+     * Get metrics of the DAO method.
+     *
+     * @param tag the tag of DAO method
+     * @return {@link MethodMetrics}, or {@code null} if nothing recorded.
+     */
+    public MethodMetrics getMethodMetrics(String tag) {
+        return methodMetrics.get(tag);
+    }
+
+    /**
+     * Get metrics of all DAO methods recorded, by tag.
+     */
+    public Map<String, MethodMetrics> getMethodMetrics() {
+        return Collections.unmodifiableMap(methodMetrics);
+    }
+
+    /**
+     * Time waited for a connection when the pool had none available.
+     */
+    public LatencyHistogram getPoolWait() {
+        return poolWait;
+    }
+
+    /**
+     * Clear all recorded metrics.
+     */
+    public void reset() {
+        methodMetrics.clear();
+        poolWait.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        new TreeMap<>(methodMetrics).values().forEach(metrics ->
+                builder.append(metrics).append('\n'));
+        builder.append("pool wait: ").append(poolWait);
+        return builder.toString();
+    }
+
+    /**
+     * Metrics of one DAO method. Times are in nanoseconds.
+     */
+    public static final class MethodMetrics {
+        private final String tag;
+        private final LatencyHistogram acquire = new LatencyHistogram();
+        private final LatencyHistogram prepare = new LatencyHistogram();
+        private final LatencyHistogram execute = new LatencyHistogram();
+        private final LatencyHistogram rowMapping = new LatencyHistogram();
+        private final LatencyHistogram batchSize = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+
+        MethodMetrics(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * Time of acquiring connections.
+         */
+        public LatencyHistogram getConnectionAcquire() {
+            return acquire;
+        }
+
+        /**
+         * Time of preparing statements.
+         */
+        public LatencyHistogram getStatementPrepare() {
+            return prepare;
+        }
+
+        /**
+         * Time of executing statements and batches.
+         */
+        public LatencyHistogram getExecute() {
+            return execute;
+        }
+
+        /**
+         * Time of reading and mapping result sets.
+         */
+        public LatencyHistogram getRowMapping() {
+            return rowMapping;
+        }
+
+        /**
+         * Sizes of executed batches.
+         */
+        public LatencyHistogram getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Total rows read from result sets.
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public String toString() {
+            return tag + " {" +
+                    "acquire: " + acquire +
+                    "; prepare: " + prepare +
+                    "; execute: " + execute +
+                    "; rowMapping: " + rowMapping +
+                    "; rows=" + getRows() +
+                    "; batches=" + batchSize.getCount() +
+                    ", maxBatchSize=" + batchSize.getMax() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.metrics;
+
+import space.lingu.light.LightDatabase;
+
+/**
+ * Receives timings of statements and connections, registered by
+ * {@link LightDatabase.Builder#setMetricsCollector(MetricsCollector)}.
+ * <p>
+ * Callbacks are tagged by the DAO method running the statement,
+ * in form of {@code "package.Dao#method"}. Handlers shared by several
+ * methods join the method names with commas. Statements not run by
+ * a DAO method are tagged with {@link #UNTAGGED}.
+ * <p>
+ * Callbacks are made on the thread running the statement,
+ * implementations must be thread-safe and should return quickly.
+ * If no collector is registered, nothing is measured.
+ *
+ * @author RollW
+ * @see HistogramMetricsCollector
+ */
+public interface MetricsCollector {
+    /**
+     * Tag of statements not run by a DAO method.
+     */
+    String UNTAGGED = "untagged";
+
+    /**
+     * A connection was acquired from the connection pool.
+     *
+     * @param tag   the DAO method
+     * @param nanos time waited for the connection
+     */
+    void onConnectionAcquire(String tag, long nanos);
+
+    /**
+     * A statement was prepared, or taken from the statement cache.
+     *
+     * @param tag   the DAO method
+     * @param nanos time of preparing
+     */
+    void onStatementPrepare(String tag, long nanos);
+
+    /**
+     * A statement was executed.
+     *
+     * @param tag   the DAO method
+     * @param nanos time of execution, not including reading the results
+     */
+    void onStatementExecute(String tag, long nanos);
+
+    /**
+     * A result set of a query was closed.
+     *
+     * @param tag   the DAO method
+     * @param rows  rows read from the result set
+     * @param nanos time from the query returned until the result set closed
+     */
+    void onRowMapping(String tag, long rows, long nanos);
+
+    /**
+     * A batch was executed.
+     *
+     * @param tag       the DAO method
+     * @param batchSize number of parameter sets in the batch
+     * @param nanos     time of execution
+     */
+    void onBatchExecute(String tag, int batchSize, long nanos);
+
+    /**
+     * The connection pool had no connection available and waited
+     * for one to be released. Only reported by pools supporting it.
+     *
+     * @param nanos time waited
+     * @see space.lingu.light.connect.ConnectionPool#setMetricsCollector(MetricsCollector)
+     */
+    void onPoolWait(long nanos);
+}
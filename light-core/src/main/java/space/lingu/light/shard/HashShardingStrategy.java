@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.shard;
+
+import java.util.Arrays;
+
+/**
+ * @author RollW
+ * @see ShardingStrategy#HASH
+ */
+final class HashShardingStrategy implements ShardingStrategy {
+    HashShardingStrategy() {
+    }
+
+    @Override
+    public int select(Object shardKey, int shardCount) {
+        if (shardKey == null) {
+            throw new IllegalArgumentException("Shard key cannot be null.");
+        }
+        long hash = mix(hash(shardKey));
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+
+    private static long hash(Object key) {
+        if (key instanceof Long || key instanceof Integer
+                || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        if (key instanceof Enum) {
+            return ((Enum<?>) key).name().hashCode();
+        }
+        if (key instanceof byte[]) {
+            return Arrays.hashCode((byte[]) key);
+        }
+        return key.hashCode();
+    }
+
+    // finalizer of MurmurHash3, spreads sequential keys over shards
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.shard;
+
+import space.lingu.light.DataColumn;
+import space.lingu.light.DataTable;
+import space.lingu.light.LightRuntimeException;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads shard key values of entities, by the column
+ * declared in {@link DataTable#shardKey()}.
+ *
+ * @author RollW
+ */
+final class ShardKeys {
+    private static final Map<Class<?>, Field> sShardKeyFields =
+            new ConcurrentHashMap<>();
+
+    static Object getShardKey(Object entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity cannot be null.");
+        }
+        Field field = sShardKeyFields.computeIfAbsent(
+                entity.getClass(), ShardKeys::findShardKeyField);
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new LightRuntimeException(e);
+        }
+    }
+
+    private static Field findShardKeyField(Class<?> entityClass) {
+        DataTable dataTable = entityClass.getAnnotation(DataTable.class);
+        if (dataTable == null || dataTable.shardKey().isEmpty()) {
+            throw new LightRuntimeException("No shard key declared on " +
+                    entityClass.getCanonicalName() + ", set it by @DataTable(shardKey = ...).");
+        }
+        String shardKey = dataTable.shardKey();
+        Class<?> current = entityClass;
+        while (current != null && current != Object.class) {
+            for (Field field : current.getDeclaredFields()) {
+                DataColumn column = field.getAnnotation(DataColumn.class);
+                if (column == null) {
+                    continue;
+                }
+                String columnName = column.name().isEmpty()
+                        ? field.getName()
+                        : column.name();
+                if (columnName.equals(shardKey)) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+            current = current.getSuperclass();
+        }
+        throw new LightRuntimeException("Cannot find shard key column '" +
+                shardKey + "' in " + entityClass.getCanonicalName() + ".");
+    }
+
+    private ShardKeys() {
+    }
+}
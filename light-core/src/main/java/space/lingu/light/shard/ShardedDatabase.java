@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.shard;
+
+import space.lingu.light.DatasourceConfig;
+import space.lingu.light.Light;
+import space.lingu.light.LightDatabase;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.connect.ConnectionPool;
+import space.lingu.light.sql.DialectProvider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A database split over several datasources by the shard key
+ * of its tables, declared by {@link space.lingu.light.DataTable#shardKey()}.
+ * <p>
+ * Each shard is a separate {@link LightDatabase} with its own
+ * {@link DatasourceConfig} and {@link ConnectionPool}, built with
+ * the same configuration, so tables and indices are created on
+ * every shard. Point lookups and writes go to the DAO of one
+ * shard, queries over all shards run in parallel and their
+ * results are merged.
+ * <pre>{@code
+ * ShardedDatabase<UserDatabase> db = ShardedDatabase
+ *         .builder(UserDatabase.class, MySQLDialectProvider.class)
+ *         .addShard(config0, pool0)
+ *         .addShard(config1, pool1)
+ *         .build();
+ * db.dao(userId, UserDatabase::getUserDao).get(userId);
+ * db.write(users, (shard, list) -> shard.getUserDao().insert(list));
+ * List<User> users = db.scatter(shard -> shard.getUserDao().get())
+ *         .collect(Collectors.toList());
+ * }</pre>
+ * Transactions never span shards.
+ *
+ * @author RollW
+ */
+public final class ShardedDatabase<T extends LightDatabase> implements Closeable {
+    private final List<T> shards;
+    private final ShardingStrategy shardingStrategy;
+    private final Executor executor;
+
+    private ShardedDatabase(List<T> shards,
+                            ShardingStrategy shardingStrategy,
+                            Executor executor) {
+        this.shards = Collections.unmodifiableList(shards);
+        this.shardingStrategy = shardingStrategy;
+        this.executor = executor;
+    }
+
+    public static <T extends LightDatabase> Builder<T> builder(
+            Class<T> databaseClass,
+            Class<? extends DialectProvider> providerClass) {
+        return new Builder<>(databaseClass, providerClass);
+    }
+
+    public List<T> getShards() {
+        return shards;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public ShardingStrategy getShardingStrategy() {
+        return shardingStrategy;
+    }
+
+    /**
+     * Get the shard the shard key belongs to.
+     *
+     * @param shardKey value of the shard key column
+     * @return the shard
+     */
+    public T shard(Object shardKey) {
+        return shards.get(shardIndex(shardKey));
+    }
+
+    /**
+     * Get the shard the entity belongs to, by its shard key column.
+     *
+     * @param entity entity of a table declaring a shard key
+     * @return the shard
+     */
+    public T shardOf(Object entity) {
+        return shard(ShardKeys.getShardKey(entity));
+    }
+
+    /**
+     * Get a DAO of the shard the shard key belongs to.
+     *
+     * @param shardKey  value of the shard key column
+     * @param daoGetter the DAO getter of the database,
+     *                  like {@code UserDatabase::getUserDao}
+     * @return the DAO
+     */
+    public <D> D dao(Object shardKey, Function<? super T, D> daoGetter) {
+        return daoGetter.apply(shard(shardKey));
+    }
+
+    /**
+     * Group entities by shard and run the write on each group.
+     * Groups run in parallel, the call returns after all of them
+     * completed. Writes are not atomic across shards.
+     *
+     * @param entities entities of a table declaring a shard key
+     * @param writer   writes one group to its shard
+     */
+    public <E> void write(Collection<? extends E> entities,
+                          BiConsumer<? super T, List<E>> writer) {
+        Map<Integer, List<E>> groups = new TreeMap<>();
+        for (E entity : entities) {
+            int index = shardIndex(ShardKeys.getShardKey(entity));
+            groups.computeIfAbsent(index, k -> new ArrayList<>()).add(entity);
+        }
+        if (groups.size() == 1) {
+            Map.Entry<Integer, List<E>> group = groups.entrySet().iterator().next();
+            writer.accept(shards.get(group.getKey()), group.getValue());
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+        groups.forEach((index, group) -> futures.add(CompletableFuture.runAsync(
+                () -> writer.accept(shards.get(index), group), executor)));
+        join(futures);
+    }
+
+    /**
+     * Run the action on all shards in parallel, and wait
+     * for all of them.
+     *
+     * @param action the action
+     */
+    public void forEachShard(Consumer<? super T> action) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(shards.size());
+        for (T shard : shards) {
+            futures.add(CompletableFuture.runAsync(() -> action.accept(shard), executor));
+        }
+        join(futures);
+    }
+
+    /**
+     * Run the query on all shards in parallel and concatenate
+     * the results, in shard order.
+     *
+     * @param query the query of one shard
+     * @return results of all shards
+     */
+    public <R> Stream<R> scatter(Function<? super T, ? extends Collection<R>> query) {
+        return join(submitAll(query)).stream().flatMap(Collection::stream);
+    }
+
+    /**
+     * Run the query on all shards in parallel and merge the
+     * results by the comparator. Results of each shard must
+     * already be sorted by it, e.g. by the {@code ORDER BY}
+     * of the query, then a {@code limit} on the returned stream
+     * gives the global top rows.
+     *
+     * @param query      the query of one shard
+     * @param comparator the order of results
+     * @return results of all shards, in order
+     */
+    public <R> Stream<R> scatterSorted(Function<? super T, ? extends Collection<R>> query,
+                                       Comparator<? super R> comparator) {
+        List<Collection<R>> results = join(submitAll(query));
+        Iterator<R> merged = new MergeIterator<>(results, comparator);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                merged, Spliterator.ORDERED | Spliterator.SORTED), false);
+    }
+
+    private int shardIndex(Object shardKey) {
+        int index = shardingStrategy.select(shardKey, shards.size());
+        if (index < 0 || index >= shards.size()) {
+            throw new LightRuntimeException("Sharding strategy returns shard " +
+                    index + " out of range [0, " + shards.size() + ").");
+        }
+        return index;
+    }
+
+    private <R> List<CompletableFuture<Collection<R>>> submitAll(
+            Function<? super T, ? extends Collection<R>> query) {
+        List<CompletableFuture<Collection<R>>> futures = new ArrayList<>(shards.size());
+        for (T shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), executor));
+        }
+        return futures;
+    }
+
+    private static <V> List<V> join(List<CompletableFuture<V>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new LightRuntimeException(cause);
+        }
+        List<V> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<V> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Close connection pools of all shards.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (T shard : shards) {
+            try {
+                shard.getConnectionPool().close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private static final class MergeIterator<R> implements Iterator<R> {
+        private final PriorityQueue<Head<R>> heads;
+
+        MergeIterator(List<Collection<R>> results, Comparator<? super R> comparator) {
+            this.heads = new PriorityQueue<>(Math.max(1, results.size()),
+                    (a, b) -> comparator.compare(a.value, b.value));
+            for (Collection<R> result : results) {
+                Iterator<R> iterator = result.iterator();
+                if (iterator.hasNext()) {
+                    heads.add(new Head<>(iterator.next(), iterator));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public R next() {
+            Head<R> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            R value = head.value;
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+            return value;
+        }
+    }
+
+    private static final class Head<R> {
+        private final R value;
+        private final Iterator<R> rest;
+
+        Head(R value, Iterator<R> rest) {
+            this.value = value;
+            this.rest = rest;
+        }
+    }
+
+    public static final class Builder<T extends LightDatabase> {
+        private final Class<T> databaseClass;
+        private final Class<? extends DialectProvider> providerClass;
+        private final List<DatasourceConfig> configs = new ArrayList<>();
+        private final List<ConnectionPool> pools = new ArrayList<>();
+        private Consumer<LightDatabase.Builder<T>> configurer;
+        private ShardingStrategy shardingStrategy = ShardingStrategy.HASH;
+        private Executor executor;
+
+        private Builder(Class<T> databaseClass,
+                        Class<? extends DialectProvider> providerClass) {
+            if (databaseClass == null || providerClass == null) {
+                throw new IllegalArgumentException("Cannot be null!");
+            }
+            this.databaseClass = databaseClass;
+            this.providerClass = providerClass;
+        }
+
+        /**
+         * Add a shard. Shards are indexed in the order they are
+         * added, which must not change once data is written.
+         *
+         * @param config         datasource of the shard
+         * @param connectionPool connection pool of the shard
+         * @return this
+         */
+        public Builder<T> addShard(DatasourceConfig config, ConnectionPool connectionPool) {
+            if (config == null || connectionPool == null) {
+                throw new IllegalArgumentException("Cannot be null!");
+            }
+            configs.add(config);
+            pools.add(connectionPool);
+            return this;
+        }
+
+        /**
+         * Set options applied to the database builder of every
+         * shard, like logger, batch or query options.
+         *
+         * @param configurer configures the builder of a shard
+         * @return this
+         */
+        public Builder<T> configure(Consumer<LightDatabase.Builder<T>> configurer) {
+            this.configurer = configurer;
+            return this;
+        }
+
+        public Builder<T> setShardingStrategy(ShardingStrategy shardingStrategy) {
+            this.shardingStrategy = shardingStrategy;
+            return this;
+        }
+
+        /**
+         * Set the executor running scatter-gather queries and
+         * grouped writes. Defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor the executor, {@code null} to use the default.
+         * @return this
+         */
+        public Builder<T> setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public ShardedDatabase<T> build() {
+            if (configs.isEmpty()) {
+                throw new IllegalStateException("No shard added!");
+            }
+            if (shardingStrategy == null) {
+                throw new IllegalStateException("ShardingStrategy cannot be null!");
+            }
+            List<T> shards = new ArrayList<>(configs.size());
+            for (int i = 0; i < configs.size(); i++) {
+                LightDatabase.Builder<T> builder = Light
+                        .databaseBuilder(databaseClass, providerClass)
+                        .datasource(configs.get(i))
+                        .setConnectionPool(pools.get(i));
+                if (configurer != null) {
+                    configurer.accept(builder);
+                }
+                shards.add(builder.build());
+            }
+            return new ShardedDatabase<>(
+                    shards,
+                    shardingStrategy,
+                    executor == null ? ForkJoinPool.commonPool() : executor
+            );
+        }
+    }
+}
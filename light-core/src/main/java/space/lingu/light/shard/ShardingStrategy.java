@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.shard;
+
+/**
+ * Decides which shard a shard key belongs to.
+ *
+ * @author RollW
+ */
+@FunctionalInterface
+public interface ShardingStrategy {
+    /**
+     * Hashes the shard key and takes it modulo the number of
+     * shards. Integral numbers hash by value, so {@code 1}
+     * and {@code 1L} go to the same shard; enums hash by name.
+     * Other keys use {@link Object#hashCode()}, which must be
+     * stable across processes.
+     */
+    ShardingStrategy HASH = new HashShardingStrategy();
+
+    /**
+     * Select a shard for the key.
+     *
+     * @param shardKey   the shard key value, not null
+     * @param shardCount the number of shards
+     * @return index of the shard, in {@code [0, shardCount)}
+     */
+    int select(Object shardKey, int shardCount);
+}
@@ -19,6 +19,9 @@ package space.lingu.light.sql;
 import space.lingu.light.OnConflictStrategy;
 import space.lingu.light.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.StringJoiner;
 
 /**
@@ -43,10 +46,35 @@ public class AsciiSQLGenerator implements SQLGenerator {
         return buildInsertWithStart(tableName, "INSERT", valueArgs);
     }
 
+    @Override
+    public String insert(String tableName, OnConflictStrategy onConflict,
+                         int rows, String... valueArgs) {
+        // INSERT INTO `tableName` (`valueArg1`, `valueArg2`) VALUES (?, ?), (?, ?)
+        return buildInsertWithStart(tableName, "INSERT", rows, valueArgs);
+    }
+
     protected String buildInsertWithStart(String tableName, String start, String... valueArgs) {
+        return buildInsertWithStart(tableName, start, 1, valueArgs);
+    }
+
+    protected String buildInsertWithStart(String tableName, String start,
+                                          int rows, String... valueArgs) {
+        return buildInsertWithStart(tableName, start, "", rows, valueArgs);
+    }
+
+    /**
+     * @param beforeValues appended between the column list and
+     *                     {@code VALUES}, starts with a space if not empty.
+     */
+    protected String buildInsertWithStart(String tableName, String start,
+                                          String beforeValues,
+                                          int rows, String... valueArgs) {
         if (StringUtils.isEmpty(tableName)) {
             return null;
         }
+        if (rows <= 0) {
+            throw new IllegalArgumentException("Rows must be positive, but got: " + rows);
+        }
         StringBuilder builder = new StringBuilder(start)
                 .append(" INTO ")
                 .append(escapeParam(tableName))
@@ -55,24 +83,43 @@ public class AsciiSQLGenerator implements SQLGenerator {
         for (String valueArg : valueArgs) {
             valueArgJoiner.add(escapeParam(valueArg));
         }
-        builder.append(valueArgJoiner).append(") VALUES ");
+        builder.append(valueArgJoiner).append(")")
+                .append(beforeValues)
+                .append(" VALUES ");
 
-        if (valueArgs.length == 1) {
-            builder.append("(?)");
-            return builder.toString();
+        String row = "(" + placeHolders(valueArgs.length) + ")";
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(row);
         }
+        return builder.toString();
+    }
+
+    @Override
+    public String upsert(String tableName, String[] keyColumns,
+                         int rows, String... valueArgs) {
+        // no portable upsert, conflicts are not handled as in insert
+        return buildInsertWithStart(tableName, "INSERT", rows, valueArgs);
+    }
 
-        for (int i = 0; i < valueArgs.length; i++) {
-            if (i == 0) {
-                builder.append("(?");
-            } else if (i < valueArgs.length - 1) {
-                builder.append(", ?");
-            } else {
-                builder.append(", ?)");
+    /**
+     * Filter out the key columns.
+     *
+     * @param keyColumns key columns
+     * @param valueArgs  all columns
+     * @return columns to update on conflict
+     */
+    protected List<String> nonKeyColumns(String[] keyColumns, String[] valueArgs) {
+        List<String> keys = Arrays.asList(keyColumns);
+        List<String> columns = new ArrayList<>(valueArgs.length);
+        for (String valueArg : valueArgs) {
+            if (!keys.contains(valueArg)) {
+                columns.add(valueArg);
             }
         }
-
-        return builder.toString();
+        return columns;
     }
 
     @Override
@@ -82,6 +82,59 @@ public interface DialectProvider extends SQLEscaper {
 
     String getJdbcUrl(String originalJdbcUrl, DatabaseInfo databaseInfo);
 
+    /**
+     * Get the maximum number of bind parameters allowed in one statement.
+     * Used to decide how many rows a multi-row insert can hold.
+     *
+     * @param majorVersion major version of the connected database
+     * @param minorVersion minor version of the connected database
+     * @return the maximum number of bind parameters
+     */
+    default int getMaxBindParameters(int majorVersion, int minorVersion) {
+        return 999;
+    }
+
+    /**
+     * Whether the connected database runs the statements of
+     * {@link SQLGenerator#upsert(String, String[], int, String...)}
+     * with key columns. If not, inserts with
+     * {@link space.lingu.light.OnConflictStrategy#REPLACE} use
+     * {@link SQLGenerator#insert(String, space.lingu.light.OnConflictStrategy, int, String...)}.
+     *
+     * @param majorVersion major version of the connected database
+     * @param minorVersion minor version of the connected database
+     * @return {@code true} by default
+     */
+    default boolean supportsUpsert(int majorVersion, int minorVersion) {
+        return true;
+    }
+
+    /**
+     * Get the fetch size used by streaming queries, such as
+     * {@link space.lingu.light.Cursor} returns.
+     * <p>
+     * {@code 0} leaves the fetch size to the driver.
+     *
+     * @return the fetch size
+     */
+    default int getStreamingFetchSize() {
+        return 0;
+    }
+
+    /**
+     * Whether the driver returns the generated keys of every row
+     * from one {@link java.sql.Statement#getGeneratedKeys()} call
+     * after a batch execution.
+     * <p>
+     * Some drivers only return the key of the last row. In that case
+     * the rows will be inserted one by one in the same transaction.
+     *
+     * @return true if batch generated keys are supported
+     */
+    default boolean supportsBatchGeneratedKeys() {
+        return true;
+    }
+
     /**
      * Get the {@link SQLGenerator} of the database.
      *
@@ -18,6 +18,8 @@ package space.lingu.light.sql;
 
 import space.lingu.light.struct.DatabaseInfo;
 
+import java.util.StringJoiner;
+
 /**
  * Temporary solution to support H2 database.
  * <p>
@@ -37,9 +39,30 @@ public class H2DialectProvider extends MySQLDialectProvider {
         return "SET MODE MYSQL";
     }
 
+    @Override
+    public int getStreamingFetchSize() {
+        return 0;
+    }
+
     @Override
     public String getJdbcUrl(String originalJdbcUrl,
                              DatabaseInfo databaseInfo) {
         return originalJdbcUrl;
     }
+
+    @Override
+    public String upsert(String tableName, String[] keyColumns,
+                         int rows, String... valueArgs) {
+        // MERGE INTO `t` (`id`, `a`) KEY (`id`) VALUES (?, ?)
+        // Without KEY, H2 merges on the primary key.
+        if (keyColumns.length == 0) {
+            return buildInsertWithStart(tableName, "MERGE", rows, valueArgs);
+        }
+        StringJoiner keyJoiner = new StringJoiner(", ", " KEY (", ")");
+        for (String keyColumn : keyColumns) {
+            keyJoiner.add(escapeParam(keyColumn));
+        }
+        return buildInsertWithStart(tableName, "MERGE",
+                keyJoiner.toString(), rows, valueArgs);
+    }
 }
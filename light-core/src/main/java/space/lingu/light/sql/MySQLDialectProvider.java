@@ -20,6 +20,8 @@ import space.lingu.light.*;
 import space.lingu.light.struct.*;
 import space.lingu.light.util.StringUtils;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.StringJoiner;
 
 /**
@@ -222,6 +224,18 @@ public class MySQLDialectProvider extends GeneralDialectProvider
         return originalJdbcUrl + "/" + databaseInfo.getName();
     }
 
+    @Override
+    public int getMaxBindParameters(int majorVersion, int minorVersion) {
+        return 65535;
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        // Connector/J streams rows one by one only with
+        // Integer.MIN_VALUE on a forward-only, read-only statement.
+        return Integer.MIN_VALUE;
+    }
+
     @Override
     public SQLGenerator getGenerator() {
         return this;
@@ -231,12 +245,20 @@ public class MySQLDialectProvider extends GeneralDialectProvider
 
     @Override
     public String insert(String tableName, OnConflictStrategy onConflict, String... valueArgs) {
+        return insert(tableName, onConflict, 1, valueArgs);
+    }
+
+    @Override
+    public String insert(String tableName, OnConflictStrategy onConflict,
+                         int rows, String... valueArgs) {
         if (StringUtils.isEmpty(tableName)) {
             throw new IllegalArgumentException("Table name is empty.");
         }
         String start;
         switch (onConflict) {
             case REPLACE:
+                return upsert(tableName, new String[0], rows, valueArgs);
+            case DELETE_INSERT:
                 start = "REPLACE";
                 break;
             case IGNORE:
@@ -246,7 +268,30 @@ public class MySQLDialectProvider extends GeneralDialectProvider
             default:
                 start = "INSERT";
         }
-        return buildInsertWithStart(tableName, start, valueArgs);
+        return buildInsertWithStart(tableName, start, rows, valueArgs);
+    }
+
+    @Override
+    public String upsert(String tableName, String[] keyColumns,
+                         int rows, String... valueArgs) {
+        // INSERT INTO `t` (`id`, `a`) VALUES (?, ?) ON DUPLICATE KEY UPDATE `a` = VALUES(`a`)
+        // MySQL detects conflicts on the primary key and all unique keys,
+        // so key columns are only excluded from the update.
+        if (StringUtils.isEmpty(tableName)) {
+            throw new IllegalArgumentException("Table name is empty.");
+        }
+        List<String> updates = nonKeyColumns(keyColumns, valueArgs);
+        if (updates.isEmpty()) {
+            // no-op update, keeps the existing row
+            updates = Collections.singletonList(valueArgs[0]);
+        }
+        StringJoiner updateJoiner = new StringJoiner(", ");
+        for (String column : updates) {
+            String escaped = escapeParam(column);
+            updateJoiner.add(escaped + " = VALUES(" + escaped + ")");
+        }
+        return buildInsertWithStart(tableName, "INSERT", rows, valueArgs) +
+                " ON DUPLICATE KEY UPDATE " + updateJoiner;
     }
 
 }
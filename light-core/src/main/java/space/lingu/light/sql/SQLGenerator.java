@@ -38,6 +38,47 @@ public interface SQLGenerator extends SQLEscaper {
 
     String insert(String tableName, OnConflictStrategy onConflict, String... valueArgs);
 
+    /**
+     * Return multi-row insertion statement, in the form of
+     * {@code INSERT INTO table (a, b) VALUES (?, ?), (?, ?), ...}.
+     * <p>
+     * Generators without multi-row support only create single-row
+     * statements.
+     *
+     * @param tableName  table name
+     * @param onConflict {@link OnConflictStrategy}
+     * @param rows       number of rows in the statement
+     * @param valueArgs  column names (in order)
+     * @return insertion statement.
+     * @throws UnsupportedOperationException if more than one row
+     *                                       is not supported.
+     */
+    default String insert(String tableName, OnConflictStrategy onConflict,
+                          int rows, String... valueArgs) {
+        if (rows == 1) {
+            return insert(tableName, onConflict, valueArgs);
+        }
+        throw new UnsupportedOperationException("Multi-row insert is not supported.");
+    }
+
+    /**
+     * Return multi-row upsert statement, which inserts the rows and
+     * updates the conflicting rows in place with the new values.
+     * Used for {@link OnConflictStrategy#REPLACE}.
+     *
+     * @param tableName  table name
+     * @param keyColumns key columns of conflicts, usually the primary key.
+     *                   If empty, the dialect default is used.
+     * @param rows       number of rows in the statement
+     * @param valueArgs  column names (in order)
+     * @return upsert statement. By default it is the insertion
+     * statement with {@link OnConflictStrategy#REPLACE}.
+     */
+    default String upsert(String tableName, String[] keyColumns,
+                          int rows, String... valueArgs) {
+        return insert(tableName, OnConflictStrategy.REPLACE, rows, valueArgs);
+    }
+
     String delete(String tableName, String... conditions);
 
     String update(String tableName, String[] whereConditions, String[] valueArgs);
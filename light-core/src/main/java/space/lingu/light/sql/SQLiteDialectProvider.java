@@ -23,6 +23,7 @@ import space.lingu.light.struct.TableColumn;
 import space.lingu.light.struct.TableIndex;
 import space.lingu.light.util.StringUtils;
 
+import java.util.List;
 import java.util.StringJoiner;
 
 /**
@@ -188,6 +189,27 @@ public class SQLiteDialectProvider extends GeneralDialectProvider
         return originalJdbcUrl;
     }
 
+    @Override
+    public int getMaxBindParameters(int majorVersion, int minorVersion) {
+        // SQLITE_MAX_VARIABLE_NUMBER was raised to 32766 in 3.32.0.
+        if (majorVersion > 3 || (majorVersion == 3 && minorVersion >= 32)) {
+            return 32766;
+        }
+        return 999;
+    }
+
+    @Override
+    public boolean supportsUpsert(int majorVersion, int minorVersion) {
+        // ON CONFLICT (...) DO UPDATE was added in 3.24.0.
+        return majorVersion > 3 || (majorVersion == 3 && minorVersion >= 24);
+    }
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        // sqlite-jdbc only returns the last inserted rowid.
+        return false;
+    }
+
     @Override
     public SQLGenerator getGenerator() {
         return this;
@@ -200,14 +222,53 @@ public class SQLiteDialectProvider extends GeneralDialectProvider
 
     @Override
     public String insert(String tableName, OnConflictStrategy onConflict, String... valueArgs) {
-        StringBuilder statementBuilder = new StringBuilder();
-        if (onConflict == OnConflictStrategy.REPLACE) {
-            statementBuilder.append("REPLACE");
-        } else {
-            statementBuilder.append("INSERT OR ").append(onConflict.name());
+        return insert(tableName, onConflict, 1, valueArgs);
+    }
+
+    @Override
+    public String insert(String tableName, OnConflictStrategy onConflict,
+                         int rows, String... valueArgs) {
+        return buildInsertWithStart(tableName,
+                "INSERT OR " + conflictClause(onConflict), rows, valueArgs);
+    }
+
+    @Override
+    public String upsert(String tableName, String[] keyColumns,
+                         int rows, String... valueArgs) {
+        // INSERT INTO "t" ("id", "a") VALUES (?, ?) ON CONFLICT ("id") DO UPDATE SET "a" = excluded."a"
+        // Requires SQLite 3.24.0 or later, see supportsUpsert.
+        if (keyColumns.length == 0) {
+            // omitting the conflict target requires 3.35.0,
+            // and without keys every column would be updated
+            return insert(tableName, OnConflictStrategy.REPLACE, rows, valueArgs);
         }
+        StringJoiner keyJoiner = new StringJoiner(", ", " (", ")");
+        for (String keyColumn : keyColumns) {
+            keyJoiner.add(escapeParam(keyColumn));
+        }
+        StringBuilder builder = new StringBuilder(
+                buildInsertWithStart(tableName, "INSERT", rows, valueArgs))
+                .append(" ON CONFLICT")
+                .append(keyJoiner);
+        List<String> updates = nonKeyColumns(keyColumns, valueArgs);
+        if (updates.isEmpty()) {
+            return builder.append(" DO NOTHING").toString();
+        }
+        StringJoiner updateJoiner = new StringJoiner(", ");
+        for (String column : updates) {
+            String escaped = escapeParam(column);
+            updateJoiner.add(escaped + " = excluded." + escaped);
+        }
+        return builder.append(" DO UPDATE SET ")
+                .append(updateJoiner)
+                .toString();
+    }
 
-        return buildInsertWithStart(tableName, statementBuilder.toString(), valueArgs);
+    private static String conflictClause(OnConflictStrategy onConflict) {
+        if (onConflict == OnConflictStrategy.DELETE_INSERT) {
+            return OnConflictStrategy.REPLACE.name();
+        }
+        return onConflict.name();
     }
 
     @Override
@@ -218,7 +279,7 @@ public class SQLiteDialectProvider extends GeneralDialectProvider
     @Override
     public String update(String tableName, OnConflictStrategy onConflict, String[] whereConditions, String[] valueArgs) {
         return buildUpdateWithStart(tableName,
-                "UPDATE OR " + onConflict.name(),
+                "UPDATE OR " + conflictClause(onConflict),
                 whereConditions, valueArgs);
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package space.lingu.light.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@link Connection} utility methods
+ *
+ * @author RollW
+ */
+public final class ConnectionUtils {
+
+    /**
+     * Get the connection of the driver under pool wrappers.
+     * Pools usually hand out a new wrapper on each checkout,
+     * while the physical connection stays the same.
+     *
+     * @param connection the connection, maybe a wrapper
+     * @return the physical connection, or the given one
+     * if it cannot be unwrapped.
+     */
+    public static Connection unwrapPhysical(Connection connection) {
+        try {
+            if (connection.isWrapperFor(Connection.class)) {
+                Connection physical = connection.unwrap(Connection.class);
+                if (physical != null) {
+                    return physical;
+                }
+            }
+        } catch (SQLException ignored) {
+            // not a wrapper
+        }
+        return connection;
+    }
+
+    /**
+     * Check if the connection is closed, a connection failing
+     * the check is treated as closed.
+     */
+    public static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private ConnectionUtils() {
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import space.lingu.light.connect.ConnectionPool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * In-memory {@link ConnectionPool} over fake JDBC connections,
+ * recording executed rows instead of running them.
+ * <p>
+ * Each row is recorded as {@code sql + " " + params}. Rows executed
+ * in a transaction are only visible in {@link #getCommitted()} after
+ * the transaction commits, and are dropped when it rolls back.
+ *
+ * @author RollW
+ */
+public class FakeConnectionPool implements ConnectionPool {
+    private final List<String> committed =
+            Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger preparedStatements = new AtomicInteger();
+    private volatile Predicate<String> failure = row -> false;
+    private volatile Predicate<String> failureOnBegin = sql -> false;
+    private DatasourceConfig config;
+    private LightLogger logger;
+
+    /**
+     * Fail executing rows matching the predicate.
+     */
+    public void failWhen(Predicate<String> failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * Fail starting a transaction ({@code setAutoCommit(false)}).
+     */
+    public void failOnBegin(boolean fail) {
+        this.failureOnBegin = sql -> fail;
+    }
+
+    /**
+     * @return committed rows in execution order
+     */
+    public List<String> getCommitted() {
+        synchronized (committed) {
+            return new ArrayList<>(committed);
+        }
+    }
+
+    /**
+     * @return connections required but not released yet
+     */
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    /**
+     * @return statements prepared on the connections
+     */
+    public int getPreparedStatements() {
+        return preparedStatements.get();
+    }
+
+    @Override
+    public void setDatasourceConfig(DatasourceConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public DatasourceConfig getDatasourceConfig() {
+        return config;
+    }
+
+    @Override
+    public Connection requireConnection() {
+        openConnections.incrementAndGet();
+        return proxy(Connection.class, new FakeConnection());
+    }
+
+    @Override
+    public void release(Connection connection) {
+        openConnections.decrementAndGet();
+    }
+
+    @Override
+    public void setLogger(LightLogger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public LightLogger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(
+                FakeConnectionPool.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return proxy.getClass().getName();
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class || type == long.class || type == short.class) {
+            return type == long.class ? (Object) 0L : (Object) 0;
+        }
+        return null;
+    }
+
+    private static ResultSet emptyResultSet() {
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class,
+                FakeConnectionPool::defaultValue);
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            if (method.getName().equals("getMetaData")) {
+                return metaData;
+            }
+            return defaultValue(proxy, method, args);
+        });
+    }
+
+    private final class FakeConnection implements InvocationHandler {
+        private final List<String> pending = new ArrayList<>();
+        private boolean autoCommit = true;
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            switch (method.getName()) {
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    boolean enable = (Boolean) args[0];
+                    if (!enable && failureOnBegin.test(null)) {
+                        throw new SQLException("Injected failure on begin");
+                    }
+                    if (enable && !autoCommit) {
+                        commit();
+                    }
+                    autoCommit = enable;
+                    return null;
+                case "commit":
+                    commit();
+                    return null;
+                case "rollback":
+                    pending.clear();
+                    return null;
+                case "prepareStatement":
+                    preparedStatements.incrementAndGet();
+                    return proxy(PreparedStatement.class,
+                            new FakeStatement(this, (Connection) proxy, (String) args[0]));
+                case "getMetaData":
+                    return proxy(DatabaseMetaData.class, (p, m, a) -> {
+                        switch (m.getName()) {
+                            case "supportsBatchUpdates":
+                            case "supportsTransactions":
+                                return true;
+                            case "getDatabaseMajorVersion":
+                                return 8;
+                            default:
+                                return defaultValue(p, m, a);
+                        }
+                    });
+                case "getCatalog":
+                    return "test";
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        }
+
+        void execute(String row) throws SQLException {
+            if (failure.test(row)) {
+                throw new SQLException("Injected failure: " + row);
+            }
+            if (autoCommit) {
+                committed.add(row);
+            } else {
+                pending.add(row);
+            }
+        }
+
+        private void commit() {
+            committed.addAll(pending);
+            pending.clear();
+        }
+    }
+
+    private static final class FakeStatement implements InvocationHandler {
+        private final FakeConnection connection;
+        private final Connection connectionProxy;
+        private final String sql;
+        private final Map<Integer, Object> params = new TreeMap<>();
+        private final List<String> batch = new ArrayList<>();
+        private boolean closed;
+
+        FakeStatement(FakeConnection connection, Connection connectionProxy, String sql) {
+            this.connection = connection;
+            this.connectionProxy = connectionProxy;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                params.put((Integer) args[0],
+                        name.equals("setNull") ? null : args[1]);
+                return null;
+            }
+            switch (name) {
+                case "clearParameters":
+                    params.clear();
+                    return null;
+                case "addBatch":
+                    batch.add(row());
+                    return null;
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "executeBatch":
+                    int[] counts = new int[batch.size()];
+                    try {
+                        for (int i = 0; i < batch.size(); i++) {
+                            connection.execute(batch.get(i));
+                            counts[i] = 1;
+                        }
+                    } catch (SQLException e) {
+                        throw new BatchUpdateException(e.getMessage(), counts);
+                    } finally {
+                        batch.clear();
+                    }
+                    return counts;
+                case "executeUpdate":
+                    connection.execute(row());
+                    return 1;
+                case "execute":
+                    connection.execute(row());
+                    return false;
+                case "executeQuery":
+                case "getResultSet":
+                case "getGeneratedKeys":
+                    return emptyResultSet();
+                case "getConnection":
+                    return connectionProxy;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        }
+
+        private String row() {
+            return sql + " " + new ArrayList<>(params.values());
+        }
+    }
+}
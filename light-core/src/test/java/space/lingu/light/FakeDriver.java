@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * JDBC {@link Driver} of {@code jdbc:fake:<name>} urls, for pools
+ * opening connections through {@link DriverManager}.
+ * <p>
+ * Connections of a name are opened from the {@link FakeConnectionPool}
+ * of {@link #pool(String)}, and released to it once closed. A
+ * connection is valid until closed.
+ *
+ * @author RollW
+ */
+public class FakeDriver implements Driver {
+    private static final String URL_PREFIX = "jdbc:fake:";
+    private static final Map<String, FakeConnectionPool> POOLS =
+            new ConcurrentHashMap<>();
+
+    static {
+        try {
+            DriverManager.registerDriver(new FakeDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * @param name name of the database
+     * @return datasource config opening connections by this driver
+     */
+    public static DatasourceConfig config(String name) {
+        return new DatasourceConfig(URL_PREFIX + name,
+                FakeDriver.class.getName(), null, null);
+    }
+
+    /**
+     * @param name name of the database
+     * @return the pool recording connections of the name
+     */
+    public static FakeConnectionPool pool(String name) {
+        return POOLS.computeIfAbsent(name, key -> new FakeConnectionPool());
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        FakeConnectionPool pool = pool(url.substring(URL_PREFIX.length()));
+        Connection connection = pool.requireConnection();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                FakeDriver.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (closed.compareAndSet(false, true)) {
+                                pool.release(connection);
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed.get();
+                        case "isValid":
+                            return !closed.get();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import space.lingu.light.sql.MySQLDialectProvider;
+
+/**
+ * A {@link LightDatabase} without tables over a {@link FakeConnectionPool}.
+ *
+ * @author RollW
+ */
+public class TestDatabase extends LightDatabase {
+    private final FakeConnectionPool pool;
+
+    public TestDatabase() {
+        this(new FakeConnectionPool(), BatchOptions.DEFAULT);
+    }
+
+    public TestDatabase(FakeConnectionPool pool, BatchOptions batchOptions) {
+        this.pool = pool;
+        init(new DatabaseConfiguration("test",
+                new DatasourceConfig("jdbc:fake:test", "fake", null, null),
+                pool,
+                new MySQLDialectProvider(),
+                null,
+                new MigrationContainer(),
+                Configurations.empty(),
+                batchOptions,
+                QueryOptions.DEFAULT));
+    }
+
+    public FakeConnectionPool getPool() {
+        return pool;
+    }
+
+    @Override
+    protected LightInfo.LightInfoDao _LightInfoDao() {
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RollW
+ */
+public class TransactionScopeTest {
+
+    @Test
+    public void releasesConnectionIfBeginFails() {
+        TestDatabase database = new TestDatabase();
+        FakeConnectionPool pool = database.getPool();
+        pool.failOnBegin(true);
+
+        assertThrows(LightRuntimeException.class,
+                database::beginTransactionScope);
+        assertEquals(0, pool.getOpenConnections());
+
+        // no scope is left bound to the thread
+        pool.failOnBegin(false);
+        ManagedConnection connection = database.beginTransactionScope();
+        database.endTransactionScope(connection, true);
+        assertEquals(0, pool.getOpenConnections());
+    }
+}
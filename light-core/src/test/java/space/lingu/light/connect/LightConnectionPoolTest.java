@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.connect;
+
+import org.junit.jupiter.api.Test;
+import space.lingu.light.FakeConnectionPool;
+import space.lingu.light.FakeDriver;
+import space.lingu.light.LightRuntimeException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RollW
+ */
+public class LightConnectionPoolTest {
+
+    @Test
+    public void exhaustedPoolTimesOut() {
+        LightConnectionPool pool = createPool("exhausted", PoolOptions.builder()
+                .setMaxPoolSize(2)
+                .setAcquireTimeout(100));
+        try {
+            Connection first = pool.requireConnection();
+            pool.requireConnection();
+
+            long start = System.nanoTime();
+            assertThrows(LightRuntimeException.class, pool::requireConnection);
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(waited >= 100, "waited " + waited + "ms");
+            assertEquals(2, pool.getTotalConnections());
+
+            pool.release(first);
+            assertSame(first, pool.requireConnection());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void reacquiresLastReleasedOnSameThread() {
+        LightConnectionPool pool = createPool("reacquire", PoolOptions.builder());
+        try {
+            Connection first = pool.requireConnection();
+            Connection second = pool.requireConnection();
+            pool.release(first);
+            pool.release(second);
+
+            // the scan would find the first one
+            assertSame(second, pool.requireConnection());
+            assertSame(first, pool.requireConnection());
+            assertEquals(2, pool.getTotalConnections());
+            assertEquals(2, FakeDriver.pool("reacquire").getOpenConnections());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void evictsIdleTimedOutConnections() throws InterruptedException {
+        LightConnectionPool pool = createPool("evict", PoolOptions.builder()
+                .setIdleTimeout(50)
+                .setMinIdle(1));
+        FakeConnectionPool driverPool = FakeDriver.pool("evict");
+        try {
+            Connection first = pool.requireConnection();
+            Connection second = pool.requireConnection();
+            Connection third = pool.requireConnection();
+            pool.release(first);
+            pool.release(second);
+            pool.release(third);
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (pool.getTotalConnections() > 1 &&
+                    System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, pool.getTotalConnections());
+            assertEquals(1, pool.getIdleConnections());
+            assertEquals(1, driverPool.getOpenConnections());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void closeKeepsBorrowedConnectionsUntilReleased() throws SQLException {
+        LightConnectionPool pool = createPool("close", PoolOptions.builder());
+        FakeConnectionPool driverPool = FakeDriver.pool("close");
+        Connection borrowed = pool.requireConnection();
+        Connection idle = pool.requireConnection();
+        pool.release(idle);
+
+        pool.close();
+
+        assertTrue(idle.isClosed());
+        assertFalse(borrowed.isClosed());
+        assertEquals(1, driverPool.getOpenConnections());
+        assertThrows(LightRuntimeException.class, pool::requireConnection);
+
+        pool.release(borrowed);
+        assertTrue(borrowed.isClosed());
+        assertEquals(0, driverPool.getOpenConnections());
+        assertEquals(0, pool.getTotalConnections());
+    }
+
+    private static LightConnectionPool createPool(String name,
+                                                  PoolOptions.Builder options) {
+        return new LightConnectionPool(FakeDriver.config(name), options.build());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import org.junit.jupiter.api.Test;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.ManagedConnection;
+import space.lingu.light.Order;
+import space.lingu.light.PageRequest;
+import space.lingu.light.TestDatabase;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RollW
+ */
+public class KeysetSQLHandlerTest {
+
+    @Test
+    public void seekQueryComparesSortKey() {
+        KeysetSQLHandler handler = new KeysetSQLHandler(new TestDatabase(),
+                "SELECT id, name FROM user WHERE age > {age}",
+                new String[]{"id", "name"}, Order.ASC);
+
+        assertEquals("SELECT id, name FROM user WHERE (age > ?) AND " +
+                        "(`id`, `name`) > (?, ?) ORDER BY `id`, `name` LIMIT ?",
+                handler.getSeekStatementSql());
+    }
+
+    @Test
+    public void nullSortKeyIsRejected() throws SQLException {
+        KeysetSQLHandler handler = new KeysetSQLHandler(new TestDatabase(),
+                "SELECT id, name FROM user", new String[]{"id", "name"}, Order.ASC);
+
+        assertArrayEquals(new Object[]{1L, "a"},
+                handler.readKeys(resultSet(1L, "a")));
+        assertThrows(LightRuntimeException.class,
+                () -> handler.readKeys(resultSet(1L, null)));
+    }
+
+    @Test
+    public void nullSeekValueIsRejected() {
+        TestDatabase database = new TestDatabase();
+        KeysetSQLHandler handler = new KeysetSQLHandler(database,
+                "SELECT id, name FROM user", new String[]{"id", "name"}, Order.ASC);
+        String token = KeysetToken.encode(new Object[]{1L, null});
+
+        try (ManagedConnection connection = database.requireManagedConnection()) {
+            assertThrows(LightRuntimeException.class, () -> handler.acquire(
+                    connection, new int[0], PageRequest.after(10, token)));
+        }
+    }
+
+    private static ResultSet resultSet(Object id, Object name) {
+        return (ResultSet) Proxy.newProxyInstance(
+                KeysetSQLHandlerTest.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getObject")) {
+                        return "id".equals(args[0]) ? id : name;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
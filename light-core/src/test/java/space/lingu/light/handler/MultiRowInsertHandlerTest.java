@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import org.junit.jupiter.api.Test;
+import space.lingu.light.BatchOptions;
+import space.lingu.light.FakeConnectionPool;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.OnConflictStrategy;
+import space.lingu.light.TestDatabase;
+import space.lingu.light.connect.StatementCache;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RollW
+ */
+public class MultiRowInsertHandlerTest {
+
+    @Test
+    public void insertsRowsPerStatement() {
+        FakeConnectionPool pool = new FakeConnectionPool();
+        TestDatabase database = new TestDatabase(pool,
+                new BatchOptions(2, false));
+        RowHandler handler = new RowHandler(database);
+
+        int[] counts = handler.insertInBatches(Arrays.asList(
+                new Row(1, "a"), new Row(2, "b"), new Row(3, "c"),
+                new Row(4, "d"), new Row(5, "e")));
+
+        // one statement for each two rows
+        assertEquals(3, counts.length);
+        assertEquals(3, pool.getCommitted().size());
+        assertTrue(pool.getCommitted().get(0).endsWith("[1, a, 2, b]"));
+        assertEquals(0, pool.getOpenConnections());
+    }
+
+    @Test
+    public void doesNotCacheRemainderStatement() {
+        TestDatabase database = new TestDatabase(new FakeConnectionPool(),
+                new BatchOptions(2, false));
+        RowHandler handler = new RowHandler(database);
+
+        handler.insertInBatches(Arrays.asList(
+                new Row(1, "a"), new Row(2, "b"), new Row(3, "c")));
+
+        // only the full-size statement is returned to the cache
+        StatementCache cache = database.getStatementCache();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void skipsCacheIfPoolDoesNotReuseConnections() {
+        FakeConnectionPool pool = new FakeConnectionPool() {
+            @Override
+            public boolean reusesConnections() {
+                return false;
+            }
+        };
+        TestDatabase database = new TestDatabase(pool, BatchOptions.DEFAULT);
+
+        assertNull(database.getStatementCache());
+    }
+
+    private static final class Row {
+        final long id;
+        final String name;
+
+        Row(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static final class RowHandler extends MultiRowInsertHandler<Row> {
+        RowHandler(TestDatabase database) {
+            super(database);
+        }
+
+        @Override
+        protected String createQuery() {
+            return createQuery(1);
+        }
+
+        @Override
+        protected String createQuery(int rows) {
+            return database.getDialectProvider().getGenerator()
+                    .insert("row", OnConflictStrategy.ABORT, rows, "id", "name");
+        }
+
+        @Override
+        protected int getParameterCount() {
+            return 2;
+        }
+
+        @Override
+        protected void bind(PreparedStatement statement, Row entity, int offset) {
+            try {
+                statement.setLong(offset + 1, entity.id);
+                statement.setString(offset + 2, entity.name);
+            } catch (SQLException e) {
+                throw new LightRuntimeException(e);
+            }
+        }
+
+        @Override
+        protected void bind(PreparedStatement statement, Row entity) {
+            bind(statement, entity, 0);
+        }
+    }
+}
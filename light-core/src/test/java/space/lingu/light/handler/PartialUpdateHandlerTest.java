@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import org.junit.jupiter.api.Test;
+import space.lingu.light.BatchOptions;
+import space.lingu.light.FakeConnectionPool;
+import space.lingu.light.LightRuntimeException;
+import space.lingu.light.TestDatabase;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RollW
+ */
+public class PartialUpdateHandlerTest {
+    private static final long NAME = 1L << 1;
+    private static final long SCORE = 1L << 2;
+
+    @Test
+    public void updatesOnlyChangedColumns() {
+        TestDatabase database = new TestDatabase();
+        RowHandler handler = new RowHandler(database);
+
+        assertEquals(1, handler.handle(new Row(1, "a", 10, NAME)));
+        assertEquals(0, handler.handle(new Row(2, "b", 20, 0)));
+
+        List<String> committed = database.getPool().getCommitted();
+        assertEquals(1, committed.size());
+        String row = committed.get(0);
+        assertTrue(row.startsWith("UPDATE `row` SET `name`=? WHERE"), row);
+        assertTrue(row.endsWith("[a, 1]"), row);
+    }
+
+    @Test
+    public void failedGroupRollsBackAllGroups() {
+        TestDatabase database = new TestDatabase();
+        FakeConnectionPool pool = database.getPool();
+        pool.failWhen(row -> row.contains("fail"));
+        RowHandler handler = new RowHandler(database);
+
+        List<Row> rows = Arrays.asList(
+                new Row(1, "a", 10, NAME),
+                new Row(2, "b", 20, NAME),
+                new Row(3, "c", 30, SCORE),
+                new Row(4, "fail", 40, NAME | SCORE),
+                new Row(5, "e", 50, SCORE)
+        );
+        assertThrows(LightRuntimeException.class,
+                () -> handler.handleMultiple(rows));
+
+        assertTrue(pool.getCommitted().isEmpty());
+        assertEquals(0, pool.getOpenConnections());
+    }
+
+    @Test
+    public void flushesEachChunk() {
+        FakeConnectionPool pool = new FakeConnectionPool();
+        TestDatabase database = new TestDatabase(pool,
+                new BatchOptions(2, false));
+        RowHandler handler = new RowHandler(database);
+
+        int[] counts = handler.handleInBatches(Arrays.asList(
+                new Row(1, "a", 10, NAME),
+                new Row(2, "b", 20, SCORE),
+                new Row(3, "c", 30, 0),
+                new Row(4, "d", 40, NAME),
+                new Row(5, "e", 50, SCORE)
+        ));
+
+        assertArrayEquals(new int[]{2, 2}, counts);
+        assertEquals(4, pool.getCommitted().size());
+    }
+
+    @Test
+    public void commitsEachChunkIfTransactionPerChunk() {
+        FakeConnectionPool pool = new FakeConnectionPool();
+        pool.failWhen(row -> row.contains("fail"));
+        TestDatabase database = new TestDatabase(pool,
+                new BatchOptions(2, true));
+        RowHandler handler = new RowHandler(database);
+
+        assertThrows(LightRuntimeException.class,
+                () -> handler.handleMultiple(Arrays.asList(
+                        new Row(1, "a", 10, NAME),
+                        new Row(2, "b", 20, SCORE),
+                        new Row(3, "fail", 30, NAME),
+                        new Row(4, "d", 40, NAME)
+                )));
+
+        assertEquals(2, pool.getCommitted().size());
+    }
+
+    private static final class Row {
+        final long id;
+        final String name;
+        final int score;
+        final long changed;
+
+        Row(long id, String name, int score, long changed) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+            this.changed = changed;
+        }
+    }
+
+    private static final class RowHandler extends PartialUpdateHandler<Row> {
+        RowHandler(TestDatabase database) {
+            super(database, new String[]{"id", "name", "score"});
+        }
+
+        @Override
+        protected long changedColumns(Row entity) {
+            return entity.changed;
+        }
+
+        @Override
+        protected String createQuery(String[] changedColumns) {
+            return database.getDialectProvider().getGenerator()
+                    .update("row", new String[]{"id"}, changedColumns);
+        }
+
+        @Override
+        protected void bind(PreparedStatement statement, Row entity,
+                            long changedColumns) {
+            try {
+                int index = 1;
+                if ((changedColumns & 1L) != 0) {
+                    statement.setLong(index++, entity.id);
+                }
+                if ((changedColumns & NAME) != 0) {
+                    statement.setString(index++, entity.name);
+                }
+                if ((changedColumns & SCORE) != 0) {
+                    statement.setInt(index++, entity.score);
+                }
+                statement.setLong(index, entity.id);
+            } catch (SQLException e) {
+                throw new LightRuntimeException(e);
+            }
+        }
+    }
+}
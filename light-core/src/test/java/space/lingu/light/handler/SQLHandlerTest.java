@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RollW
+ */
+public class SQLHandlerTest {
+
+    @Test
+    public void plainSelectIsRead() {
+        assertTrue(SQLHandler.isSelect("SELECT * FROM user WHERE id = {id}"));
+        assertTrue(SQLHandler.isSelect("  select id from user"));
+        assertFalse(SQLHandler.isSelect("UPDATE user SET name = {name}"));
+        assertFalse(SQLHandler.isSelect("INSERT INTO user (id) VALUES ({id})"));
+    }
+
+    @Test
+    public void leadingWithIsRead() {
+        assertTrue(SQLHandler.isSelect("WITH recent AS (SELECT id FROM post " +
+                "WHERE created > {time}) SELECT * FROM recent"));
+        assertTrue(SQLHandler.isSelect("with recursive tree (id) as (" +
+                "select id from node union all select n.id from node n " +
+                "join tree t on n.parent = t.id) select * from tree"));
+    }
+
+    @Test
+    public void modifyingWithIsNotRead() {
+        assertFalse(SQLHandler.isSelect("WITH removed AS (DELETE FROM post " +
+                "RETURNING id) SELECT * FROM removed"));
+        assertFalse(SQLHandler.isSelect("WITH ids AS (SELECT id FROM post) " +
+                "UPDATE post SET hidden = 1 WHERE id IN (SELECT id FROM ids)"));
+    }
+
+    @Test
+    public void lockingReadIsNotRead() {
+        assertFalse(SQLHandler.isSelect("SELECT * FROM user WHERE id = {id} FOR UPDATE"));
+        assertFalse(SQLHandler.isSelect("SELECT * FROM user FOR NO KEY UPDATE"));
+        assertFalse(SQLHandler.isSelect("SELECT * FROM user WHERE id = {id} FOR SHARE"));
+        assertFalse(SQLHandler.isSelect("select * from user for key share"));
+        assertFalse(SQLHandler.isSelect("SELECT * FROM user LOCK IN SHARE MODE"));
+        assertFalse(SQLHandler.isSelect("SELECT * FROM user\nFOR  UPDATE NOWAIT"));
+    }
+
+    @Test
+    public void literalsAndAliasesAreNotMatched() {
+        assertTrue(SQLHandler.isSelect("SELECT * FROM note WHERE text = 'for update'"));
+        assertTrue(SQLHandler.isSelect("SELECT * FROM note WHERE text = 'it''s for share'"));
+        assertTrue(SQLHandler.isSelect("SELECT text AS \"for update\" FROM note"));
+        assertTrue(SQLHandler.isSelect("SELECT text AS `lock in share mode` FROM note"));
+        assertTrue(SQLHandler.isSelect("SELECT n.update, n.share FROM note n"));
+        assertTrue(SQLHandler.isSelect("SELECT * FROM note -- for update\nWHERE id = 1"));
+        assertTrue(SQLHandler.isSelect("SELECT * FROM note /* for share */ WHERE id = 1"));
+    }
+}
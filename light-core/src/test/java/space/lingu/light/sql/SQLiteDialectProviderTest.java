@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2022 Lingu Light Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package space.lingu.light.sql;
+
+import org.junit.jupiter.api.Test;
+import space.lingu.light.OnConflictStrategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RollW
+ */
+public class SQLiteDialectProviderTest {
+    private final SQLiteDialectProvider provider = new SQLiteDialectProvider();
+
+    @Test
+    public void replaceWithoutKeysIsInsertOrReplace() {
+        String sql = provider.insert("user", OnConflictStrategy.REPLACE, 1, "id", "name");
+        assertTrue(sql.startsWith("INSERT OR REPLACE INTO"), sql);
+        assertEquals(sql, provider.upsert("user", new String[0], 1, "id", "name"));
+    }
+
+    @Test
+    public void upsertUpdatesNonKeyColumns() {
+        String sql = provider.upsert("user", new String[]{"id"}, 1, "id", "name");
+        assertTrue(sql.endsWith("ON CONFLICT (`id`) DO UPDATE SET " +
+                "`name` = excluded.`name`"), sql);
+    }
+
+    @Test
+    public void supportsUpsertSince3_24() {
+        assertFalse(provider.supportsUpsert(3, 23));
+        assertTrue(provider.supportsUpsert(3, 24));
+        assertTrue(provider.supportsUpsert(3, 45));
+    }
+}